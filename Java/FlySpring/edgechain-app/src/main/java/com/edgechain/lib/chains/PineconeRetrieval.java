@@ -6,9 +6,10 @@ import com.edgechain.lib.endpoint.impl.embeddings.MiniLMEndpoint;
 import com.edgechain.lib.endpoint.impl.embeddings.OpenAiEmbeddingEndpoint;
 import com.edgechain.lib.endpoint.impl.index.PineconeEndpoint;
 import com.edgechain.lib.request.ArkRequest;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.schedulers.Schedulers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,12 +49,14 @@ public class PineconeRetrieval {
                     .flatMap(
                         input ->
                             Observable.fromCallable(() -> generateEmbeddings(input))
-                                .subscribeOn(Schedulers.io()))
+                                .subscribeOn(EdgeChainSchedulers.get(Subsystem.EMBEDDINGS)))
                     .toList()
+                    // The upsert is an HTTP hop to this app's own DB pool: holding a DB thread
+                    // while waiting on it could exhaust the pool on both sides at once.
                     .flatMapCompletable(
                         wordEmbeddingsList ->
                             Completable.fromAction(() -> executeBatchUpsert(wordEmbeddingsList))
-                                .subscribeOn(Schedulers.io())))
+                                .subscribeOn(EdgeChainSchedulers.getDefault())))
         .blockingAwait();
   }
 
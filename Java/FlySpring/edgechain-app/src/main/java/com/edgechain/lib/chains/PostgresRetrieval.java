@@ -9,9 +9,10 @@ import com.edgechain.lib.index.enums.PostgresDistanceMetric;
 import com.edgechain.lib.index.enums.PostgresLanguage;
 import com.edgechain.lib.request.ArkRequest;
 import com.edgechain.lib.response.StringResponse;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.schedulers.Schedulers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -105,13 +106,15 @@ public class PostgresRetrieval {
                     .flatMap(
                         input ->
                             Observable.fromCallable(() -> generateEmbeddings(input))
-                                .subscribeOn(Schedulers.io()))
+                                .subscribeOn(EdgeChainSchedulers.get(Subsystem.EMBEDDINGS)))
                     .toList()
+                    // The upsert is an HTTP hop to this app's own DB pool: holding a DB thread
+                    // while waiting on it could exhaust the pool on both sides at once.
                     .flatMapCompletable(
                         wordEmbeddingsList ->
                             Completable.fromAction(
                                     () -> upsertAndCollectIds(wordEmbeddingsList, uuidQueue))
-                                .subscribeOn(Schedulers.io())))
+                                .subscribeOn(EdgeChainSchedulers.getDefault())))
         .blockingAwait();
 
     return new ArrayList<>(uuidQueue);
@@ -6,14 +6,17 @@ import com.edgechain.lib.endpoint.impl.embeddings.MiniLMEndpoint;
 import com.edgechain.lib.endpoint.impl.embeddings.OpenAiEmbeddingEndpoint;
 import com.edgechain.lib.endpoint.impl.index.RedisEndpoint;
 import com.edgechain.lib.index.enums.RedisDistanceMetric;
+import com.edgechain.lib.index.enums.RedisVectorAlgorithm;
 import com.edgechain.lib.request.ArkRequest;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.schedulers.Schedulers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Objects;
 
 public class RedisRetrieval {
   private final RedisEndpoint redisEndpoint;
@@ -21,17 +24,40 @@ public class RedisRetrieval {
   private final String[] arr;
   private final int dimension;
   private final RedisDistanceMetric metric;
+  private final RedisVectorAlgorithm algorithm;
   private int batchSize = 30;
 
+  /** Indexes with the algorithm of {@code redisEndpoint}, HNSW if it sets none. */
   public RedisRetrieval(
       String[] arr,
       RedisEndpoint redisEndpoint,
       int dimension,
       RedisDistanceMetric metric,
       ArkRequest arkRequest) {
+    this(
+        arr,
+        redisEndpoint,
+        dimension,
+        metric,
+        Objects.requireNonNullElse(redisEndpoint.getAlgorithm(), RedisVectorAlgorithm.HNSW),
+        arkRequest);
+  }
+
+  /**
+   * HNSW tuning (M, EF_CONSTRUCTION, EF_RUNTIME, INITIAL_CAP) and pre-filter fields are read from
+   * the {@link RedisEndpoint} when the index is created.
+   */
+  public RedisRetrieval(
+      String[] arr,
+      RedisEndpoint redisEndpoint,
+      int dimension,
+      RedisDistanceMetric metric,
+      RedisVectorAlgorithm algorithm,
+      ArkRequest arkRequest) {
     this.redisEndpoint = redisEndpoint;
     this.dimension = dimension;
     this.metric = metric;
+    this.algorithm = algorithm;
     this.arkRequest = arkRequest;
     this.arr = arr;
 
@@ -46,7 +72,7 @@ public class RedisRetrieval {
 
   public void upsert() {
 
-    this.redisEndpoint.createIndex(redisEndpoint.getNamespace(), dimension, metric);
+    this.redisEndpoint.createIndex(redisEndpoint.getNamespace(), dimension, metric, algorithm);
 
     Observable.fromArray(arr)
         .buffer(batchSize)
@@ -56,12 +82,14 @@ public class RedisRetrieval {
                     .flatMap(
                         input ->
                             Observable.fromCallable(() -> generateEmbeddings(input))
-                                .subscribeOn(Schedulers.io()))
+                                .subscribeOn(EdgeChainSchedulers.get(Subsystem.EMBEDDINGS)))
                     .toList()
+                    // The upsert is an HTTP hop to this app's own DB pool: holding a DB thread
+                    // while waiting on it could exhaust the pool on both sides at once.
                     .flatMapCompletable(
                         wordEmbeddingsList ->
                             Completable.fromAction(() -> executeBatchUpsert(wordEmbeddingsList))
-                                .subscribeOn(Schedulers.io())))
+                                .subscribeOn(EdgeChainSchedulers.getDefault())))
         .blockingAwait();
   }
 
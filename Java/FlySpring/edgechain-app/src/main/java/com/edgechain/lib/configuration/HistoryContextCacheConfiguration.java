@@ -0,0 +1,77 @@
+package com.edgechain.lib.configuration;
+
+import com.edgechain.lib.context.client.cache.NearCacheHistoryContextClient;
+import com.edgechain.lib.context.client.cache.RedisHistoryContextInvalidator;
+import com.edgechain.lib.context.client.impl.PostgreSQLHistoryContextClient;
+import com.edgechain.lib.context.client.impl.RedisHistoryContextClient;
+import com.edgechain.lib.endpoint.impl.context.PostgreSQLHistoryContextEndpoint;
+import com.edgechain.lib.endpoint.impl.context.RedisHistoryContextEndpoint;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import redis.clients.jedis.JedisPooled;
+
+/**
+ * Near cache for history contexts. Disabled unless {@code historycontext.cache.size} is set:
+ *
+ * <ul>
+ *   <li>{@code historycontext.cache.size}: max contexts kept per backend (default 0, disabled)
+ *   <li>{@code historycontext.cache.ttl}: seconds a local copy is trusted (default 60)
+ *   <li>{@code historycontext.cache.write-behind}: millis to coalesce puts (default 0, i.e.
+ *       write-through)
+ * </ul>
+ *
+ * Invalidations are broadcast over Redis pub/sub; for PostgreSQL only when {@code redis.url} is
+ * set.
+ */
+@Configuration
+public class HistoryContextCacheConfiguration {
+
+  @Autowired @Lazy private Environment env;
+
+  @Autowired @Lazy private JedisPooled jedisPooled;
+
+  @Bean
+  @Lazy
+  NearCacheHistoryContextClient<RedisHistoryContextEndpoint> redisHistoryContextCache(
+      RedisHistoryContextClient client) {
+    return new NearCacheHistoryContextClient<>(
+        client,
+        getSize(),
+        getTtl(),
+        getWriteBehind(),
+        getSize() > 0
+            ? new RedisHistoryContextInvalidator(jedisPooled, "historycontext:invalidate:redis")
+            : null);
+  }
+
+  @Bean
+  @Lazy
+  NearCacheHistoryContextClient<PostgreSQLHistoryContextEndpoint> postgreSQLHistoryContextCache(
+      PostgreSQLHistoryContextClient client) {
+    return new NearCacheHistoryContextClient<>(
+        client,
+        getSize(),
+        getTtl(),
+        getWriteBehind(),
+        getSize() > 0 && Objects.nonNull(env.getProperty("redis.url"))
+            ? new RedisHistoryContextInvalidator(
+                jedisPooled, "historycontext:invalidate:postgresql")
+            : null);
+  }
+
+  private int getSize() {
+    return env.getProperty("historycontext.cache.size", Integer.class, 0);
+  }
+
+  private long getTtl() {
+    return env.getProperty("historycontext.cache.ttl", Long.class, 60L);
+  }
+
+  private long getWriteBehind() {
+    return env.getProperty("historycontext.cache.write-behind", Long.class, 0L);
+  }
+}
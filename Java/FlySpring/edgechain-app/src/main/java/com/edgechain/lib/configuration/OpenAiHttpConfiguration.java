@@ -0,0 +1,87 @@
+package com.edgechain.lib.configuration;
+
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Shared non-blocking client for the OpenAI API. Connections are pooled per host and kept alive
+ * between calls; HTTP/2 is negotiated where the server supports it, falling back to HTTP/1.1:
+ * over TLS (ALPN) for https base URLs, and by h2c upgrade for plain http ones.
+ *
+ * <ul>
+ *   <li>{@code openai.http.max-connections}: pooled connections per host (default 100)
+ *   <li>{@code openai.http.pending-acquire-timeout}: seconds to wait for a free connection
+ *       (default 45)
+ *   <li>{@code openai.http.max-idle-time}: seconds before an idle connection is closed (default 30)
+ *   <li>{@code openai.http.connect-timeout}: millis (default 10000)
+ *   <li>{@code openai.http.response-timeout}: seconds between response bytes (default 300)
+ *   <li>{@code openai.http.max-in-memory-size}: max buffered response in bytes (default 16 MiB)
+ *   <li>{@code openai.http.http2}: negotiate HTTP/2 (default true)
+ * </ul>
+ */
+@Configuration
+public class OpenAiHttpConfiguration {
+
+  @Autowired @Lazy private Environment env;
+
+  @Bean(destroyMethod = "dispose")
+  ConnectionProvider openAiConnectionProvider() {
+    return ConnectionProvider.builder("openai")
+        .maxConnections(env.getProperty("openai.http.max-connections", Integer.class, 100))
+        .pendingAcquireTimeout(
+            Duration.ofSeconds(
+                env.getProperty("openai.http.pending-acquire-timeout", Long.class, 45L)))
+        .maxIdleTime(
+            Duration.ofSeconds(env.getProperty("openai.http.max-idle-time", Long.class, 30L)))
+        .evictInBackground(Duration.ofSeconds(30))
+        .build();
+  }
+
+  @Bean
+  WebClient openAiWebClient(
+      WebClient.Builder builder, ConnectionProvider openAiConnectionProvider) {
+    HttpClient httpClient =
+        HttpClient.create(openAiConnectionProvider)
+            .keepAlive(true)
+            .option(
+                ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                env.getProperty("openai.http.connect-timeout", Integer.class, 10000))
+            .responseTimeout(
+                Duration.ofSeconds(
+                    env.getProperty("openai.http.response-timeout", Long.class, 300L)));
+
+    ClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+    if (env.getProperty("openai.http.http2", Boolean.class, true)) {
+      // TLS is only for https base URLs; plain http ones (local proxies, mocks) try h2c instead.
+      ClientHttpConnector tls =
+          new ReactorClientHttpConnector(
+              httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure());
+      ClientHttpConnector plain =
+          new ReactorClientHttpConnector(
+              httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11));
+      connector =
+          (method, uri, request) ->
+              ("https".equalsIgnoreCase(uri.getScheme()) ? tls : plain)
+                  .connect(method, uri, request);
+    }
+
+    int maxInMemorySize =
+        env.getProperty("openai.http.max-in-memory-size", Integer.class, 16 * 1024 * 1024);
+
+    return builder
+        .clientConnector(connector)
+        .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+        .build();
+  }
+}
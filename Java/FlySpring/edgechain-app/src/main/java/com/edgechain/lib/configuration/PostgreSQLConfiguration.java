@@ -1,5 +1,6 @@
 package com.edgechain.lib.configuration;
 
+import com.edgechain.lib.deadline.DeadlineJdbcTemplate;
 import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.DataSourceBuilder;
@@ -22,17 +23,23 @@ public class PostgreSQLConfiguration {
     String dbUsername = env.getProperty("postgres.db.username");
     String dbPassword = env.getProperty("postgres.db.password");
 
-    return DataSourceBuilder.create()
-        .type(HikariDataSource.class)
-        .url(dbHost)
-        .driverClassName("org.postgresql.Driver")
-        .username(dbUsername)
-        .password(dbPassword)
-        .build();
+    HikariDataSource dataSource =
+        DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(dbHost)
+            .driverClassName("org.postgresql.Driver")
+            .username(dbUsername)
+            .password(dbPassword)
+            .build();
+
+    // Lets the driver send JDBC batches (e.g. log writes) as multi-row INSERTs.
+    dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+    return dataSource;
   }
 
+  // Statements time out with the request's deadline, if it has one.
   @Bean
   JdbcTemplate jdbcTemplate() {
-    return new JdbcTemplate(dataSource());
+    return new DeadlineJdbcTemplate(dataSource());
   }
 }
@@ -1,5 +1,6 @@
 package com.edgechain.lib.configuration;
 
+import com.edgechain.lib.context.client.impl.serializer.CompactStringRedisSerializer;
 import java.util.Objects;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -62,6 +63,23 @@ public class RedisConfiguration {
     return new JedisConnectionFactory(redisConfiguration);
   }
 
+  /**
+   * Encoder for history context responses and turns. Values of at least {@code
+   * redis.compression.threshold} bytes (default 1024, negative to disable) are deflated.
+   */
+  @Bean
+  @Lazy
+  CompactStringRedisSerializer historyContextSerializer() {
+
+    int threshold = 1024;
+
+    if (Objects.nonNull(env.getProperty("redis.compression.threshold"))) {
+      threshold = Integer.parseInt(env.getProperty("redis.compression.threshold"));
+    }
+
+    return new CompactStringRedisSerializer(threshold);
+  }
+
   @Bean
   RedisTemplate<String, Object> redisTemplate() {
     RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
@@ -1,8 +1,11 @@
 package com.edgechain.lib.context.client;
 
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
 
+import java.util.List;
+
 public interface HistoryContextClient<T> {
 
   EdgeChain<HistoryContext> create(String id, T endpoint);
@@ -12,4 +15,16 @@ public interface HistoryContextClient<T> {
   EdgeChain<HistoryContext> get(String key, T endpoint);
 
   EdgeChain<String> delete(String key, T endpoint);
+
+  /**
+   * Appends a single turn to the history instead of rewriting the whole response, so the cost of a
+   * write no longer grows with the length of the conversation.
+   */
+  EdgeChain<HistoryTurn> append(String key, String turn, T endpoint);
+
+  /**
+   * Returns the most recent turns (oldest first) whose cached token counts add up to at most
+   * {@code maxTokens}.
+   */
+  EdgeChain<List<HistoryTurn>> getTurns(String key, int maxTokens, T endpoint);
 }
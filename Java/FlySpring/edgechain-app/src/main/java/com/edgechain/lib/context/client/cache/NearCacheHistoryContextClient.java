@@ -0,0 +1,239 @@
+package com.edgechain.lib.context.client.cache;
+
+import com.edgechain.lib.context.client.HistoryContextClient;
+import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
+import com.edgechain.lib.endpoint.Endpoint;
+import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import io.reactivex.rxjava3.core.Observable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local (L1) cache in front of a Redis or PostgreSQL {@link HistoryContextClient} (L2).
+ *
+ * <p>Contexts are kept in a bounded LRU with a TTL. Writes update the local copy and, when an
+ * invalidator is configured, tell other nodes to drop theirs. With a write-behind delay, successive
+ * {@code put}s of the same key within the delay are coalesced into a single store write; pending
+ * writes are flushed on {@link #close()}.
+ *
+ * <p>A cache size of {@code 0} disables caching and every call goes straight to the delegate.
+ */
+public class NearCacheHistoryContextClient<T extends Endpoint>
+    implements HistoryContextClient<T>, AutoCloseable {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final HistoryContextClient<T> delegate;
+  private final int maxSize;
+  private final long ttlNanos;
+  private final long writeBehindMillis;
+  private final RedisHistoryContextInvalidator invalidator;
+
+  private final Map<String, CacheEntry> cache;
+  private final Map<String, PendingWrite<T>> pendingWrites = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService writer;
+
+  private record CacheEntry(HistoryContext context, long expiresAt) {}
+
+  private record PendingWrite<T>(String response, T endpoint) {}
+
+  /**
+   * @param invalidator optional; without it, other nodes only see changes after their TTL expires
+   */
+  public NearCacheHistoryContextClient(
+      HistoryContextClient<T> delegate,
+      int maxSize,
+      long ttlSeconds,
+      long writeBehindMillis,
+      RedisHistoryContextInvalidator invalidator) {
+    this.delegate = delegate;
+    this.maxSize = maxSize;
+    this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    this.writeBehindMillis = writeBehindMillis;
+    this.invalidator = invalidator;
+
+    this.cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > NearCacheHistoryContextClient.this.maxSize;
+          }
+        };
+
+    this.writer =
+        isEnabled() && writeBehindMillis > 0
+            ? Executors.newSingleThreadScheduledExecutor(
+                r -> {
+                  Thread thread = new Thread(r, "historycontext-write-behind");
+                  thread.setDaemon(true);
+                  return thread;
+                })
+            : null;
+
+    if (isEnabled() && Objects.nonNull(invalidator)) {
+      invalidator.subscribe(this::evict, this::evictAll);
+    }
+  }
+
+  @Override
+  public EdgeChain<HistoryContext> create(String id, T endpoint) {
+    if (!isEnabled()) return delegate.create(id, endpoint);
+
+    return new EdgeChain<>(
+        delegate
+            .create(id, endpoint)
+            .getObservable()
+            .doOnNext(context -> store(context.getId(), context)),
+        endpoint);
+  }
+
+  @Override
+  public EdgeChain<HistoryContext> put(String key, String response, T endpoint) {
+    if (!isEnabled()) return delegate.put(key, response, endpoint);
+
+    if (Objects.isNull(writer)) {
+      return new EdgeChain<>(
+          delegate
+              .put(key, response, endpoint)
+              .getObservable()
+              .doOnNext(
+                  context -> {
+                    store(key, context);
+                    publish(key);
+                  }),
+          endpoint);
+    }
+
+    return new EdgeChain<>(
+        this.get(key, endpoint)
+            .getObservable()
+            .map(
+                context -> {
+                  HistoryContext updated =
+                      new HistoryContext(context.getId(), response, context.getCreatedAt());
+                  store(key, updated);
+                  scheduleWrite(key, new PendingWrite<>(response, endpoint));
+                  return updated;
+                }),
+        endpoint);
+  }
+
+  @Override
+  public EdgeChain<HistoryContext> get(String key, T endpoint) {
+    if (!isEnabled()) return delegate.get(key, endpoint);
+
+    HistoryContext cached = lookup(key);
+    if (Objects.nonNull(cached)) {
+      return new EdgeChain<>(Observable.just(cached), endpoint);
+    }
+
+    return new EdgeChain<>(
+        delegate.get(key, endpoint).getObservable().doOnNext(context -> store(key, context)),
+        endpoint);
+  }
+
+  @Override
+  public EdgeChain<String> delete(String key, T endpoint) {
+    if (!isEnabled()) return delegate.delete(key, endpoint);
+
+    return new EdgeChain<>(
+        Observable.defer(
+            () -> {
+              pendingWrites.remove(key);
+              evict(key);
+              return delegate.delete(key, endpoint).getObservable().doOnNext(s -> publish(key));
+            }),
+        endpoint);
+  }
+
+  @Override
+  public EdgeChain<HistoryTurn> append(String key, String turn, T endpoint) {
+    return delegate.append(key, turn, endpoint);
+  }
+
+  @Override
+  public EdgeChain<List<HistoryTurn>> getTurns(String key, int maxTokens, T endpoint) {
+    return delegate.getTurns(key, maxTokens, endpoint);
+  }
+
+  /** Flushes pending write-behind puts and stops listening for invalidations. */
+  @Override
+  public void close() {
+    if (Objects.nonNull(writer)) {
+      writer.shutdownNow();
+      pendingWrites.keySet().forEach(this::flush);
+    }
+
+    if (Objects.nonNull(invalidator)) {
+      invalidator.close();
+    }
+  }
+
+  private boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  private HistoryContext lookup(String key) {
+    synchronized (cache) {
+      CacheEntry entry = cache.get(key);
+      if (Objects.isNull(entry)) return null;
+
+      if (System.nanoTime() - entry.expiresAt() > 0) {
+        cache.remove(key);
+        return null;
+      }
+      return entry.context();
+    }
+  }
+
+  private void store(String key, HistoryContext context) {
+    synchronized (cache) {
+      cache.put(key, new CacheEntry(context, System.nanoTime() + ttlNanos));
+    }
+  }
+
+  private void evict(String key) {
+    synchronized (cache) {
+      cache.remove(key);
+    }
+  }
+
+  private void evictAll() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  private void publish(String key) {
+    if (Objects.nonNull(invalidator)) invalidator.publish(key);
+  }
+
+  // Only the first put of a burst schedules a flush; later ones just replace the pending value.
+  private void scheduleWrite(String key, PendingWrite<T> write) {
+    if (Objects.isNull(pendingWrites.put(key, write))) {
+      writer.schedule(() -> flush(key), writeBehindMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void flush(String key) {
+    PendingWrite<T> write = pendingWrites.remove(key);
+    if (Objects.isNull(write)) return;
+
+    try {
+      delegate.put(key, write.response(), write.endpoint()).get();
+      publish(key);
+    } catch (Exception e) {
+      logger.error("Write-behind of {} failed ~ {}", key, e.getMessage());
+      evict(key);
+    }
+  }
+}
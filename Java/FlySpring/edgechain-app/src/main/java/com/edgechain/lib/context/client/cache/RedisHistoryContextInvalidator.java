@@ -0,0 +1,119 @@
+package com.edgechain.lib.context.client.cache;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * Broadcasts history context invalidations between nodes over Redis pub/sub. Messages are {@code
+ * <nodeId>|<key>}; a node ignores its own messages since it has already updated its local cache.
+ */
+public class RedisHistoryContextInvalidator implements AutoCloseable {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private static final long MIN_BACKOFF_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final JedisPooled jedisPooled;
+  private final String channel;
+
+  private volatile JedisPubSub subscription;
+  private volatile Thread listener;
+  private volatile boolean closed;
+
+  public RedisHistoryContextInvalidator(JedisPooled jedisPooled, String channel) {
+    this.jedisPooled = jedisPooled;
+    this.channel = channel;
+  }
+
+  public void publish(String key) {
+    try {
+      jedisPooled.publish(channel, nodeId + "|" + key);
+    } catch (Exception e) {
+      // Other nodes fall back to their local TTL.
+      logger.warn("Failed to publish invalidation of {} ~ {}", key, e.getMessage());
+    }
+  }
+
+  /**
+   * Starts a daemon thread delivering keys invalidated by other nodes to {@code onInvalidate}. If
+   * the subscription fails, say because Redis restarted, it is retried with backoff until {@link
+   * #close()}; once it is back, {@code onResubscribe} runs, as invalidations published in between
+   * were missed.
+   */
+  public void subscribe(Consumer<String> onInvalidate, Runnable onResubscribe) {
+    Thread thread =
+        new Thread(() -> listen(onInvalidate, onResubscribe), "historycontext-invalidation");
+    thread.setDaemon(true);
+    this.listener = thread;
+    thread.start();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+
+    JedisPubSub pubSub = this.subscription;
+    if (pubSub != null && pubSub.isSubscribed()) {
+      pubSub.unsubscribe();
+    }
+
+    Thread thread = this.listener;
+    if (thread != null) thread.interrupt();
+  }
+
+  private void listen(Consumer<String> onInvalidate, Runnable onResubscribe) {
+    AtomicBoolean missed = new AtomicBoolean();
+    AtomicLong backoff = new AtomicLong(MIN_BACKOFF_MILLIS);
+
+    while (!closed) {
+      JedisPubSub pubSub =
+          new JedisPubSub() {
+            @Override
+            public void onSubscribe(String channel, int subscribedChannels) {
+              if (closed) {
+                unsubscribe();
+                return;
+              }
+              backoff.set(MIN_BACKOFF_MILLIS);
+              if (missed.getAndSet(false)) onResubscribe.run();
+            }
+
+            @Override
+            public void onMessage(String channel, String message) {
+              int separator = message.indexOf('|');
+              if (separator > 0 && !message.substring(0, separator).equals(nodeId)) {
+                onInvalidate.accept(message.substring(separator + 1));
+              }
+            }
+          };
+      this.subscription = pubSub;
+
+      try {
+        jedisPooled.subscribe(pubSub, channel);
+      } catch (Exception e) {
+        if (!closed) {
+          logger.warn(
+              "History context invalidation subscription lost, retrying in {} ms ~ {}",
+              backoff.get(),
+              e.getMessage());
+        }
+      }
+      if (closed) return;
+
+      missed.set(true);
+      try {
+        Thread.sleep(backoff.getAndUpdate(b -> Math.min(2 * b, MAX_BACKOFF_MILLIS)));
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+}
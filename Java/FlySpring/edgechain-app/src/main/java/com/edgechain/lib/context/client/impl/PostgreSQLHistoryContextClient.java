@@ -1,32 +1,84 @@
 package com.edgechain.lib.context.client.impl;
 
 import com.edgechain.lib.context.client.HistoryContextClient;
-import com.edgechain.lib.context.client.repositories.PostgreSQLHistoryContextRepository;
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 import com.edgechain.lib.endpoint.impl.context.PostgreSQLHistoryContextEndpoint;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import com.edgechain.lib.utils.TokenUtils;
 import io.reactivex.rxjava3.core.Observable;
+import jakarta.annotation.PreDestroy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Stores history contexts in PostgreSQL through plain prepared statements; each operation is a
+ * single statement. The schema is created once per process, on first use.
+ *
+ * <p>When {@code postgres.ttl} (seconds) is set, contexts untouched for longer than the TTL are
+ * removed by a background task, mirroring Redis expiry. It deletes in batches of {@code
+ * postgres.expiry.batch-size} rows (default 1000) every {@code postgres.expiry.interval} seconds
+ * (default 60) so that locks stay short; turns are removed with their context.
+ */
 @Service
 public class PostgreSQLHistoryContextClient
     implements HistoryContextClient<PostgreSQLHistoryContextEndpoint> {
 
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-  @Autowired private PostgreSQLHistoryContextRepository historyContextRepository;
-
   @Autowired private JdbcTemplate jdbcTemplate;
 
+  @Autowired @Lazy private Environment env;
+
   private static final String PREFIX = "historycontext:";
 
+  private static final String UPSERT_SQL =
+      "INSERT INTO history_context (id, response, created_at, updated_at) VALUES (?, '', ?, ?)"
+          + " ON CONFLICT (id) DO UPDATE SET response = EXCLUDED.response,"
+          + " created_at = EXCLUDED.created_at, updated_at = EXCLUDED.updated_at";
+
+  private static final String UPDATE_SQL =
+      "UPDATE history_context SET response = ?, updated_at = ? WHERE id = ?"
+          + " RETURNING id, response, created_at";
+
+  private static final String SELECT_SQL =
+      "SELECT id, response, created_at FROM history_context WHERE id = ?";
+
+  private static final String APPEND_SQL =
+      "WITH context AS (UPDATE history_context SET updated_at = ? WHERE id = ? RETURNING id)"
+          + " INSERT INTO history_context_turn (context_id, response, tokens, created_at)"
+          + " SELECT id, ?, ?, ? FROM context";
+
+  // Running total from the newest turn backwards, served by (context_id, seq).
+  private static final String WINDOW_SQL =
+      "SELECT response, tokens FROM (SELECT seq, response, tokens, SUM(tokens)"
+          + " OVER (ORDER BY seq DESC) AS running FROM history_context_turn"
+          + " WHERE context_id = ?) t WHERE running <= ? ORDER BY seq";
+
+  // ctid lets each batch delete exactly the rows it picked without a second index lookup.
+  private static final String EXPIRE_SQL =
+      "DELETE FROM history_context WHERE ctid = ANY(ARRAY(SELECT ctid FROM history_context"
+          + " WHERE updated_at < ? LIMIT ?))";
+
+  private volatile boolean initialized;
+
+  private ScheduledExecutorService expiryExecutor;
+
   @Transactional
   @Override
   public EdgeChain<HistoryContext> create(String id, PostgreSQLHistoryContextEndpoint endpoint) {
@@ -38,15 +90,19 @@ public class PostgreSQLHistoryContextClient
                 if (Objects.isNull(id) || id.isEmpty())
                   throw new RuntimeException("Postgres history_context id cannot be empty or null");
 
-                this.createTable(); // Create Table IF NOT EXISTS;
+                this.initialize();
 
-                HistoryContext context = new HistoryContext(PREFIX + id, "", LocalDateTime.now());
+                LocalDateTime now = LocalDateTime.now();
+                HistoryContext context = new HistoryContext(PREFIX + id, "", now);
+
+                this.jdbcTemplate.update(
+                    UPSERT_SQL, context.getId(), Timestamp.valueOf(now), Timestamp.valueOf(now));
 
                 if (logger.isInfoEnabled()) {
                   logger.info("{} is added", context.getId());
                 }
 
-                emitter.onNext(historyContextRepository.save(context));
+                emitter.onNext(context);
                 emitter.onComplete();
 
               } catch (final Exception e) {
@@ -65,17 +121,24 @@ public class PostgreSQLHistoryContextClient
             emitter -> {
               try {
 
-                HistoryContext historyContext = this.get(id, null).get();
-                String input = response.replace("'", "");
-                historyContext.setResponse(input);
+                this.initialize();
+
+                List<HistoryContext> updated =
+                    this.jdbcTemplate.query(
+                        UPDATE_SQL,
+                        this::mapHistoryContext,
+                        response,
+                        Timestamp.valueOf(LocalDateTime.now()),
+                        id);
 
-                HistoryContext returnValue = this.historyContextRepository.save(historyContext);
+                if (updated.isEmpty())
+                  throw new RuntimeException("PostgreSQL history_context id isn't found.");
 
                 if (logger.isInfoEnabled()) {
                   logger.info("{} is updated", id);
                 }
 
-                emitter.onNext(returnValue);
+                emitter.onNext(updated.get(0));
                 emitter.onComplete();
 
               } catch (final Exception e) {
@@ -92,14 +155,16 @@ public class PostgreSQLHistoryContextClient
         Observable.create(
             emitter -> {
               try {
-                final HistoryContext val =
-                    this.historyContextRepository
-                        .findById(id)
-                        .orElseThrow(
-                            () ->
-                                new RuntimeException("PostgreSQL history_context id isn't found."));
-
-                emitter.onNext(val);
+
+                this.initialize();
+
+                List<HistoryContext> contexts =
+                    this.jdbcTemplate.query(SELECT_SQL, this::mapHistoryContext, id);
+
+                if (contexts.isEmpty())
+                  throw new RuntimeException("PostgreSQL history_context id isn't found.");
+
+                emitter.onNext(contexts.get(0));
                 emitter.onComplete();
 
               } catch (final Exception e) {
@@ -117,8 +182,10 @@ public class PostgreSQLHistoryContextClient
             emitter -> {
               try {
 
-                HistoryContext historyContext = this.get(id, null).get();
-                this.historyContextRepository.delete(historyContext);
+                this.initialize();
+
+                if (this.jdbcTemplate.update("DELETE FROM history_context WHERE id = ?", id) == 0)
+                  throw new RuntimeException("PostgreSQL history_context id isn't found.");
 
                 if (logger.isInfoEnabled()) {
                   logger.info("{} is deleted", id);
@@ -134,10 +201,171 @@ public class PostgreSQLHistoryContextClient
         endpoint);
   }
 
+  @Transactional
+  @Override
+  public EdgeChain<HistoryTurn> append(
+      String id, String turn, PostgreSQLHistoryContextEndpoint endpoint) {
+    return new EdgeChain<>(
+        Observable.create(
+            emitter -> {
+              try {
+
+                this.initialize();
+
+                int tokens = TokenUtils.countTokens(turn);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+                int inserted = this.jdbcTemplate.update(APPEND_SQL, now, id, turn, tokens, now);
+
+                if (inserted == 0)
+                  throw new RuntimeException("PostgreSQL history_context id isn't found.");
+
+                if (logger.isInfoEnabled()) {
+                  logger.info("{} is appended", id);
+                }
+
+                emitter.onNext(new HistoryTurn(turn, tokens));
+                emitter.onComplete();
+
+              } catch (final Exception e) {
+                emitter.onError(e);
+              }
+            }),
+        endpoint);
+  }
+
+  @Transactional(readOnly = true)
+  @Override
+  public EdgeChain<List<HistoryTurn>> getTurns(
+      String id, int maxTokens, PostgreSQLHistoryContextEndpoint endpoint) {
+    return new EdgeChain<>(
+        Observable.create(
+            emitter -> {
+              try {
+
+                this.initialize();
+
+                List<HistoryTurn> turns =
+                    this.jdbcTemplate.query(
+                        WINDOW_SQL,
+                        (rs, rowNum) -> new HistoryTurn(rs.getString(1), rs.getInt(2)),
+                        id,
+                        maxTokens);
+
+                if (turns.isEmpty()
+                    && !this.jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM history_context WHERE id = ?)",
+                        Boolean.class,
+                        id))
+                  throw new RuntimeException("PostgreSQL history_context id isn't found.");
+
+                emitter.onNext(turns);
+                emitter.onComplete();
+
+              } catch (final Exception e) {
+                emitter.onError(e);
+              }
+            }),
+        endpoint);
+  }
+
   @Transactional
   public void createTable() {
     jdbcTemplate.execute(
         "CREATE TABLE IF NOT EXISTS history_context (id TEXT PRIMARY KEY, response TEXT, created_at"
-            + " timestamp)");
+            + " timestamp, updated_at timestamp DEFAULT now())");
+    // Tables created before expiry existed; the constant default keeps this a catalog-only change.
+    jdbcTemplate.execute(
+        "ALTER TABLE history_context ADD COLUMN IF NOT EXISTS updated_at timestamp DEFAULT now()");
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS history_context_updated_at_idx ON history_context"
+            + " (updated_at)");
+    jdbcTemplate.execute(
+        "CREATE TABLE IF NOT EXISTS history_context_turn (seq BIGSERIAL PRIMARY KEY, context_id"
+            + " TEXT NOT NULL REFERENCES history_context (id) ON DELETE CASCADE, response TEXT,"
+            + " tokens INT NOT NULL, created_at timestamp)");
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS history_context_turn_context_id_seq_idx ON"
+            + " history_context_turn (context_id, seq)");
+  }
+
+  /**
+   * Deletes contexts not updated within {@code ttlSeconds}, at most {@code batchSize} rows per
+   * statement, until none are left.
+   *
+   * @return the number of contexts deleted
+   */
+  public long expire(long ttlSeconds, int batchSize) {
+    Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusSeconds(ttlSeconds));
+
+    long total = 0;
+    int deleted;
+    do {
+      deleted = jdbcTemplate.update(EXPIRE_SQL, cutoff, batchSize);
+      total += deleted;
+    } while (deleted == batchSize);
+
+    if (total > 0 && logger.isInfoEnabled()) {
+      logger.info("{} history contexts expired", total);
+    }
+    return total;
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (Objects.nonNull(expiryExecutor)) {
+      expiryExecutor.shutdownNow();
+    }
+  }
+
+  private HistoryContext mapHistoryContext(ResultSet rs, int rowNum) throws SQLException {
+    Timestamp createdAt = rs.getTimestamp("created_at");
+    return new HistoryContext(
+        rs.getString("id"),
+        rs.getString("response"),
+        Objects.nonNull(createdAt) ? createdAt.toLocalDateTime() : null);
+  }
+
+  // The data source is configured lazily (and may be absent), so this runs on first use rather
+  // than during context startup.
+  private void initialize() {
+    if (initialized) return;
+
+    synchronized (this) {
+      if (initialized) return;
+
+      this.createTable();
+      this.scheduleExpiry();
+      initialized = true;
+    }
+  }
+
+  private void scheduleExpiry() {
+    String ttl = env.getProperty("postgres.ttl");
+    if (Objects.isNull(ttl)) return;
+
+    long ttlSeconds = Long.parseLong(ttl);
+    long interval = env.getProperty("postgres.expiry.interval", Long.class, 60L);
+    int batchSize = env.getProperty("postgres.expiry.batch-size", Integer.class, 1000);
+
+    expiryExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "historycontext-expiry");
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    expiryExecutor.scheduleWithFixedDelay(
+        () -> {
+          try {
+            this.expire(ttlSeconds, batchSize);
+          } catch (Exception e) {
+            logger.warn("History context expiry failed ~ {}", e.getMessage());
+          }
+        },
+        interval,
+        interval,
+        TimeUnit.SECONDS);
   }
 }
@@ -1,21 +1,33 @@
 package com.edgechain.lib.context.client.impl;
 
 import com.edgechain.lib.context.client.HistoryContextClient;
+import com.edgechain.lib.context.client.impl.serializer.CompactStringRedisSerializer;
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 import com.edgechain.lib.endpoint.impl.context.RedisHistoryContextEndpoint;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import com.edgechain.lib.utils.TokenUtils;
 import io.reactivex.rxjava3.core.Observable;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.env.Environment;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
+import redis.clients.jedis.JedisPooled;
 
+/**
+ * Stores each history context as a Redis hash (id, response, createdAt). Appended turns live in two
+ * parallel lists next to it, {@code <key>:turns} and {@code <key>:tokens}. Every operation is a
+ * single round trip; writes run as Lua scripts so the existence check, write and expiry are applied
+ * atomically, and each write expires the hash and both lists together. Responses and turns are
+ * encoded with {@link CompactStringRedisSerializer}.
+ */
 @Repository
 public class RedisHistoryContextClient
     implements HistoryContextClient<RedisHistoryContextEndpoint> {
@@ -24,10 +36,55 @@ public class RedisHistoryContextClient
 
   private static final String PREFIX = "historycontext:";
 
-  @Autowired private RedisTemplate<String, Object> redisTemplate;
+  private static final String CREATE_SCRIPT_IN_LUA =
+      "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end"
+          + " redis.call('DEL', KEYS[2], KEYS[3])"
+          + " redis.call('HSET', KEYS[1], 'id', KEYS[1], 'response', '', 'createdAt', ARGV[1])"
+          + " redis.call('EXPIRE', KEYS[1], ARGV[2])"
+          + " return 1";
+
+  private static final String PUT_SCRIPT_IN_LUA =
+      "local createdAt = redis.call('HGET', KEYS[1], 'createdAt')"
+          + " if not createdAt then return false end"
+          + " redis.call('HSET', KEYS[1], 'response', ARGV[1])"
+          + " for i = 1, 3 do redis.call('EXPIRE', KEYS[i], ARGV[2]) end"
+          + " return createdAt";
+
+  private static final String APPEND_SCRIPT_IN_LUA =
+      "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end"
+          + " local n = redis.call('RPUSH', KEYS[2], ARGV[1])"
+          + " redis.call('RPUSH', KEYS[3], ARGV[2])"
+          + " for i = 1, 3 do redis.call('EXPIRE', KEYS[i], ARGV[3]) end"
+          + " return n";
+
+  // Walks the cached token counts from the newest turn backwards until the budget is exhausted.
+  private static final String WINDOW_SCRIPT_IN_LUA =
+      "if redis.call('EXISTS', KEYS[1]) == 0 then return false end"
+          + " local counts = redis.call('LRANGE', KEYS[3], 0, -1)"
+          + " local budget = tonumber(ARGV[1])"
+          + " local used, n = 0, 0"
+          + " for i = #counts, 1, -1 do"
+          + "   local c = tonumber(counts[i])"
+          + "   if used + c > budget then break end"
+          + "   used = used + c"
+          + "   n = n + 1"
+          + " end"
+          + " if n == 0 then return {{}, {}} end"
+          + " return {redis.call('LRANGE', KEYS[2], -n, -1),"
+          + "   redis.call('LRANGE', KEYS[3], -n, -1)}";
+
+  private static final byte[] ID = bytes("id");
+  private static final byte[] RESPONSE = bytes("response");
+  private static final byte[] CREATED_AT = bytes("createdAt");
+
+  @Autowired private JedisPooled jedisPooled;
+
+  @Autowired @Lazy private CompactStringRedisSerializer historyContextSerializer;
 
   @Autowired @Lazy private Environment env;
 
+  private volatile Long ttl;
+
   @Override
   public EdgeChain<HistoryContext> create(String id, RedisHistoryContextEndpoint endpoint) {
     return new EdgeChain<>(
@@ -39,18 +96,19 @@ public class RedisHistoryContextClient
                   throw new RuntimeException("Redis key cannot be empty or null");
 
                 String key = PREFIX + id;
+                LocalDateTime createdAt = LocalDateTime.now();
 
-                if (this.redisTemplate.hasKey(key))
-                  throw new RuntimeException("Duplicate historycontext is not allowed.");
+                Object created =
+                    this.eval(
+                        CREATE_SCRIPT_IN_LUA,
+                        List.of(key, turnsKey(key), tokensKey(key)),
+                        bytes(createdAt.toString()),
+                        bytes(String.valueOf(getTtl())));
 
-                HistoryContext context = new HistoryContext();
-                context.setId(key);
-                context.setResponse("");
-                context.setCreatedAt(LocalDateTime.now());
+                if (Long.valueOf(0).equals(created))
+                  throw new RuntimeException("Duplicate historycontext is not allowed.");
 
-                this.redisTemplate.opsForValue().set(key, context);
-                this.redisTemplate.expire(
-                    key, Long.parseLong(env.getProperty("redis.ttl")), TimeUnit.SECONDS);
+                HistoryContext context = new HistoryContext(key, "", createdAt);
 
                 if (logger.isInfoEnabled()) {
                   logger.info("{} is added", key);
@@ -73,12 +131,18 @@ public class RedisHistoryContextClient
         Observable.create(
             emitter -> {
               try {
-                HistoryContext historyContext = this.get(key, null).get();
-                historyContext.setResponse(response);
+                Object createdAt =
+                    this.eval(
+                        PUT_SCRIPT_IN_LUA,
+                        List.of(key, turnsKey(key), tokensKey(key)),
+                        historyContextSerializer.serialize(response),
+                        bytes(String.valueOf(getTtl())));
+
+                if (Objects.isNull(createdAt))
+                  throw new RuntimeException("Redis history_context id isn't found.");
 
-                this.redisTemplate.opsForValue().set(key, historyContext);
-                this.redisTemplate.expire(
-                    key, Long.parseLong(env.getProperty("redis.ttl")), TimeUnit.SECONDS);
+                HistoryContext historyContext =
+                    new HistoryContext(key, response, LocalDateTime.parse(string(createdAt)));
 
                 if (logger.isInfoEnabled()) {
                   logger.info("{} is updated", key);
@@ -100,13 +164,14 @@ public class RedisHistoryContextClient
         Observable.create(
             emitter -> {
               try {
-                Boolean b = this.redisTemplate.hasKey(key);
-                if (Boolean.TRUE.equals(b)) {
+                List<byte[]> hash = this.jedisPooled.hmget(bytes(key), ID, RESPONSE, CREATED_AT);
 
-                  HistoryContext obj = (HistoryContext) this.redisTemplate.opsForValue().get(key);
-                  Objects.requireNonNull(obj, "null value not allowed! key " + key);
-
-                  emitter.onNext(obj);
+                if (Objects.nonNull(hash.get(0))) {
+                  emitter.onNext(
+                      new HistoryContext(
+                          string(hash.get(0)),
+                          historyContextSerializer.deserialize(hash.get(1)),
+                          LocalDateTime.parse(string(hash.get(2)))));
                   emitter.onComplete();
                 } else {
                   emitter.onError(new RuntimeException("Redis history_context id isn't found."));
@@ -125,8 +190,8 @@ public class RedisHistoryContextClient
         Observable.create(
             emitter -> {
               try {
-                this.get(key, null).get();
-                this.redisTemplate.delete(key);
+                if (this.jedisPooled.del(key, turnsKey(key), tokensKey(key)) == 0)
+                  throw new RuntimeException("Redis history_context id isn't found.");
 
                 if (logger.isInfoEnabled()) {
                   logger.info("{} is deleted", key);
@@ -141,4 +206,104 @@ public class RedisHistoryContextClient
             }),
         endpoint);
   }
+
+  @Override
+  public EdgeChain<HistoryTurn> append(
+      String key, String turn, RedisHistoryContextEndpoint endpoint) {
+    return new EdgeChain<>(
+        Observable.create(
+            emitter -> {
+              try {
+                int tokens = TokenUtils.countTokens(turn);
+
+                Object size =
+                    this.eval(
+                        APPEND_SCRIPT_IN_LUA,
+                        List.of(key, turnsKey(key), tokensKey(key)),
+                        historyContextSerializer.serialize(turn),
+                        bytes(String.valueOf(tokens)),
+                        bytes(String.valueOf(getTtl())));
+
+                if (Long.valueOf(-1).equals(size))
+                  throw new RuntimeException("Redis history_context id isn't found.");
+
+                if (logger.isInfoEnabled()) {
+                  logger.info("{} is appended ~ turn {}", key, size);
+                }
+
+                emitter.onNext(new HistoryTurn(turn, tokens));
+                emitter.onComplete();
+
+              } catch (final Exception e) {
+                emitter.onError(e);
+              }
+            }),
+        endpoint);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public EdgeChain<List<HistoryTurn>> getTurns(
+      String key, int maxTokens, RedisHistoryContextEndpoint endpoint) {
+    return new EdgeChain<>(
+        Observable.create(
+            emitter -> {
+              try {
+                Object window =
+                    this.eval(
+                        WINDOW_SCRIPT_IN_LUA,
+                        List.of(key, turnsKey(key), tokensKey(key)),
+                        bytes(String.valueOf(maxTokens)));
+
+                if (Objects.isNull(window))
+                  throw new RuntimeException("Redis history_context id isn't found.");
+
+                List<byte[]> turns = (List<byte[]>) ((List<Object>) window).get(0);
+                List<byte[]> tokens = (List<byte[]>) ((List<Object>) window).get(1);
+
+                List<HistoryTurn> historyTurns = new ArrayList<>(turns.size());
+                for (int i = 0; i < turns.size(); i++) {
+                  historyTurns.add(
+                      new HistoryTurn(
+                          historyContextSerializer.deserialize(turns.get(i)),
+                          Integer.parseInt(string(tokens.get(i)))));
+                }
+
+                emitter.onNext(historyTurns);
+                emitter.onComplete();
+
+              } catch (final Exception e) {
+                emitter.onError(e);
+              }
+            }),
+        endpoint);
+  }
+
+  private Object eval(String script, List<String> keys, byte[]... args) {
+    return this.jedisPooled.eval(
+        bytes(script), keys.stream().map(RedisHistoryContextClient::bytes).toList(), List.of(args));
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String string(Object value) {
+    return new String((byte[]) value, StandardCharsets.UTF_8);
+  }
+
+  private String turnsKey(String key) {
+    return key + ":turns";
+  }
+
+  private String tokensKey(String key) {
+    return key + ":tokens";
+  }
+
+  private long getTtl() {
+    if (Objects.isNull(ttl)) {
+      ttl = Long.parseLong(env.getProperty("redis.ttl"));
+    }
+    return ttl;
+  }
 }
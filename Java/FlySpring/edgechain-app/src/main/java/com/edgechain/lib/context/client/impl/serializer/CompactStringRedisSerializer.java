@@ -0,0 +1,105 @@
+package com.edgechain.lib.context.client.impl.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Stores strings as plain UTF-8 and deflates them once they reach {@code compressionThreshold}
+ * bytes. Compressed values carry a 3 byte header: {@code 0xFF} (never the first byte of valid
+ * UTF-8), a format version and the codec id. Values without the header, including everything
+ * written before this serializer existed, are read back as plain UTF-8, so the format can be
+ * switched on or off without migrating stored data.
+ */
+public class CompactStringRedisSerializer implements RedisSerializer<String> {
+
+  private static final byte MAGIC = (byte) 0xFF;
+  private static final byte VERSION = 1;
+  private static final byte CODEC_DEFLATE = 1;
+  private static final int HEADER_LENGTH = 3;
+
+  private final int compressionThreshold;
+
+  /**
+   * @param compressionThreshold minimum size in bytes before a value is compressed; a negative
+   *     value disables compression
+   */
+  public CompactStringRedisSerializer(int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  @Override
+  public byte[] serialize(String value) throws SerializationException {
+    if (value == null) return null;
+
+    byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+    if (compressionThreshold < 0 || raw.length < compressionThreshold) return raw;
+
+    byte[] compressed = deflate(raw);
+    return compressed.length < raw.length ? compressed : raw;
+  }
+
+  @Override
+  public String deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null) return null;
+
+    if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC) {
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    if (bytes[1] != VERSION || bytes[2] != CODEC_DEFLATE) {
+      throw new SerializationException(
+          String.format("Unsupported history format: version %s, codec %s", bytes[1], bytes[2]));
+    }
+
+    return new String(inflate(bytes), StandardCharsets.UTF_8);
+  }
+
+  private byte[] deflate(byte[] raw) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(raw);
+      deflater.finish();
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + HEADER_LENGTH);
+      out.write(MAGIC);
+      out.write(VERSION);
+      out.write(CODEC_DEFLATE);
+
+      byte[] buffer = new byte[8192];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private byte[] inflate(byte[] bytes) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length));
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 3);
+      byte[] buffer = new byte[8192];
+      while (!inflater.finished()) {
+        int n = inflater.inflate(buffer);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new SerializationException("Truncated compressed history value");
+        }
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    } catch (DataFormatException e) {
+      throw new SerializationException("Corrupted compressed history value", e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
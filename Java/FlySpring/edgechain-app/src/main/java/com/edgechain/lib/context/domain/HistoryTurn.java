@@ -0,0 +1,55 @@
+package com.edgechain.lib.context.domain;
+
+import com.edgechain.lib.response.ArkObject;
+import org.json.JSONObject;
+
+import java.io.Serializable;
+
+/** A single appended entry of a {@link HistoryContext} along with its cached token count. */
+public class HistoryTurn implements ArkObject, Serializable {
+
+  private static final long serialVersionUID = 4790314211652804577L;
+
+  private String response;
+  private int tokens;
+
+  public HistoryTurn() {}
+
+  public HistoryTurn(String response, int tokens) {
+    this.response = response;
+    this.tokens = tokens;
+  }
+
+  public String getResponse() {
+    return response;
+  }
+
+  public void setResponse(String response) {
+    this.response = response;
+  }
+
+  public int getTokens() {
+    return tokens;
+  }
+
+  public void setTokens(int tokens) {
+    this.tokens = tokens;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("HistoryTurn{");
+    sb.append("response='").append(response).append('\'');
+    sb.append(", tokens=").append(tokens);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  @Override
+  public JSONObject toJson() {
+    JSONObject json = new JSONObject();
+    json.put("response", response);
+    json.put("tokens", tokens);
+    return json;
+  }
+}
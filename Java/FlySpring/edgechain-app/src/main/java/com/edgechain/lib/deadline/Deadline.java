@@ -0,0 +1,157 @@
+package com.edgechain.lib.deadline;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time by which a request must be answered, shared by every stage working on it.
+ *
+ * <p>{@link DeadlineFilter} sets it for each request from the {@value #HEADER} header (the
+ * remaining budget in millis) or {@code edgechain.deadline.default-ms}. It is held per thread;
+ * {@code EdgeChain} captures it when built and re-attaches it whenever it subscribes, and every
+ * task scheduled on an RxJava scheduler runs with the deadline of the thread that scheduled it, so
+ * it follows the work across {@code subscribeOn} and {@code observeOn}. Loopback calls forward
+ * what is left in the header, and HTTP and JDBC timeouts are cut down to it.
+ */
+public final class Deadline {
+
+  public static final String HEADER = "X-EdgeChain-Deadline-Ms";
+
+  private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+  // Installed when this class loads, which is before any deadline can be attached.
+  static {
+    Function<? super Runnable, ? extends Runnable> previous = RxJavaPlugins.getScheduleHandler();
+    RxJavaPlugins.setScheduleHandler(
+        runnable -> carry(Objects.isNull(previous) ? runnable : previous.apply(runnable)));
+  }
+
+  private final long deadlineNanos;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  public static Deadline after(Duration budget) {
+    return new Deadline(System.nanoTime() + budget.toNanos());
+  }
+
+  public static Deadline afterMillis(long millis) {
+    return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  /** Parses a {@value #HEADER} value; {@code null} when absent or not a number of millis. */
+  public static Deadline fromHeader(String value) {
+    if (Objects.isNull(value) || value.isBlank()) return null;
+    try {
+      return afterMillis(Long.parseLong(value.trim()));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /** The deadline of the work running on this thread, or {@code null} if it has none. */
+  public static Deadline current() {
+    return current.get();
+  }
+
+  /** Makes {@code deadline} current on this thread and returns the one it replaces. */
+  public static Deadline attach(Deadline deadline) {
+    Deadline previous = current.get();
+    if (Objects.isNull(deadline)) current.remove();
+    else current.set(deadline);
+    return previous;
+  }
+
+  /** {@code task} running with the current deadline attached, wherever it runs. */
+  static Runnable carry(Runnable task) {
+    Deadline deadline = current.get();
+    if (Objects.isNull(deadline)) return task;
+
+    return () -> {
+      Deadline previous = attach(deadline);
+      try {
+        task.run();
+      } finally {
+        attach(previous);
+      }
+    };
+  }
+
+  public long remainingMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+  }
+
+  public boolean isExpired() {
+    return deadlineNanos - System.nanoTime() <= 0;
+  }
+
+  /** The sooner of the two; either may be {@code null}. */
+  public static Deadline earliest(Deadline a, Deadline b) {
+    if (Objects.isNull(a)) return b;
+    if (Objects.isNull(b)) return a;
+    return a.deadlineNanos - b.deadlineNanos <= 0 ? a : b;
+  }
+
+  /**
+   * {@code timeoutMillis} (none if not positive) cut down to the time left, but at least 1 ms, as
+   * most clients read 0 as no timeout at all.
+   */
+  public long capMillis(long timeoutMillis) {
+    long remaining = Math.max(1, remainingMillis());
+    return timeoutMillis <= 0 ? remaining : Math.min(timeoutMillis, remaining);
+  }
+
+  public String toHeader() {
+    return Long.toString(Math.max(0, remainingMillis()));
+  }
+
+  /**
+   * Subscribes to {@code source} with this deadline attached to the subscribing thread, so blocking
+   * calls made during subscription see it; fails with {@link DeadlineExceededException} instead of
+   * subscribing once it has passed.
+   */
+  public <T> Observable<T> bind(Observable<T> source) {
+    return Observable.defer(
+        () -> {
+          if (isExpired()) return Observable.error(new DeadlineExceededException(this));
+          return Observable.<T>unsafeCreate(
+              observer -> {
+                Deadline previous = attach(this);
+                try {
+                  source.subscribe(observer);
+                } finally {
+                  attach(previous);
+                }
+              });
+        });
+  }
+
+  /**
+   * {@link #bind}, and fails {@code source} with {@link DeadlineExceededException} at the deadline,
+   * however many items it has emitted by then.
+   */
+  public <T> Observable<T> limit(Observable<T> source) {
+    return Observable.defer(
+        () ->
+            bind(source)
+                .takeUntil(
+                    Completable.timer(
+                            Math.max(0, remainingMillis()),
+                            TimeUnit.MILLISECONDS,
+                            Schedulers.computation())
+                        .andThen(Completable.error(() -> new DeadlineExceededException(this)))
+                        .toObservable()));
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline{remainingMillis=" + remainingMillis() + '}';
+  }
+}
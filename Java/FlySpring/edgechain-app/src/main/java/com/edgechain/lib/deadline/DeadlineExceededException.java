@@ -0,0 +1,9 @@
+package com.edgechain.lib.deadline;
+
+/** Raised instead of starting, or waiting any longer for, work whose {@link Deadline} passed. */
+public class DeadlineExceededException extends RuntimeException {
+
+  public DeadlineExceededException(Deadline deadline) {
+    super("Deadline exceeded by " + Math.max(0, -deadline.remainingMillis()) + " ms");
+  }
+}
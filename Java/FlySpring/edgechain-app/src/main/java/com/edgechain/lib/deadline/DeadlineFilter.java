@@ -0,0 +1,53 @@
+package com.edgechain.lib.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Starts each request's {@link Deadline}: the {@value Deadline#HEADER} header sent by the caller
+ * (or by a loopback call), capped by {@code edgechain.deadline.default-ms} when that is set. The
+ * deadline is current on the request thread and stored as the {@value #ATTRIBUTE} attribute.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+  public static final String ATTRIBUTE = "edgechain.deadline";
+
+  @Autowired private Environment env;
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filter)
+      throws ServletException, IOException {
+
+    long defaultMillis = env.getProperty("edgechain.deadline.default-ms", Long.class, 0L);
+    Deadline deadline =
+        Deadline.earliest(
+            Deadline.fromHeader(request.getHeader(Deadline.HEADER)),
+            defaultMillis > 0 ? Deadline.afterMillis(defaultMillis) : null);
+
+    if (Objects.isNull(deadline)) {
+      filter.doFilter(request, response);
+      return;
+    }
+
+    request.setAttribute(ATTRIBUTE, deadline);
+    Deadline previous = Deadline.attach(deadline);
+    try {
+      filter.doFilter(request, response);
+    } finally {
+      Deadline.attach(previous);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.edgechain.lib.deadline;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * A {@link JdbcTemplate} whose statements time out when the current {@link Deadline} passes. JDBC
+ * query timeouts are whole seconds, so the remaining budget is rounded up.
+ */
+public class DeadlineJdbcTemplate extends JdbcTemplate {
+
+  public DeadlineJdbcTemplate(DataSource dataSource) {
+    super(dataSource);
+  }
+
+  @Override
+  protected void applyStatementSettings(Statement stmt) throws SQLException {
+    super.applyStatementSettings(stmt);
+
+    Deadline deadline = Deadline.current();
+    if (Objects.isNull(deadline)) return;
+    if (deadline.isExpired()) throw new DeadlineExceededException(deadline);
+
+    long timeoutMillis = TimeUnit.SECONDS.toMillis(stmt.getQueryTimeout());
+    long seconds = (deadline.capMillis(timeoutMillis) + 999) / 1000;
+    stmt.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, seconds));
+  }
+}
@@ -6,6 +6,7 @@ import org.json.JSONObject;
 public class Usage implements ArkObject {
 
   long prompt_tokens;
+  long completion_tokens;
   long total_tokens;
 
   public long getPrompt_tokens() {
@@ -16,6 +17,14 @@ public class Usage implements ArkObject {
     this.prompt_tokens = prompt_tokens;
   }
 
+  public long getCompletion_tokens() {
+    return completion_tokens;
+  }
+
+  public void setCompletion_tokens(long completion_tokens) {
+    this.completion_tokens = completion_tokens;
+  }
+
   public long getTotal_tokens() {
     return total_tokens;
   }
@@ -28,6 +37,7 @@ public class Usage implements ArkObject {
   public String toString() {
     final StringBuilder sb = new StringBuilder("Usage{");
     sb.append("prompt_tokens=").append(prompt_tokens);
+    sb.append(", completion_tokens=").append(completion_tokens);
     sb.append(", total_tokens=").append(total_tokens);
     sb.append('}');
     return sb.toString();
@@ -41,6 +51,10 @@ public class Usage implements ArkObject {
       json.put("prompt_tokens", prompt_tokens);
     }
 
+    if (completion_tokens != 0L) {
+      json.put("completion_tokens", completion_tokens);
+    }
+
     if (total_tokens != 0L) {
       json.put("total_tokens", total_tokens);
     }
@@ -1,7 +1,14 @@
 package com.edgechain.lib.endpoint;
 
+import com.edgechain.lib.logger.metrics.StageInstrumentation;
+import com.edgechain.lib.rxjava.bulkhead.BulkheadPolicy;
+import com.edgechain.lib.rxjava.circuitbreaker.CircuitBreakerPolicy;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
 import java.io.Serializable;
 
 public class Endpoint implements Serializable {
@@ -11,6 +18,8 @@ public class Endpoint implements Serializable {
   private String url;
   private String apiKey;
   private RetryPolicy retryPolicy;
+  private CircuitBreakerPolicy circuitBreakerPolicy;
+  private BulkheadPolicy bulkheadPolicy;
 
   public Endpoint() {}
 
@@ -56,12 +65,52 @@ public class Endpoint implements Serializable {
     return this.retryPolicy;
   }
 
+  public CircuitBreakerPolicy getCircuitBreakerPolicy() {
+    return circuitBreakerPolicy;
+  }
+
+  public void setCircuitBreakerPolicy(CircuitBreakerPolicy circuitBreakerPolicy) {
+    this.circuitBreakerPolicy = circuitBreakerPolicy;
+  }
+
+  public BulkheadPolicy getBulkheadPolicy() {
+    return bulkheadPolicy;
+  }
+
+  public void setBulkheadPolicy(BulkheadPolicy bulkheadPolicy) {
+    this.bulkheadPolicy = bulkheadPolicy;
+  }
+
+  /**
+   * Times the stream {@code call} as the stage {@code <endpoint class>.<operation>}; it succeeds
+   * only on completion.
+   */
+  protected <T> Observable<T> instrument(String operation, Observable<T> call) {
+    return StageInstrumentation.observe(stage(operation), call);
+  }
+
+  /** Times the single-result {@code call}, which succeeds at its result. */
+  protected <T> Observable<T> instrument(String operation, Single<T> call) {
+    return StageInstrumentation.observe(stage(operation), call);
+  }
+
+  /** Also runs {@code call} on the pool of {@code subsystem}. */
+  protected <T> Observable<T> instrument(String operation, Subsystem subsystem, Single<T> call) {
+    return instrument(operation, call.subscribeOn(EdgeChainSchedulers.get(subsystem)));
+  }
+
+  private String stage(String operation) {
+    return getClass().getSimpleName() + "." + operation;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder("Endpoint{");
     sb.append("url='").append(url).append('\'');
     sb.append(", apiKey='").append(apiKey).append('\'');
     sb.append(", retryPolicy=").append(retryPolicy);
+    sb.append(", circuitBreakerPolicy=").append(circuitBreakerPolicy);
+    sb.append(", bulkheadPolicy=").append(bulkheadPolicy);
     sb.append('}');
     return sb.toString();
   }
@@ -2,12 +2,14 @@ package com.edgechain.lib.endpoint.impl.context;
 
 import com.edgechain.lib.context.domain.ContextPutRequest;
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 import com.edgechain.lib.endpoint.Endpoint;
 import com.edgechain.lib.retrofit.RedisContextService;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
 import retrofit2.Retrofit;
 
+import java.util.List;
 import java.util.Objects;
 
 public class RedisHistoryContextEndpoint extends Endpoint {
@@ -29,6 +31,15 @@ public class RedisHistoryContextEndpoint extends Endpoint {
     return this.contextService.put(new ContextPutRequest<>(id, response, this)).blockingGet();
   }
 
+  public HistoryTurn append(String id, String turn) {
+    return this.contextService.append(new ContextPutRequest<>(id, turn, this)).blockingGet();
+  }
+
+  /** Most recent turns (oldest first) fitting within {@code maxTokens}, for prompt assembly. */
+  public List<HistoryTurn> getTurns(String id, int maxTokens) {
+    return this.contextService.getTurns(id, maxTokens, this).blockingGet();
+  }
+
   public HistoryContext get(String id) {
     return this.contextService.get(id, this).blockingGet();
   }
@@ -92,8 +92,11 @@ public class BgeSmallEndpoint extends EmbeddingEndpoint {
     if (Objects.nonNull(arkRequest)) mapper.setCallIdentifier(arkRequest.getRequestURI());
     else mapper.setCallIdentifier("URI wasn't provided");
 
-    return Observable.fromSingle(
-        bgeSmallService.embeddings(mapper).map(m -> new WordEmbeddings(input, m.getEmbedding())));
+    return instrument(
+        "embeddings",
+        bgeSmallService
+            .embeddings(mapper)
+            .map(m -> new WordEmbeddings(input, m.getEmbedding())));
   }
 
   private void downloadFile(String urlStr, String path) {
@@ -48,7 +48,10 @@ public class MiniLMEndpoint extends EmbeddingEndpoint {
     if (Objects.nonNull(arkRequest)) mapper.setCallIdentifier(arkRequest.getRequestURI());
     else mapper.setCallIdentifier("URI wasn't provided");
 
-    return Observable.fromSingle(
-        miniLMService.embeddings(mapper).map(m -> new WordEmbeddings(input, m.getEmbedding())));
+    return instrument(
+        "embeddings",
+        miniLMService
+            .embeddings(mapper)
+            .map(m -> new WordEmbeddings(input, m.getEmbedding())));
   }
 }
@@ -1,6 +1,7 @@
 package com.edgechain.lib.endpoint.impl.embeddings;
 
 import com.edgechain.lib.embeddings.WordEmbeddings;
+import com.edgechain.lib.openai.pool.OpenAiPoolMember;
 import com.edgechain.lib.request.ArkRequest;
 import com.edgechain.lib.retrofit.OpenAiService;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
@@ -9,6 +10,7 @@ import io.reactivex.rxjava3.core.Observable;
 import org.modelmapper.ModelMapper;
 import retrofit2.Retrofit;
 
+import java.util.List;
 import java.util.Objects;
 
 public class OpenAiEmbeddingEndpoint extends EmbeddingEndpoint {
@@ -21,6 +23,9 @@ public class OpenAiEmbeddingEndpoint extends EmbeddingEndpoint {
   private String orgId;
   private String model;
 
+  /** Optional keys/urls to spread calls over instead of the single url and apiKey. */
+  private List<OpenAiPoolMember> pool;
+
   public OpenAiEmbeddingEndpoint() {}
 
   public OpenAiEmbeddingEndpoint(String url, String apiKey, String orgId, String model) {
@@ -48,6 +53,14 @@ public class OpenAiEmbeddingEndpoint extends EmbeddingEndpoint {
     this.orgId = orgId;
   }
 
+  public List<OpenAiPoolMember> getPool() {
+    return pool;
+  }
+
+  public void setPool(List<OpenAiPoolMember> pool) {
+    this.pool = pool;
+  }
+
   public void setModel(String model) {
     this.model = model;
   }
@@ -61,11 +74,13 @@ public class OpenAiEmbeddingEndpoint extends EmbeddingEndpoint {
     if (Objects.nonNull(arkRequest)) mapper.setCallIdentifier(arkRequest.getRequestURI());
     else mapper.setCallIdentifier("URI wasn't provided");
 
-    return Observable.fromSingle(
+    return instrument(
+        "embeddings",
         openAiService
             .embeddings(mapper)
             .map(
                 embeddingResponse ->
-                    new WordEmbeddings(input, embeddingResponse.getData().get(0).getEmbedding())));
+                    new WordEmbeddings(
+                        input, embeddingResponse.getData().get(0).getEmbedding())));
   }
 }
@@ -150,7 +150,7 @@ public class PineconeEndpoint extends Endpoint {
     mapper.setUrl(mapper.getOriginalUrl().concat(QUERY_API));
     mapper.setNamespace(namespace);
     mapper.setTopK(topK);
-    return Observable.fromSingle(this.pineconeService.query(mapper));
+    return instrument("query", this.pineconeService.query(mapper));
   }
 
   public StringResponse deleteAll(String namespace) {
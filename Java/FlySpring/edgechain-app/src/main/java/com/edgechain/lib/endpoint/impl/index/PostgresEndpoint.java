@@ -13,9 +13,10 @@ import com.edgechain.lib.response.StringResponse;
 import com.edgechain.lib.retrofit.PostgresService;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.schedulers.Schedulers;
 import org.modelmapper.ModelMapper;
 import retrofit2.Retrofit;
 
@@ -414,7 +415,7 @@ public class PostgresEndpoint extends Endpoint {
                                             new EdgeChain<>(
                                                     embeddingEndpoint.embeddings(res, arkRequest))
                                                 .get())
-                                    .subscribeOn(Schedulers.io())))
+                                    .subscribeOn(EdgeChainSchedulers.get(Subsystem.EMBEDDINGS))))
             .toList()
             .blockingGet();
 
@@ -423,7 +424,7 @@ public class PostgresEndpoint extends Endpoint {
     mapper.setUpperLimit(upperLimit);
     mapper.setMetric(metric);
     mapper.setProbes(1);
-    return Observable.fromSingle(this.postgresService.query(mapper));
+    return instrument("query", this.postgresService.query(mapper));
   }
 
   public Observable<List<PostgresWordEmbeddings>> query(
@@ -448,7 +449,7 @@ public class PostgresEndpoint extends Endpoint {
                                             new EdgeChain<>(
                                                     embeddingEndpoint.embeddings(res, arkRequest))
                                                 .get())
-                                    .subscribeOn(Schedulers.io())))
+                                    .subscribeOn(EdgeChainSchedulers.get(Subsystem.EMBEDDINGS))))
             .toList()
             .blockingGet();
 
@@ -457,7 +458,7 @@ public class PostgresEndpoint extends Endpoint {
     mapper.setProbes(probes);
     mapper.setTopK(topK);
     mapper.setUpperLimit(upperLimit);
-    return Observable.fromSingle(this.postgresService.query(mapper));
+    return instrument("query", this.postgresService.query(mapper));
   }
 
   public Observable<List<PostgresWordEmbeddings>> queryRRF(
@@ -490,7 +491,7 @@ public class PostgresEndpoint extends Endpoint {
                                             new EdgeChain<>(
                                                     embeddingEndpoint.embeddings(res, arkRequest))
                                                 .get())
-                                    .subscribeOn(Schedulers.io())))
+                                    .subscribeOn(EdgeChainSchedulers.get(Subsystem.EMBEDDINGS))))
             .toList()
             .blockingGet();
 
@@ -505,7 +506,7 @@ public class PostgresEndpoint extends Endpoint {
     mapper.setMetric(metric);
     mapper.setTopK(topK);
     mapper.setUpperLimit(upperLimit);
-    return Observable.fromSingle(this.postgresService.queryRRF(mapper));
+    return instrument("queryRRF", this.postgresService.queryRRF(mapper));
   }
 
   public Observable<List<PostgresWordEmbeddings>> queryWithMetadata(
@@ -519,7 +520,7 @@ public class PostgresEndpoint extends Endpoint {
     mapper.setTopK(topK);
     mapper.setMetric(metric);
     mapper.setProbes(1);
-    return Observable.fromSingle(this.postgresService.queryWithMetadata(mapper));
+    return instrument("queryWithMetadata", this.postgresService.queryWithMetadata(mapper));
   }
 
   public Observable<List<PostgresWordEmbeddings>> queryWithMetadata(
@@ -538,13 +539,14 @@ public class PostgresEndpoint extends Endpoint {
     mapper.setTopK(topK);
     mapper.setMetric(metric);
     mapper.setProbes(1);
-    return Observable.fromSingle(this.postgresService.queryWithMetadata(mapper));
+    return instrument("queryWithMetadata", this.postgresService.queryWithMetadata(mapper));
   }
 
   public Observable<List<PostgresWordEmbeddings>> getSimilarMetadataChunk(String embeddingChunk) {
     PostgresEndpoint mapper = modelMapper.map(this, PostgresEndpoint.class);
     mapper.setEmbeddingChunk(embeddingChunk);
-    return Observable.fromSingle(this.postgresService.getSimilarMetadataChunk(mapper));
+    return instrument(
+        "getSimilarMetadataChunk", this.postgresService.getSimilarMetadataChunk(mapper));
   }
 
   public Observable<List<PostgresWordEmbeddings>> getAllChunks(String tableName, String filename) {
@@ -552,7 +554,7 @@ public class PostgresEndpoint extends Endpoint {
     mapper.setTableName(tableName);
     mapper.setFilename(filename);
 
-    return Observable.fromSingle(this.postgresService.getAllChunks(this));
+    return instrument("getAllChunks", this.postgresService.getAllChunks(this));
   }
 
   public StringResponse deleteAll(String tableName, String namespace) {
@@ -6,6 +6,7 @@ import com.edgechain.lib.endpoint.impl.embeddings.EmbeddingEndpoint;
 import com.edgechain.lib.request.ArkRequest;
 import com.edgechain.lib.retrofit.RedisService;
 import com.edgechain.lib.index.enums.RedisDistanceMetric;
+import com.edgechain.lib.index.enums.RedisVectorAlgorithm;
 import com.edgechain.lib.response.StringResponse;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
@@ -14,6 +15,7 @@ import io.reactivex.rxjava3.core.Observable;
 import org.modelmapper.ModelMapper;
 import retrofit2.Retrofit;
 import java.util.List;
+import java.util.Map;
 
 public class RedisEndpoint extends Endpoint {
 
@@ -33,10 +35,30 @@ public class RedisEndpoint extends Endpoint {
 
   private RedisDistanceMetric metric;
 
+  // Index tuning; HNSW parameters are left to Redis defaults when null.
+  private RedisVectorAlgorithm algorithm = RedisVectorAlgorithm.HNSW;
+  private Integer initialCap;
+  private Integer m;
+  private Integer efConstruction;
+  private Integer efRuntime;
+
+  // Optional pre-filtering; fields are declared on the index and written with every upsert.
+  private List<String> tagFields;
+  private List<String> numericFields;
+  private Map<String, String> attributes;
+  private String filter;
+
   private int topK;
 
   private String pattern;
 
+  // Batch upsert tuning; flushSize entries per pipeline, up to maxConcurrentPipelines in flight.
+  private int flushSize = 500;
+  private int maxConcurrentPipelines = 4;
+
+  // Optional expiry (in seconds) applied to every upserted key.
+  private Long ttl;
+
   private EmbeddingEndpoint embeddingEndpoint;
 
   public RedisEndpoint() {}
@@ -147,6 +169,102 @@ public class RedisEndpoint extends Endpoint {
     return pattern;
   }
 
+  public int getFlushSize() {
+    return flushSize;
+  }
+
+  public void setFlushSize(int flushSize) {
+    this.flushSize = flushSize;
+  }
+
+  public int getMaxConcurrentPipelines() {
+    return maxConcurrentPipelines;
+  }
+
+  public void setMaxConcurrentPipelines(int maxConcurrentPipelines) {
+    this.maxConcurrentPipelines = maxConcurrentPipelines;
+  }
+
+  public RedisVectorAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  public void setAlgorithm(RedisVectorAlgorithm algorithm) {
+    this.algorithm = algorithm;
+  }
+
+  public Integer getInitialCap() {
+    return initialCap;
+  }
+
+  public void setInitialCap(Integer initialCap) {
+    this.initialCap = initialCap;
+  }
+
+  public Integer getM() {
+    return m;
+  }
+
+  public void setM(Integer m) {
+    this.m = m;
+  }
+
+  public Integer getEfConstruction() {
+    return efConstruction;
+  }
+
+  public void setEfConstruction(Integer efConstruction) {
+    this.efConstruction = efConstruction;
+  }
+
+  public Integer getEfRuntime() {
+    return efRuntime;
+  }
+
+  public void setEfRuntime(Integer efRuntime) {
+    this.efRuntime = efRuntime;
+  }
+
+  public List<String> getTagFields() {
+    return tagFields;
+  }
+
+  public void setTagFields(List<String> tagFields) {
+    this.tagFields = tagFields;
+  }
+
+  public List<String> getNumericFields() {
+    return numericFields;
+  }
+
+  public void setNumericFields(List<String> numericFields) {
+    this.numericFields = numericFields;
+  }
+
+  public Map<String, String> getAttributes() {
+    return attributes;
+  }
+
+  public void setAttributes(Map<String, String> attributes) {
+    this.attributes = attributes;
+  }
+
+  public String getFilter() {
+    return filter;
+  }
+
+  public void setFilter(String filter) {
+    this.filter = filter;
+  }
+
+  public Long getTtl() {
+    return ttl;
+  }
+
+  public void setTtl(Long ttl) {
+    this.ttl = ttl;
+  }
+
   // Convenience Methods
   public StringResponse createIndex(String namespace, int dimension, RedisDistanceMetric metric) {
     RedisEndpoint mapper = modelMapper.map(this, RedisEndpoint.class);
@@ -157,6 +275,20 @@ public class RedisEndpoint extends Endpoint {
     return this.redisService.createIndex(mapper).blockingGet();
   }
 
+  public StringResponse createIndex(
+      String namespace,
+      int dimension,
+      RedisDistanceMetric metric,
+      RedisVectorAlgorithm algorithm) {
+    RedisEndpoint mapper = modelMapper.map(this, RedisEndpoint.class);
+    mapper.setDimensions(dimension);
+    mapper.setMetric(metric);
+    mapper.setNamespace(namespace);
+    mapper.setAlgorithm(algorithm);
+
+    return this.redisService.createIndex(mapper).blockingGet();
+  }
+
   public void batchUpsert(List<WordEmbeddings> wordEmbeddingsList) {
     RedisEndpoint mapper = modelMapper.map(this, RedisEndpoint.class);
     mapper.setWordEmbeddingsList(wordEmbeddingsList);
@@ -179,7 +311,24 @@ public class RedisEndpoint extends Endpoint {
     RedisEndpoint mapper = modelMapper.map(this, RedisEndpoint.class);
     mapper.setTopK(topK);
     mapper.setWordEmbedding(wordEmbedding);
-    return Observable.fromSingle(this.redisService.query(mapper));
+    return instrument("query", this.redisService.query(mapper));
+  }
+
+  /**
+   * @param filter RediSearch pre-filter over the declared tag/numeric fields, e.g. {@code
+   *     "@lang:{en} @year:[2020 +inf]"}
+   */
+  public Observable<List<WordEmbeddings>> query(
+      String input, int topK, String filter, ArkRequest arkRequest) {
+
+    WordEmbeddings wordEmbedding =
+        new EdgeChain<>(embeddingEndpoint.embeddings(input, arkRequest)).get();
+
+    RedisEndpoint mapper = modelMapper.map(this, RedisEndpoint.class);
+    mapper.setTopK(topK);
+    mapper.setFilter(filter);
+    mapper.setWordEmbedding(wordEmbedding);
+    return instrument("query", this.redisService.query(mapper));
   }
 
   public void delete(String patternName) {
@@ -98,7 +98,7 @@ public class AirtableEndpoint extends Endpoint {
     ;
     mapper.setTableName(tableName);
     mapper.setAirtableQueryBuilder(builder);
-    return Observable.fromSingle(this.airtableService.findAll(mapper));
+    return instrument("findAll", this.airtableService.findAll(mapper));
   }
 
   public Observable<Map<String, Object>> findAll(String tableName) {
@@ -106,14 +106,14 @@ public class AirtableEndpoint extends Endpoint {
     mapper.setTableName(tableName);
     mapper.setAirtableQueryBuilder(new AirtableQueryBuilder());
 
-    return Observable.fromSingle(this.airtableService.findAll(mapper));
+    return instrument("findAll", this.airtableService.findAll(mapper));
   }
 
   public Observable<AirtableRecord> findById(String tableName, String id) {
     AirtableEndpoint mapper = modelMapper.map(this, AirtableEndpoint.class);
     mapper.setTableName(tableName);
     mapper.setIds(List.of(id));
-    return Observable.fromSingle(this.airtableService.findById(mapper));
+    return instrument("findById", this.airtableService.findById(mapper));
   }
 
   public Observable<List<AirtableRecord>> create(
@@ -121,7 +121,7 @@ public class AirtableEndpoint extends Endpoint {
     AirtableEndpoint mapper = modelMapper.map(this, AirtableEndpoint.class);
     mapper.setAirtableRecordList(airtableRecordList);
     mapper.setTableName(tableName);
-    return Observable.fromSingle(this.airtableService.create(mapper));
+    return instrument("create", this.airtableService.create(mapper));
   }
 
   public Observable<List<AirtableRecord>> create(
@@ -130,14 +130,14 @@ public class AirtableEndpoint extends Endpoint {
     mapper.setAirtableRecordList(airtableRecordList);
     mapper.setTableName(tableName);
     mapper.setTypecast(typecast);
-    return Observable.fromSingle(this.airtableService.create(mapper));
+    return instrument("create", this.airtableService.create(mapper));
   }
 
   public Observable<List<AirtableRecord>> create(String tableName, AirtableRecord airtableRecord) {
     AirtableEndpoint mapper = modelMapper.map(this, AirtableEndpoint.class);
     mapper.setAirtableRecordList(List.of(airtableRecord));
     mapper.setTableName(tableName);
-    return Observable.fromSingle(this.airtableService.create(mapper));
+    return instrument("create", this.airtableService.create(mapper));
   }
 
   public Observable<List<AirtableRecord>> update(
@@ -146,7 +146,7 @@ public class AirtableEndpoint extends Endpoint {
     mapper.setAirtableRecordList(airtableRecordList);
     mapper.setTableName(tableName);
 
-    return Observable.fromSingle(this.airtableService.update(mapper));
+    return instrument("update", this.airtableService.update(mapper));
   }
 
   public Observable<List<AirtableRecord>> update(
@@ -156,27 +156,27 @@ public class AirtableEndpoint extends Endpoint {
     mapper.setTableName(tableName);
     mapper.setTypecast(typecast);
 
-    return Observable.fromSingle(this.airtableService.update(mapper));
+    return instrument("update", this.airtableService.update(mapper));
   }
 
   public Observable<List<AirtableRecord>> update(String tableName, AirtableRecord airtableRecord) {
     AirtableEndpoint mapper = modelMapper.map(this, AirtableEndpoint.class);
     mapper.setAirtableRecordList(List.of(airtableRecord));
     mapper.setTableName(tableName);
-    return Observable.fromSingle(this.airtableService.update(mapper));
+    return instrument("update", this.airtableService.update(mapper));
   }
 
   public Observable<List<String>> delete(String tableName, List<String> ids) {
     AirtableEndpoint mapper = modelMapper.map(this, AirtableEndpoint.class);
     mapper.setIds(ids);
     mapper.setTableName(tableName);
-    return Observable.fromSingle(this.airtableService.delete(mapper));
+    return instrument("delete", this.airtableService.delete(mapper));
   }
 
   public Observable<List<String>> delete(String tableName, String id) {
     AirtableEndpoint mapper = modelMapper.map(this, AirtableEndpoint.class);
     mapper.setIds(List.of(id));
     mapper.setTableName(tableName);
-    return Observable.fromSingle(this.airtableService.delete(mapper));
+    return instrument("delete", this.airtableService.delete(mapper));
   }
 }
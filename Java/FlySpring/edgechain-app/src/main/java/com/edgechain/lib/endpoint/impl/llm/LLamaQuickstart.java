@@ -5,6 +5,7 @@ import com.edgechain.lib.request.ArkRequest;
 import com.edgechain.lib.retrofit.Llama2Service;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import io.reactivex.rxjava3.core.Observable;
 import org.modelmapper.ModelMapper;
 import retrofit2.Retrofit;
@@ -42,6 +43,7 @@ public class LLamaQuickstart extends Endpoint {
 
   private Observable<String> chatCompletion(
       LLamaQuickstart lLamaQuickstart, ArkRequest arkRequest) {
-    return Observable.fromSingle(this.llama2Service.llamaCompletion(lLamaQuickstart));
+    return instrument(
+        "chatCompletion", Subsystem.LLM, this.llama2Service.llamaCompletion(lLamaQuickstart));
   }
 }
@@ -6,6 +6,7 @@ import com.edgechain.lib.request.ArkRequest;
 import com.edgechain.lib.retrofit.Llama2Service;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.reactivex.rxjava3.core.Observable;
 import org.json.JSONObject;
@@ -175,6 +176,6 @@ public class Llama2Endpoint extends Endpoint {
     if (Objects.nonNull(arkRequest)) mapper.setCallIdentifier(arkRequest.getRequestURI());
     else mapper.setCallIdentifier("URI wasn't provided");
 
-    return Observable.fromSingle(this.llama2Service.chatCompletion(mapper));
+    return instrument("chatCompletion", Subsystem.LLM, this.llama2Service.chatCompletion(mapper));
   }
 }
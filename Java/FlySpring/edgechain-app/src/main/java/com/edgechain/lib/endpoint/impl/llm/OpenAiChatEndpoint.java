@@ -3,6 +3,7 @@ package com.edgechain.lib.endpoint.impl.llm;
 import com.edgechain.lib.configuration.context.ApplicationContextHolder;
 import com.edgechain.lib.endpoint.Endpoint;
 import com.edgechain.lib.jsonnet.JsonnetLoader;
+import com.edgechain.lib.openai.pool.OpenAiPoolMember;
 import com.edgechain.lib.openai.request.ChatMessage;
 import com.edgechain.lib.openai.response.CompletionResponse;
 import com.edgechain.lib.request.ArkRequest;
@@ -11,6 +12,7 @@ import com.edgechain.lib.retrofit.OpenAiService;
 import com.edgechain.lib.openai.response.ChatCompletionResponse;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import io.reactivex.rxjava3.core.Observable;
 import org.modelmapper.ModelMapper;
 import retrofit2.Retrofit;
@@ -32,6 +34,9 @@ public class OpenAiChatEndpoint extends Endpoint {
   private String orgId;
   private String model;
 
+  /** Optional keys/urls to spread calls over instead of the single url and apiKey. */
+  private List<OpenAiPoolMember> pool;
+
   private Double temperature;
   private List<ChatMessage> chatMessages;
   private Boolean stream;
@@ -171,6 +176,14 @@ public class OpenAiChatEndpoint extends Endpoint {
     return orgId;
   }
 
+  public List<OpenAiPoolMember> getPool() {
+    return pool;
+  }
+
+  public void setPool(List<OpenAiPoolMember> pool) {
+    this.pool = pool;
+  }
+
   public void setModel(String model) {
     this.model = model;
   }
@@ -318,6 +331,23 @@ public class OpenAiChatEndpoint extends Endpoint {
     return chatCompletion(mapper, arkRequest);
   }
 
+  /**
+   * Streams only the completion text, coalesced into a few frames per second instead of one
+   * {@link ChatCompletionResponse} per token.
+   */
+  public Observable<String> chatCompletionDeltas(
+      List<ChatMessage> chatMessages, String chainName, ArkRequest arkRequest) {
+    OpenAiChatEndpoint mapper = modelMapper.map(this, OpenAiChatEndpoint.class);
+    mapper.setChatMessages(chatMessages);
+    mapper.setChainName(chainName);
+
+    if (Objects.nonNull(arkRequest)) mapper.setCallIdentifier(arkRequest.getRequestURI());
+    else mapper.setCallIdentifier("URI wasn't provided");
+
+    return instrument(
+        "chatCompletionDeltas", this.openAiStreamService.chatCompletionDeltas(mapper));
+  }
+
   private Observable<ChatCompletionResponse> chatCompletion(
       OpenAiChatEndpoint mapper, ArkRequest arkRequest) {
 
@@ -325,16 +355,19 @@ public class OpenAiChatEndpoint extends Endpoint {
     else mapper.setCallIdentifier("URI wasn't provided");
 
     if (Objects.nonNull(getStream()) && getStream())
-      return this.openAiStreamService
-          .chatCompletion(mapper)
-          .map(
-              chatResponse -> {
-                if (!Objects.isNull(chatResponse.getChoices().get(0).getFinishReason())) {
-                  chatResponse.getChoices().get(0).getMessage().setContent("");
-                  return chatResponse;
-                } else return chatResponse;
-              });
-    else return Observable.fromSingle(this.openAiService.chatCompletion(mapper));
+      return instrument(
+          "chatCompletion",
+          this.openAiStreamService
+              .chatCompletion(mapper)
+              .map(
+                  chatResponse -> {
+                    if (!Objects.isNull(chatResponse.getChoices().get(0).getFinishReason())) {
+                      chatResponse.getChoices().get(0).getMessage().setContent("");
+                      return chatResponse;
+                    } else return chatResponse;
+                  }));
+    else
+      return instrument("chatCompletion", Subsystem.LLM, this.openAiService.chatCompletion(mapper));
   }
 
   public Observable<CompletionResponse> completion(String input, ArkRequest arkRequest) {
@@ -342,6 +375,6 @@ public class OpenAiChatEndpoint extends Endpoint {
     else this.callIdentifier = "URI wasn't provided";
 
     this.input = input;
-    return Observable.fromSingle(this.openAiService.completion(this));
+    return instrument("completion", Subsystem.LLM, this.openAiService.completion(this));
   }
 }
@@ -4,6 +4,7 @@ import com.edgechain.lib.endpoint.Endpoint;
 import com.edgechain.lib.retrofit.WikiService;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import com.edgechain.lib.wiki.response.WikiResponse;
 import io.reactivex.rxjava3.core.Observable;
 import org.modelmapper.ModelMapper;
@@ -35,6 +36,6 @@ public class WikiEndpoint extends Endpoint {
   public Observable<WikiResponse> getPageContent(String input) {
     WikiEndpoint mapper = modelMapper.map(this, WikiEndpoint.class);
     mapper.setInput(input);
-    return Observable.fromSingle(this.wikiService.getPageContent(mapper));
+    return instrument("getPageContent", Subsystem.TOOLS, this.wikiService.getPageContent(mapper));
   }
 }
@@ -2,13 +2,16 @@ package com.edgechain.lib.index.client.impl;
 
 import com.edgechain.lib.embeddings.WordEmbeddings;
 import com.edgechain.lib.endpoint.impl.index.RedisEndpoint;
-import com.edgechain.lib.index.enums.RedisDistanceMetric;
+import com.edgechain.lib.index.enums.RedisVectorAlgorithm;
 import com.edgechain.lib.index.responses.RedisDocument;
 import com.edgechain.lib.index.responses.RedisProperty;
 import com.edgechain.lib.index.responses.RedisResponse;
 import com.edgechain.lib.response.StringResponse;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
 import com.edgechain.lib.utils.FloatUtils;
+import com.edgechain.lib.utils.HashUtils;
 import com.edgechain.lib.utils.JsonUtils;
 import io.reactivex.rxjava3.core.Observable;
 import org.slf4j.Logger;
@@ -19,6 +22,7 @@ import org.springframework.stereotype.Service;
 import redis.clients.jedis.*;
 import redis.clients.jedis.search.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
@@ -39,11 +43,7 @@ public class RedisClient {
         Observable.create(
             emitter -> {
               try {
-                this.createSearchIndex(
-                    getNamespace(endpoint),
-                    endpoint.getIndexName(),
-                    endpoint.getDimensions(),
-                    endpoint.getMetric());
+                this.createSearchIndex(getNamespace(endpoint), endpoint);
                 emitter.onNext(new StringResponse("Created Index ~ "));
                 emitter.onComplete();
               } catch (final Exception e) {
@@ -59,18 +59,14 @@ public class RedisClient {
             emitter -> {
               try (Jedis jedis = new Jedis(jedisPooled.getPool().getResource())) {
 
-                Map<byte[], byte[]> map = new HashMap<>();
-                map.put("id".getBytes(), endpoint.getWordEmbedding().getId().getBytes());
-                map.put(
-                    "values".getBytes(),
-                    FloatUtils.toByteArray(
-                        FloatUtils.toFloatArray(endpoint.getWordEmbedding().getValues())));
+                WordEmbeddings w = endpoint.getWordEmbedding();
+                byte[] key = getKey(getNamespace(endpoint), w);
 
-                long v =
-                    jedis.hset(
-                        (getNamespace(endpoint) + ":" + endpoint.getWordEmbedding().getId())
-                            .getBytes(),
-                        map);
+                long v = jedis.hset(key, toHash(w, endpoint.getAttributes()));
+
+                if (Objects.nonNull(endpoint.getTtl())) {
+                  jedis.expire(key, endpoint.getTtl());
+                }
 
                 emitter.onNext(new StringResponse("Created ~ " + v));
                 emitter.onComplete();
@@ -81,34 +77,58 @@ public class RedisClient {
         endpoint);
   }
 
+  /**
+   * Splits the embeddings into chunks of {@link RedisEndpoint#getFlushSize()} and writes each chunk
+   * through its own pipeline on a pooled connection, so client buffers and server latency stay
+   * bounded regardless of the batch size. Up to {@link RedisEndpoint#getMaxConcurrentPipelines()}
+   * chunks are in flight at once.
+   */
   public EdgeChain<StringResponse> batchUpsert(RedisEndpoint endpoint) {
     return new EdgeChain<>(
-        Observable.create(
-            emitter -> {
-              try (Jedis jedis = new Jedis(jedisPooled.getPool().getResource())) {
-
-                Pipeline pipeline = jedis.pipelined();
+        Observable.defer(
+            () -> {
+              List<WordEmbeddings> wordEmbeddingsList = endpoint.getWordEmbeddingsList();
+              String namespace = getNamespace(endpoint);
+              int flushSize = Math.max(1, endpoint.getFlushSize());
+              int chunks = (wordEmbeddingsList.size() + flushSize - 1) / flushSize;
+
+              return Observable.range(0, chunks)
+                  .flatMap(
+                      i -> {
+                        List<WordEmbeddings> chunk =
+                            wordEmbeddingsList.subList(
+                                i * flushSize,
+                                Math.min(wordEmbeddingsList.size(), (i + 1) * flushSize));
+                        return Observable.fromCallable(
+                                () -> pipelineUpsert(namespace, chunk, endpoint))
+                            .subscribeOn(EdgeChainSchedulers.get(Subsystem.DB));
+                      },
+                      Math.max(1, endpoint.getMaxConcurrentPipelines()))
+                  .reduce(0, Integer::sum)
+                  .map(count -> new StringResponse("Batch Processing Completed ~ " + count))
+                  .toObservable();
+            }),
+        endpoint);
+  }
 
-                for (WordEmbeddings w : endpoint.getWordEmbeddingsList()) {
-                  Map<byte[], byte[]> map = new HashMap<>();
-                  map.put("id".getBytes(), w.getId().getBytes());
-                  map.put(
-                      "values".getBytes(),
-                      FloatUtils.toByteArray(FloatUtils.toFloatArray(w.getValues())));
+  private int pipelineUpsert(
+      String namespace, List<WordEmbeddings> chunk, RedisEndpoint endpoint) {
+    try (Jedis jedis = new Jedis(jedisPooled.getPool().getResource())) {
 
-                  pipeline.hmset((getNamespace(endpoint) + ":" + w.getId()).getBytes(), map);
-                }
+      Pipeline pipeline = jedis.pipelined();
 
-                pipeline.sync();
+      for (WordEmbeddings w : chunk) {
+        byte[] key = getKey(namespace, w);
+        pipeline.hset(key, toHash(w, endpoint.getAttributes()));
 
-                emitter.onNext(new StringResponse("Batch Processing Completed"));
-                emitter.onComplete();
-              } catch (Exception ex) {
+        if (Objects.nonNull(endpoint.getTtl())) {
+          pipeline.expire(key, endpoint.getTtl());
+        }
+      }
 
-                emitter.onError(ex);
-              }
-            }),
-        endpoint);
+      pipeline.sync();
+      return chunk.size();
+    }
   }
 
   public EdgeChain<List<WordEmbeddings>> query(RedisEndpoint endpoint) {
@@ -117,8 +137,15 @@ public class RedisClient {
         Observable.create(
             emitter -> {
               try {
+                boolean efRuntime =
+                    endpoint.getAlgorithm() == RedisVectorAlgorithm.HNSW
+                        && Objects.nonNull(endpoint.getEfRuntime());
+
                 Query query =
-                    new Query("*=>[KNN $k @values $values]")
+                    new Query(
+                            String.format(
+                                "%s=>[KNN $k @values $values%s]",
+                                getFilter(endpoint), efRuntime ? " EF_RUNTIME $ef" : ""))
                         .addParam(
                             "values",
                             FloatUtils.toByteArray(
@@ -128,6 +155,10 @@ public class RedisClient {
                         .setSortBy("__values_score", false)
                         .dialect(2);
 
+                if (efRuntime) {
+                  query.addParam("ef", endpoint.getEfRuntime());
+                }
+
                 SearchResult searchResult = jedisPooled.ftSearch(endpoint.getIndexName(), query);
 
                 String body = JsonUtils.convertToString(searchResult);
@@ -178,8 +209,8 @@ public class RedisClient {
         endpoint);
   }
 
-  private void createSearchIndex(
-      String namespace, String indexName, int dimension, RedisDistanceMetric metric) {
+  private void createSearchIndex(String namespace, RedisEndpoint endpoint) {
+    String indexName = endpoint.getIndexName();
     try {
       Map<String, Object> map = jedisPooled.ftInfo(indexName);
       if (Objects.nonNull(map)) {
@@ -189,14 +220,41 @@ public class RedisClient {
       logger.info(e.getMessage());
     }
 
+    RedisVectorAlgorithm algorithm =
+        Objects.isNull(endpoint.getAlgorithm())
+            ? RedisVectorAlgorithm.HNSW
+            : endpoint.getAlgorithm();
+
     Map<String, Object> attributes = new HashMap<>();
     attributes.put("TYPE", "FLOAT32");
-    attributes.put("DIM", dimension);
-    attributes.put("DISTANCE_METRIC", metric);
+    attributes.put("DIM", endpoint.getDimensions());
+    attributes.put("DISTANCE_METRIC", endpoint.getMetric());
+
+    if (Objects.nonNull(endpoint.getInitialCap())) {
+      attributes.put("INITIAL_CAP", endpoint.getInitialCap());
+    }
+
+    if (algorithm == RedisVectorAlgorithm.HNSW) {
+      if (Objects.nonNull(endpoint.getM())) attributes.put("M", endpoint.getM());
+      if (Objects.nonNull(endpoint.getEfConstruction()))
+        attributes.put("EF_CONSTRUCTION", endpoint.getEfConstruction());
+      if (Objects.nonNull(endpoint.getEfRuntime()))
+        attributes.put("EF_RUNTIME", endpoint.getEfRuntime());
+    }
+
     Schema schema =
         new Schema()
             .addTextField("id", 1)
-            .addVectorField("values", Schema.VectorField.VectorAlgo.HNSW, attributes);
+            .addVectorField(
+                "values", Schema.VectorField.VectorAlgo.valueOf(algorithm.name()), attributes);
+
+    if (Objects.nonNull(endpoint.getTagFields())) {
+      endpoint.getTagFields().forEach(schema::addTagField);
+    }
+
+    if (Objects.nonNull(endpoint.getNumericFields())) {
+      endpoint.getNumericFields().forEach(schema::addNumericField);
+    }
 
     IndexDefinition indexDefinition = new IndexDefinition().setPrefixes(namespace);
 
@@ -207,6 +265,33 @@ public class RedisClient {
     logger.info("Redis search vector_index created ~ " + ftCreate);
   }
 
+  private Map<byte[], byte[]> toHash(WordEmbeddings w, Map<String, String> attributes) {
+    Map<byte[], byte[]> map = new HashMap<>();
+
+    if (Objects.nonNull(attributes)) {
+      attributes.forEach(
+          (k, v) ->
+              map.put(k.getBytes(StandardCharsets.UTF_8), v.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    map.put("id".getBytes(StandardCharsets.UTF_8), w.getId().getBytes(StandardCharsets.UTF_8));
+    map.put(
+        "values".getBytes(StandardCharsets.UTF_8),
+        FloatUtils.toByteArray(FloatUtils.toFloatArray(w.getValues())));
+    return map;
+  }
+
+  // Chunk text can be arbitrarily long; key on a compact hash of it instead.
+  private byte[] getKey(String namespace, WordEmbeddings w) {
+    return (namespace + ":" + HashUtils.contentHash(w.getId())).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private String getFilter(RedisEndpoint endpoint) {
+    return (Objects.isNull(endpoint.getFilter()) || endpoint.getFilter().isBlank())
+        ? "*"
+        : "(" + endpoint.getFilter() + ")";
+  }
+
   private String getNamespace(RedisEndpoint endpoint) {
     return (Objects.isNull(endpoint.getNamespace()) || endpoint.getNamespace().isEmpty())
         ? "knowledge"
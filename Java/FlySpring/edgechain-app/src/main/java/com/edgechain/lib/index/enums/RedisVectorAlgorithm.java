@@ -0,0 +1,6 @@
+package com.edgechain.lib.index.enums;
+
+public enum RedisVectorAlgorithm {
+  FLAT,
+  HNSW;
+}
@@ -1,13 +1,17 @@
 package com.edgechain.lib.logger;
 
 import com.edgechain.lib.logger.entities.ChatCompletionLog;
+import com.edgechain.lib.logger.entities.LogRollup;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.retrofit.logger.ChatCompletionLoggerService;
+import io.reactivex.rxjava3.core.Flowable;
 import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.PathVariable;
 import retrofit2.Retrofit;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 
 public class ChatCompletionLogger {
 
@@ -103,4 +107,21 @@ public class ChatCompletionLogger {
         .findAllByLatencyGreaterThanEqual(mapper, page, size)
         .blockingGet();
   }
+
+  /** Hourly chat completion rollups in {@code [from, to)}; {@code model} may be null. */
+  public List<LogRollup> findRollups(LocalDateTime from, LocalDateTime to, String model) {
+    return this.chatCompletionLoggerService
+        .findRollups(from.toString(), to.toString(), model)
+        .blockingGet();
+  }
+
+  /**
+   * Every chat completion log created in {@code [from, to)}, oldest first, read lazily from a
+   * single streamed response instead of page by page.
+   */
+  public Flowable<ChatCompletionLog> streamAll(LocalDateTime from, LocalDateTime to) {
+    return NdjsonReader.read(
+        this.chatCompletionLoggerService.streamAll(from.toString(), to.toString()),
+        ChatCompletionLog.class);
+  }
 }
@@ -1,9 +1,13 @@
 package com.edgechain.lib.logger;
 
 import com.edgechain.lib.logger.entities.EmbeddingLog;
+import com.edgechain.lib.logger.entities.LogRollup;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
 import com.edgechain.lib.retrofit.logger.EmbeddingLoggerService;
+import io.reactivex.rxjava3.core.Flowable;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.PathVariable;
 import retrofit2.Retrofit;
@@ -80,4 +84,20 @@ public class EmbeddingLogger {
         .findAllByLatencyGreaterThanEqual(mapper, page, size)
         .blockingGet();
   }
+
+  /** Hourly embedding rollups in {@code [from, to)}; {@code model} may be null for all models. */
+  public List<LogRollup> findRollups(LocalDateTime from, LocalDateTime to, String model) {
+    return this.embeddingLoggerService
+        .findRollups(from.toString(), to.toString(), model)
+        .blockingGet();
+  }
+
+  /**
+   * Every embedding log created in {@code [from, to)}, oldest first, read lazily from a single
+   * streamed response instead of page by page.
+   */
+  public Flowable<EmbeddingLog> streamAll(LocalDateTime from, LocalDateTime to) {
+    return NdjsonReader.read(
+        this.embeddingLoggerService.streamAll(from.toString(), to.toString()), EmbeddingLog.class);
+  }
 }
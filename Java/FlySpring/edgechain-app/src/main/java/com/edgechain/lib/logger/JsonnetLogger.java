@@ -2,12 +2,14 @@ package com.edgechain.lib.logger;
 
 import com.edgechain.lib.logger.entities.JsonnetLog;
 import com.edgechain.lib.retrofit.client.RetrofitClientInstance;
-import java.util.HashMap;
-
 import com.edgechain.lib.retrofit.logger.JsonnetLoggerService;
+import io.reactivex.rxjava3.core.Flowable;
 import org.springframework.data.domain.Page;
 import retrofit2.Retrofit;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+
 public class JsonnetLogger {
 
   private final Retrofit retrofit = RetrofitClientInstance.getInstance();
@@ -34,4 +36,13 @@ public class JsonnetLogger {
         .findAllBySelectedFileOrderByCreatedAtDesc(mapper, page, size)
         .blockingGet();
   }
+
+  /**
+   * Every jsonnet log created in {@code [from, to)}, oldest first, read lazily from a single
+   * streamed response instead of page by page.
+   */
+  public Flowable<JsonnetLog> streamAll(LocalDateTime from, LocalDateTime to) {
+    return NdjsonReader.read(
+        this.jsonnetLoggerService.streamAll(from.toString(), to.toString()), JsonnetLog.class);
+  }
 }
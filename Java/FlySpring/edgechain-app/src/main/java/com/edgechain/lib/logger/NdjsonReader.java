@@ -0,0 +1,38 @@
+package com.edgechain.lib.logger;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import java.io.BufferedReader;
+import okhttp3.ResponseBody;
+
+/**
+ * Turns a streamed newline-delimited JSON response into a {@link Flowable}. Lines are parsed as
+ * they are requested, so backpressure reaches the socket and only one row is held at a time.
+ * Cancelling the subscription closes the response.
+ */
+final class NdjsonReader {
+
+  private static final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .registerModule(new JavaTimeModule())
+          .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  private NdjsonReader() {}
+
+  static <T> Flowable<T> read(Single<ResponseBody> response, Class<T> type) {
+    return response
+        .toFlowable()
+        .concatMap(
+            body ->
+                Flowable.using(
+                    () -> new BufferedReader(body.charStream()),
+                    reader ->
+                        Flowable.fromStream(reader.lines())
+                            .filter(line -> !line.isBlank())
+                            .map(line -> objectMapper.readValue(line, type)),
+                    BufferedReader::close));
+  }
+}
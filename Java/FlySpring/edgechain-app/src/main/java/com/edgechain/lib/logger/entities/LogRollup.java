@@ -0,0 +1,124 @@
+package com.edgechain.lib.logger.entities;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Hourly aggregate of chat completion or embedding logs for one (model, name) pair. For embedding
+ * logs {@code name} is the call identifier.
+ *
+ * <p>{@code latencyHistogram[i]} counts calls with latency below {@code
+ * LATENCY_BUCKET_BOUNDS_MILLIS[i]} (and at or above the previous bound); the last element counts
+ * the calls above the highest bound.
+ */
+public class LogRollup {
+
+  public static final long[] LATENCY_BUCKET_BOUNDS_MILLIS = {
+    50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000
+  };
+
+  @JsonSerialize(using = LocalDateTimeSerializer.class)
+  @JsonDeserialize(using = LocalDateTimeDeserializer.class)
+  private LocalDateTime bucket;
+
+  private String model;
+  private String name;
+  private long calls;
+  private Long promptTokens;
+  private Long totalTokens;
+  private Long latencySum;
+  private Long latencyMax;
+  private List<Long> latencyHistogram;
+
+  public LocalDateTime getBucket() {
+    return bucket;
+  }
+
+  public void setBucket(LocalDateTime bucket) {
+    this.bucket = bucket;
+  }
+
+  public String getModel() {
+    return model;
+  }
+
+  public void setModel(String model) {
+    this.model = model;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public long getCalls() {
+    return calls;
+  }
+
+  public void setCalls(long calls) {
+    this.calls = calls;
+  }
+
+  public Long getPromptTokens() {
+    return promptTokens;
+  }
+
+  public void setPromptTokens(Long promptTokens) {
+    this.promptTokens = promptTokens;
+  }
+
+  public Long getTotalTokens() {
+    return totalTokens;
+  }
+
+  public void setTotalTokens(Long totalTokens) {
+    this.totalTokens = totalTokens;
+  }
+
+  public Long getLatencySum() {
+    return latencySum;
+  }
+
+  public void setLatencySum(Long latencySum) {
+    this.latencySum = latencySum;
+  }
+
+  public Long getLatencyMax() {
+    return latencyMax;
+  }
+
+  public void setLatencyMax(Long latencyMax) {
+    this.latencyMax = latencyMax;
+  }
+
+  public List<Long> getLatencyHistogram() {
+    return latencyHistogram;
+  }
+
+  public void setLatencyHistogram(List<Long> latencyHistogram) {
+    this.latencyHistogram = latencyHistogram;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", LogRollup.class.getSimpleName() + "[", "]")
+        .add("bucket=" + bucket)
+        .add("model='" + model + "'")
+        .add("name='" + name + "'")
+        .add("calls=" + calls)
+        .add("promptTokens=" + promptTokens)
+        .add("totalTokens=" + totalTokens)
+        .add("latencySum=" + latencySum)
+        .add("latencyMax=" + latencyMax)
+        .add("latencyHistogram=" + latencyHistogram)
+        .toString();
+  }
+}
@@ -0,0 +1,84 @@
+package com.edgechain.lib.logger.metrics;
+
+import java.util.StringJoiner;
+
+/** Latency and token distribution of one (model, chainName, callIdentifier) over the window. */
+public class CallMetrics {
+
+  private String model;
+  private String chainName;
+  private String callIdentifier;
+  private long windowSeconds;
+  private double throughputPerSecond;
+  private HistogramSummary latencyMillis;
+  private HistogramSummary tokens;
+
+  public String getModel() {
+    return model;
+  }
+
+  public void setModel(String model) {
+    this.model = model;
+  }
+
+  public String getChainName() {
+    return chainName;
+  }
+
+  public void setChainName(String chainName) {
+    this.chainName = chainName;
+  }
+
+  public String getCallIdentifier() {
+    return callIdentifier;
+  }
+
+  public void setCallIdentifier(String callIdentifier) {
+    this.callIdentifier = callIdentifier;
+  }
+
+  public long getWindowSeconds() {
+    return windowSeconds;
+  }
+
+  public void setWindowSeconds(long windowSeconds) {
+    this.windowSeconds = windowSeconds;
+  }
+
+  public double getThroughputPerSecond() {
+    return throughputPerSecond;
+  }
+
+  public void setThroughputPerSecond(double throughputPerSecond) {
+    this.throughputPerSecond = throughputPerSecond;
+  }
+
+  public HistogramSummary getLatencyMillis() {
+    return latencyMillis;
+  }
+
+  public void setLatencyMillis(HistogramSummary latencyMillis) {
+    this.latencyMillis = latencyMillis;
+  }
+
+  public HistogramSummary getTokens() {
+    return tokens;
+  }
+
+  public void setTokens(HistogramSummary tokens) {
+    this.tokens = tokens;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", CallMetrics.class.getSimpleName() + "[", "]")
+        .add("model='" + model + "'")
+        .add("chainName='" + chainName + "'")
+        .add("callIdentifier='" + callIdentifier + "'")
+        .add("windowSeconds=" + windowSeconds)
+        .add("throughputPerSecond=" + throughputPerSecond)
+        .add("latencyMillis=" + latencyMillis)
+        .add("tokens=" + tokens)
+        .toString();
+  }
+}
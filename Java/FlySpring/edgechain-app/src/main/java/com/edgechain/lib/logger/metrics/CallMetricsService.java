@@ -0,0 +1,120 @@
+package com.edgechain.lib.logger.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process latency and token metrics for LLM and embedding calls, kept per (model, chainName,
+ * callIdentifier) over a sliding window of {@code metrics.window} seconds (default 60). Reads never
+ * touch the database. At most {@code metrics.max-series} series (default 1000) are tracked; calls
+ * for further series are not recorded.
+ */
+@Service
+public class CallMetricsService {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private static final int SLOTS = 6;
+
+  @Autowired @Lazy private Environment env;
+
+  private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+
+  private volatile long windowMillis;
+  private volatile int maxSeries;
+  private volatile boolean overflowLogged;
+
+  private record SeriesKey(String model, String chainName, String callIdentifier) {}
+
+  private record Series(SlidingWindowHistogram latency, SlidingWindowHistogram tokens) {}
+
+  /**
+   * @param tokens total tokens of the call, or a negative value when unknown
+   */
+  public void record(
+      String model, String chainName, String callIdentifier, long latencyMillis, long tokens) {
+    SeriesKey key =
+        new SeriesKey(normalize(model), normalize(chainName), normalize(callIdentifier));
+
+    Series s = series.get(key);
+    if (Objects.isNull(s)) {
+      if (series.size() >= getMaxSeries()) {
+        if (!overflowLogged) {
+          overflowLogged = true;
+          logger.warn("metrics.max-series ({}) reached; new series are not recorded", maxSeries);
+        }
+        return;
+      }
+      s =
+          series.computeIfAbsent(
+              key,
+              k ->
+                  new Series(
+                      new SlidingWindowHistogram(getWindowMillis(), SLOTS),
+                      new SlidingWindowHistogram(getWindowMillis(), SLOTS)));
+    }
+
+    s.latency().record(latencyMillis);
+    if (tokens >= 0) s.tokens().record(tokens);
+  }
+
+  /** Current window for every series with at least one call in it; {@code model} may be null. */
+  public List<CallMetrics> snapshot(String model) {
+    List<CallMetrics> result = new ArrayList<>();
+
+    series.forEach(
+        (key, s) -> {
+          if (Objects.nonNull(model) && !model.equals(key.model())) return;
+
+          LogLinearHistogram latency = s.latency().snapshot();
+          if (latency.getCount() == 0) return;
+
+          long windowSeconds = TimeUnit.MILLISECONDS.toSeconds(s.latency().getWindowMillis());
+
+          CallMetrics metrics = new CallMetrics();
+          metrics.setModel(key.model());
+          metrics.setChainName(key.chainName());
+          metrics.setCallIdentifier(key.callIdentifier());
+          metrics.setWindowSeconds(windowSeconds);
+          metrics.setThroughputPerSecond((double) latency.getCount() / Math.max(1, windowSeconds));
+          metrics.setLatencyMillis(latency.summarize());
+          metrics.setTokens(s.tokens().snapshot().summarize());
+          result.add(metrics);
+        });
+
+    return result;
+  }
+
+  public void clear() {
+    series.clear();
+    overflowLogged = false;
+  }
+
+  private long getWindowMillis() {
+    if (windowMillis == 0) {
+      windowMillis = TimeUnit.SECONDS.toMillis(env.getProperty("metrics.window", Long.class, 60L));
+    }
+    return windowMillis;
+  }
+
+  private int getMaxSeries() {
+    if (maxSeries == 0) {
+      maxSeries = env.getProperty("metrics.max-series", Integer.class, 1000);
+    }
+    return maxSeries;
+  }
+
+  private static String normalize(String value) {
+    return Objects.isNull(value) ? "" : value;
+  }
+}
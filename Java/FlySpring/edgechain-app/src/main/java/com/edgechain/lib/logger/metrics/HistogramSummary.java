@@ -0,0 +1,96 @@
+package com.edgechain.lib.logger.metrics;
+
+import java.util.StringJoiner;
+
+public class HistogramSummary {
+
+  private long count;
+  private long min;
+  private double mean;
+  private long p50;
+  private long p95;
+  private long p99;
+  private long max;
+
+  public HistogramSummary() {}
+
+  public HistogramSummary(
+      long count, long min, double mean, long p50, long p95, long p99, long max) {
+    this.count = count;
+    this.min = min;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p95 = p95;
+    this.p99 = p99;
+    this.max = max;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getMin() {
+    return min;
+  }
+
+  public void setMin(long min) {
+    this.min = min;
+  }
+
+  public double getMean() {
+    return mean;
+  }
+
+  public void setMean(double mean) {
+    this.mean = mean;
+  }
+
+  public long getP50() {
+    return p50;
+  }
+
+  public void setP50(long p50) {
+    this.p50 = p50;
+  }
+
+  public long getP95() {
+    return p95;
+  }
+
+  public void setP95(long p95) {
+    this.p95 = p95;
+  }
+
+  public long getP99() {
+    return p99;
+  }
+
+  public void setP99(long p99) {
+    this.p99 = p99;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public void setMax(long max) {
+    this.max = max;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", HistogramSummary.class.getSimpleName() + "[", "]")
+        .add("count=" + count)
+        .add("min=" + min)
+        .add("mean=" + mean)
+        .add("p50=" + p50)
+        .add("p95=" + p95)
+        .add("p99=" + p99)
+        .add("max=" + max)
+        .toString();
+  }
+}
@@ -0,0 +1,115 @@
+package com.edgechain.lib.logger.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size histogram of non-negative longs in the style of HdrHistogram: values below 128 are
+ * counted exactly, larger ones in buckets whose width is 1/64 of their magnitude, so any reported
+ * percentile is within about 1.6% of the recorded value. Recording is lock-free.
+ *
+ * <p>Values above {@link #MAX_VALUE} (about 795 days in milliseconds) are clamped.
+ */
+public class LogLinearHistogram {
+
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+  public static final long MAX_VALUE = (1L << 36) - 1;
+
+  private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+  public void record(long value) {
+    long v = Math.min(Math.max(value, 0), MAX_VALUE);
+
+    counts.incrementAndGet(indexOf(v));
+    count.incrementAndGet();
+    sum.addAndGet(v);
+    max.accumulateAndGet(v, Math::max);
+    min.accumulateAndGet(v, Math::min);
+  }
+
+  /** Adds this histogram's counts to {@code target}. */
+  public void addTo(LogLinearHistogram target) {
+    if (count.get() == 0) return;
+
+    for (int i = 0; i < BUCKETS; i++) {
+      long c = counts.get(i);
+      if (c > 0) target.counts.addAndGet(i, c);
+    }
+    target.count.addAndGet(count.get());
+    target.sum.addAndGet(sum.get());
+    target.max.accumulateAndGet(max.get(), Math::max);
+    target.min.accumulateAndGet(min.get(), Math::min);
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public long getMin() {
+    return count.get() == 0 ? 0 : min.get();
+  }
+
+  public double getMean() {
+    long n = count.get();
+    return n == 0 ? 0 : (double) sum.get() / n;
+  }
+
+  /**
+   * The highest value of the bucket holding the given percentile (0-100), capped at the largest
+   * recorded value; 0 when empty.
+   */
+  public long getValueAtPercentile(double percentile) {
+    long n = count.get();
+    if (n == 0) return 0;
+
+    long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * n));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) return Math.min(highestValueOf(i), max.get());
+    }
+    return max.get();
+  }
+
+  public HistogramSummary summarize() {
+    return new HistogramSummary(
+        getCount(),
+        getMin(),
+        getMean(),
+        getValueAtPercentile(50),
+        getValueAtPercentile(95),
+        getValueAtPercentile(99),
+        getMax());
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) return (int) value;
+
+    // Shift so the value lands in [SUB_BUCKET_HALF_COUNT, SUB_BUCKET_COUNT).
+    int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+    return SUB_BUCKET_COUNT
+        + (shift - 1) * SUB_BUCKET_HALF_COUNT
+        + (int) ((value >> shift) - SUB_BUCKET_HALF_COUNT);
+  }
+
+  static long highestValueOf(int index) {
+    if (index < SUB_BUCKET_COUNT) return index;
+
+    int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+    long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
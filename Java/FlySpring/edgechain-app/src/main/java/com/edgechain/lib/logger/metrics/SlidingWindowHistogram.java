@@ -0,0 +1,62 @@
+package com.edgechain.lib.logger.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link LogLinearHistogram} over the last {@code windowMillis}, kept as a ring of {@code slots}
+ * sub-histograms that are replaced as time moves on. Slots are allocated on first use, so an idle
+ * series costs almost nothing.
+ */
+public class SlidingWindowHistogram {
+
+  private final long slotMillis;
+  private final int slots;
+  private final LongSupplier clock;
+  private final AtomicReferenceArray<Slot> ring;
+
+  private record Slot(long epoch, LogLinearHistogram histogram) {}
+
+  public SlidingWindowHistogram(long windowMillis, int slots) {
+    this(windowMillis, slots, System::currentTimeMillis);
+  }
+
+  SlidingWindowHistogram(long windowMillis, int slots, LongSupplier clock) {
+    this.slotMillis = Math.max(1, windowMillis / slots);
+    this.slots = slots;
+    this.clock = clock;
+    this.ring = new AtomicReferenceArray<>(slots);
+  }
+
+  public void record(long value) {
+    long epoch = clock.getAsLong() / slotMillis;
+    int index = (int) (epoch % slots);
+
+    Slot slot = ring.get(index);
+    if (Objects.isNull(slot) || slot.epoch() != epoch) {
+      Slot fresh = new Slot(epoch, new LogLinearHistogram());
+      // Losing the race means another thread installed the slot for this epoch already.
+      slot = ring.compareAndSet(index, slot, fresh) ? fresh : ring.get(index);
+    }
+    slot.histogram().record(value);
+  }
+
+  /** Merges the slots still inside the window into a new histogram. */
+  public LogLinearHistogram snapshot() {
+    long epoch = clock.getAsLong() / slotMillis;
+
+    LogLinearHistogram merged = new LogLinearHistogram();
+    for (int i = 0; i < slots; i++) {
+      Slot slot = ring.get(i);
+      if (Objects.nonNull(slot) && epoch - slot.epoch() < slots) {
+        slot.histogram().addTo(merged);
+      }
+    }
+    return merged;
+  }
+
+  public long getWindowMillis() {
+    return slotMillis * slots;
+  }
+}
@@ -0,0 +1,29 @@
+package com.edgechain.lib.logger.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one run of a chain stage. Costs next to nothing unless a recording enables
+ * {@value #NAME}, e.g. {@code jcmd <pid> JFR.start settings=profile}.
+ */
+@Name(StageEvent.NAME)
+@Label("EdgeChain Stage")
+@Category("EdgeChain")
+@Description("One call of an instrumented EdgeChain stage")
+@StackTrace(false)
+class StageEvent extends Event {
+
+  static final String NAME = "edgechain.Stage";
+
+  @Label("Stage")
+  String stage;
+
+  @Label("Outcome")
+  @Description("success, cancelled or the simple name of the error")
+  String outcome;
+}
@@ -0,0 +1,176 @@
+package com.edgechain.lib.logger.metrics;
+
+import com.edgechain.lib.configuration.context.ApplicationContextHolder;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Times every subscription to an instrumented stage of a chain, such as {@code
+ * PostgresEndpoint.query} or {@code OpenAiChatEndpoint.chatCompletion}, three ways:
+ *
+ * <ul>
+ *   <li>in process: calls, in-flight calls, cancellations, errors by type and a latency histogram
+ *       over the last 60 seconds, served by {@code GET /logs/metrics/stages};
+ *   <li>as the Micrometer observation {@value #OBSERVATION} tagged with {@code stage}, through the
+ *       application's {@link ObservationRegistry}. With Spring Boot actuator and a meter registry
+ *       on the classpath this yields a timer tagged by error type and an active-calls gauge;
+ *   <li>as the JFR event {@link StageEvent}, when a recording enables it.
+ * </ul>
+ *
+ * <p>A stream counts as a success once it completes; disposed before that, say by a client that
+ * disconnected halfway through a chat stream, it counts as cancelled and adds no latency sample. A
+ * single-result call counts as a success at its result, so {@code firstOrError()} disposing it
+ * afterwards is not a cancellation. At most 1000 stages are tracked in process.
+ */
+public final class StageInstrumentation {
+
+  public static final String OBSERVATION = "edgechain.stage";
+
+  private static final String SUCCESS = "success";
+  private static final String CANCELLED = "cancelled";
+
+  private static final int MAX_STAGES = 1000;
+  private static final long WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(60);
+  private static final int SLOTS = 6;
+
+  private static final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+  private static volatile ObservationRegistry registry;
+
+  private StageInstrumentation() {}
+
+  private static final class Stage {
+    private final LongAdder calls = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder cancelled = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final SlidingWindowHistogram latency =
+        new SlidingWindowHistogram(WINDOW_MILLIS, SLOTS);
+  }
+
+  /** Times a stream, which succeeds only on completion. */
+  public static <T> Observable<T> observe(String stage, Observable<T> source) {
+    return observe(stage, source, false);
+  }
+
+  /** Times a single-result call, which succeeds at its result. */
+  public static <T> Observable<T> observe(String stage, Single<T> source) {
+    return observe(stage, Observable.fromSingle(source), true);
+  }
+
+  /**
+   * Times {@code source} as {@code stage}. Pass {@code singleResult} only when {@code source}
+   * emits at most one item, so that a subscriber taking that item and disposing counts as a success
+   * rather than a cancellation.
+   */
+  public static <T> Observable<T> observe(
+      String stage, Observable<T> source, boolean singleResult) {
+    return Observable.defer(
+        () -> {
+          Stage s = stage(stage);
+          if (Objects.isNull(s)) return source;
+
+          s.calls.increment();
+          s.inFlight.incrementAndGet();
+          long startedAt = System.nanoTime();
+
+          Observation observation =
+              Observation.createNotStarted(OBSERVATION, getRegistry())
+                  .lowCardinalityKeyValue("stage", stage)
+                  .start();
+
+          StageEvent event = new StageEvent();
+          event.begin();
+
+          AtomicBoolean finished = new AtomicBoolean();
+          BiConsumer<String, Throwable> finish =
+              (outcome, error) -> {
+                if (!finished.compareAndSet(false, true)) return;
+
+                s.inFlight.decrementAndGet();
+                if (Objects.nonNull(error)) {
+                  s.errors.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                  observation.error(error);
+                } else if (outcome.equals(CANCELLED)) {
+                  s.cancelled.increment();
+                }
+                if (!outcome.equals(CANCELLED))
+                  s.latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                observation.lowCardinalityKeyValue("outcome", outcome).stop();
+
+                event.end();
+                if (event.shouldCommit()) {
+                  event.stage = stage;
+                  event.outcome = outcome;
+                  event.commit();
+                }
+              };
+
+          Observable<T> timed =
+              singleResult ? source.doOnNext(v -> finish.accept(SUCCESS, null)) : source;
+          return timed
+              .doOnComplete(() -> finish.accept(SUCCESS, null))
+              .doOnError(error -> finish.accept(error.getClass().getSimpleName(), error))
+              .doOnDispose(() -> finish.accept(CANCELLED, null));
+        });
+  }
+
+  /** Every stage seen so far, by name. */
+  public static List<StageMetrics> snapshot() {
+    List<StageMetrics> result = new ArrayList<>();
+    new TreeMap<>(stages)
+        .forEach(
+            (name, s) -> {
+              Map<String, Long> errors = new TreeMap<>();
+              s.errors.forEach((type, count) -> errors.put(type, count.sum()));
+
+              StageMetrics metrics = new StageMetrics();
+              metrics.setStage(name);
+              metrics.setCalls(s.calls.sum());
+              metrics.setInFlight(s.inFlight.get());
+              metrics.setCancelled(s.cancelled.sum());
+              metrics.setErrors(errors);
+              metrics.setWindowSeconds(TimeUnit.MILLISECONDS.toSeconds(WINDOW_MILLIS));
+              metrics.setLatencyMillis(s.latency.snapshot().summarize());
+              result.add(metrics);
+            });
+    return result;
+  }
+
+  public static void clear() {
+    stages.clear();
+  }
+
+  private static Stage stage(String name) {
+    Stage s = stages.get(name);
+    if (Objects.nonNull(s) || stages.size() >= MAX_STAGES) return s;
+    return stages.computeIfAbsent(name, k -> new Stage());
+  }
+
+  // The application's registry once the context is up; observations are no-ops until then.
+  private static ObservationRegistry getRegistry() {
+    if (Objects.isNull(registry)) {
+      ApplicationContext context = ApplicationContextHolder.getContext();
+      if (Objects.isNull(context)) return ObservationRegistry.NOOP;
+      registry =
+          context
+              .getBeanProvider(ObservationRegistry.class)
+              .getIfAvailable(() -> ObservationRegistry.NOOP);
+    }
+    return registry;
+  }
+}
@@ -0,0 +1,85 @@
+package com.edgechain.lib.logger.metrics;
+
+import java.util.Map;
+import java.util.StringJoiner;
+
+/** Calls, failures and latency of one chain stage, e.g. {@code PostgresEndpoint.query}. */
+public class StageMetrics {
+
+  private String stage;
+  private long calls;
+  private int inFlight;
+  private long cancelled;
+  private Map<String, Long> errors;
+  private long windowSeconds;
+  private HistogramSummary latencyMillis;
+
+  public String getStage() {
+    return stage;
+  }
+
+  public void setStage(String stage) {
+    this.stage = stage;
+  }
+
+  public long getCalls() {
+    return calls;
+  }
+
+  public void setCalls(long calls) {
+    this.calls = calls;
+  }
+
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  public void setInFlight(int inFlight) {
+    this.inFlight = inFlight;
+  }
+
+  public long getCancelled() {
+    return cancelled;
+  }
+
+  public void setCancelled(long cancelled) {
+    this.cancelled = cancelled;
+  }
+
+  public Map<String, Long> getErrors() {
+    return errors;
+  }
+
+  public void setErrors(Map<String, Long> errors) {
+    this.errors = errors;
+  }
+
+  public long getWindowSeconds() {
+    return windowSeconds;
+  }
+
+  public void setWindowSeconds(long windowSeconds) {
+    this.windowSeconds = windowSeconds;
+  }
+
+  public HistogramSummary getLatencyMillis() {
+    return latencyMillis;
+  }
+
+  public void setLatencyMillis(HistogramSummary latencyMillis) {
+    this.latencyMillis = latencyMillis;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", StageMetrics.class.getSimpleName() + "[", "]")
+        .add("stage='" + stage + "'")
+        .add("calls=" + calls)
+        .add("inFlight=" + inFlight)
+        .add("cancelled=" + cancelled)
+        .add("errors=" + errors)
+        .add("windowSeconds=" + windowSeconds)
+        .add("latencyMillis=" + latencyMillis)
+        .toString();
+  }
+}
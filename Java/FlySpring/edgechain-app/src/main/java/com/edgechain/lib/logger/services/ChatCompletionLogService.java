@@ -1,8 +1,19 @@
 package com.edgechain.lib.logger.services;
 
 import com.edgechain.lib.logger.entities.ChatCompletionLog;
+import com.edgechain.lib.logger.entities.LogRollup;
 import com.edgechain.lib.logger.repositories.ChatCompletionLogRepository;
+import com.edgechain.lib.logger.writer.AsyncBatchLogWriter;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -14,12 +25,85 @@ public class ChatCompletionLogService {
 
   @Autowired private ChatCompletionLogRepository chatCompletionLogRepository;
   @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired @Lazy private Environment env;
+  @Autowired @Lazy private LogMaintenanceService logMaintenanceService;
+
+  private volatile boolean tableCreated;
+  private volatile AsyncBatchLogWriter<ChatCompletionLog> writer;
+
+  private static final String TABLE = LogMaintenanceService.CHAT_COMPLETION_LOGS;
+
+  // The serial key leads each partition's primary key index, so the ordering is a merge of
+  // index scans rather than a sort of the whole range.
+  private static final String SQL_STREAM =
+      "SELECT * FROM chat_completion_logs WHERE created_at >= ? AND created_at < ?"
+          + " ORDER BY chat_completion_id";
+
+  private static final String SQL_INSERT =
+      "INSERT INTO chat_completion_logs (id, name, call_identifier, type, created_at,"
+          + " completed_at, model, input, content, presence_penalty, frequency_penalty, top_p,"
+          + " n, temperature, latency, prompt_tokens, total_tokens)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
   public ChatCompletionLog saveOrUpdate(ChatCompletionLog chatCompletionLog) {
-    this.createTable();
+    this.ensureTable();
     return chatCompletionLogRepository.save(chatCompletionLog);
   }
 
+  /**
+   * Queues the log for the background writer and returns immediately; see {@link
+   * AsyncBatchLogWriter} for buffering, batching and overflow behaviour.
+   */
+  public void saveAsync(ChatCompletionLog chatCompletionLog) {
+    this.getWriter().write(chatCompletionLog);
+  }
+
+  /** Inserts the logs as a single JDBC batch. */
+  public void saveAll(List<ChatCompletionLog> chatCompletionLogs) {
+    this.ensureTable();
+
+    jdbcTemplate.batchUpdate(
+        SQL_INSERT,
+        chatCompletionLogs,
+        chatCompletionLogs.size(),
+        (ps, log) -> {
+          if (Objects.isNull(log.getId())) log.setId(UUID.randomUUID().toString());
+          ps.setObject(1, log.getId());
+          ps.setObject(2, log.getName());
+          ps.setObject(3, log.getCallIdentifier());
+          ps.setObject(4, log.getType());
+          ps.setObject(5, log.getCreatedAt());
+          ps.setObject(6, log.getCompletedAt());
+          ps.setObject(7, log.getModel());
+          ps.setObject(8, log.getInput());
+          ps.setObject(9, log.getContent());
+          ps.setObject(10, log.getPresencePenalty());
+          ps.setObject(11, log.getFrequencyPenalty());
+          ps.setObject(12, log.getTopP());
+          ps.setObject(13, log.getN());
+          ps.setObject(14, log.getTemperature());
+          ps.setObject(15, log.getLatency());
+          ps.setObject(16, log.getPromptTokens());
+          ps.setObject(17, log.getTotalTokens());
+        });
+  }
+
+  /**
+   * Streams the logs created in {@code [from, to)} in insertion order to {@code consumer},
+   * through a server-side cursor rather than OFFSET pages.
+   */
+  @Transactional(readOnly = true)
+  public void streamAll(
+      LocalDateTime from, LocalDateTime to, Consumer<ChatCompletionLog> consumer) {
+    LogCursor.stream(
+        jdbcTemplate,
+        SQL_STREAM,
+        ChatCompletionLog.class,
+        consumer,
+        Timestamp.valueOf(from),
+        Timestamp.valueOf(to));
+  }
+
   @Transactional(readOnly = true)
   public Page<ChatCompletionLog> findAll(Pageable pageable) {
     return this.chatCompletionLogRepository.findAll(pageable);
@@ -78,12 +162,12 @@ public class ChatCompletionLogService {
   public void createTable() {
     jdbcTemplate.execute(
         "CREATE TABLE IF NOT EXISTS chat_completion_logs (\n"
-            + "    chat_completion_id SERIAL PRIMARY KEY,\n"
-            + "    id VARCHAR(255) NOT NULL UNIQUE,\n"
+            + "    chat_completion_id SERIAL,\n"
+            + "    id VARCHAR(255) NOT NULL,\n"
             + "    name VARCHAR(255) NOT NULL,\n"
             + "    call_identifier VARCHAR(255) NOT NULL,\n"
             + "    type VARCHAR(255) NOT NULL,\n"
-            + "    created_at TIMESTAMP,\n"
+            + "    created_at TIMESTAMP NOT NULL DEFAULT now(),\n"
             + "    completed_at TIMESTAMP,\n"
             + "    model VARCHAR(255) NOT NULL,\n"
             + "    input TEXT NOT NULL,\n"
@@ -95,7 +179,58 @@ public class ChatCompletionLogService {
             + "    temperature DOUBLE PRECISION,\n"
             + "    latency BIGINT,\n"
             + "    prompt_tokens BIGINT,\n"
-            + "    total_tokens BIGINT"
-            + ");");
+            + "    total_tokens BIGINT,\n"
+            + "    PRIMARY KEY (chat_completion_id, created_at),\n"
+            + "    UNIQUE (id, created_at)\n"
+            + ") PARTITION BY RANGE (created_at);");
+    jdbcTemplate.execute(LogMaintenanceService.defaultPartitionSql(TABLE));
+
+    // One per finder in ChatCompletionLogRepository; created on every partition.
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS chat_completion_logs_completed_at_idx"
+            + " ON chat_completion_logs (completed_at)");
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS chat_completion_logs_name_idx"
+            + " ON chat_completion_logs (name, completed_at)");
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS chat_completion_logs_model_idx"
+            + " ON chat_completion_logs (model, completed_at)");
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS chat_completion_logs_call_identifier_idx"
+            + " ON chat_completion_logs (call_identifier, completed_at)");
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS chat_completion_logs_latency_idx"
+            + " ON chat_completion_logs (latency)");
+  }
+
+  /** Hourly rollups maintained by {@link LogMaintenanceService}; {@code model} may be null. */
+  @Transactional(readOnly = true)
+  public List<LogRollup> findRollups(LocalDateTime from, LocalDateTime to, String model) {
+    return this.logMaintenanceService.findRollups(
+        LogMaintenanceService.CHAT_COMPLETION_LOG_ROLLUPS, from, to, model);
+  }
+
+  @PreDestroy
+  public void close() {
+    if (Objects.nonNull(writer)) writer.close();
+  }
+
+  private AsyncBatchLogWriter<ChatCompletionLog> getWriter() {
+    if (Objects.isNull(writer)) {
+      synchronized (this) {
+        if (Objects.isNull(writer)) {
+          writer = AsyncBatchLogWriter.fromEnvironment("chat-completion-log", env, this::saveAll);
+        }
+      }
+    }
+    return writer;
+  }
+
+  private void ensureTable() {
+    if (!tableCreated) {
+      this.createTable();
+      this.logMaintenanceService.initialize(TABLE);
+      tableCreated = true;
+    }
   }
 }
@@ -1,8 +1,19 @@
 package com.edgechain.lib.logger.services;
 
 import com.edgechain.lib.logger.entities.EmbeddingLog;
+import com.edgechain.lib.logger.entities.LogRollup;
 import com.edgechain.lib.logger.repositories.EmbeddingLogRepository;
+import com.edgechain.lib.logger.writer.AsyncBatchLogWriter;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -14,13 +25,74 @@ public class EmbeddingLogService {
 
   @Autowired private EmbeddingLogRepository embeddingLogRepository;
   @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired @Lazy private Environment env;
+  @Autowired @Lazy private LogMaintenanceService logMaintenanceService;
+
+  private volatile boolean tableCreated;
+  private volatile AsyncBatchLogWriter<EmbeddingLog> writer;
+
+  private static final String TABLE = LogMaintenanceService.EMBEDDING_LOGS;
+
+  // The serial key leads each partition's primary key index, so the ordering is a merge of
+  // index scans rather than a sort of the whole range.
+  private static final String SQL_STREAM =
+      "SELECT * FROM embedding_logs WHERE created_at >= ? AND created_at < ?"
+          + " ORDER BY embedding_id";
+
+  private static final String SQL_INSERT =
+      "INSERT INTO embedding_logs (id, call_identifier, created_at, completed_at,"
+          + " model, latency, prompt_tokens, total_tokens) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
   @Transactional
   public EmbeddingLog saveOrUpdate(EmbeddingLog embeddingLog) {
-    this.createTable();
+    this.ensureTable();
     return this.embeddingLogRepository.save(embeddingLog);
   }
 
+  /**
+   * Queues the log for the background writer and returns immediately; see {@link
+   * AsyncBatchLogWriter} for buffering, batching and overflow behaviour.
+   */
+  public void saveAsync(EmbeddingLog embeddingLog) {
+    this.getWriter().write(embeddingLog);
+  }
+
+  /** Inserts the logs as a single JDBC batch. */
+  public void saveAll(List<EmbeddingLog> embeddingLogs) {
+    this.ensureTable();
+
+    jdbcTemplate.batchUpdate(
+        SQL_INSERT,
+        embeddingLogs,
+        embeddingLogs.size(),
+        (ps, log) -> {
+          if (Objects.isNull(log.getId())) log.setId(UUID.randomUUID().toString());
+          ps.setObject(1, log.getId());
+          ps.setObject(2, log.getCallIdentifier());
+          ps.setObject(3, log.getCreatedAt());
+          ps.setObject(4, log.getCompletedAt());
+          ps.setObject(5, log.getModel());
+          ps.setObject(6, log.getLatency());
+          ps.setObject(7, log.getPromptTokens());
+          ps.setObject(8, log.getTotalTokens());
+        });
+  }
+
+  /**
+   * Streams the logs created in {@code [from, to)} in insertion order to {@code consumer},
+   * through a server-side cursor rather than OFFSET pages.
+   */
+  @Transactional(readOnly = true)
+  public void streamAll(LocalDateTime from, LocalDateTime to, Consumer<EmbeddingLog> consumer) {
+    LogCursor.stream(
+        jdbcTemplate,
+        SQL_STREAM,
+        EmbeddingLog.class,
+        consumer,
+        Timestamp.valueOf(from),
+        Timestamp.valueOf(to));
+  }
+
   @Transactional(readOnly = true)
   public Page<EmbeddingLog> findAll(Pageable pageable) {
     return this.embeddingLogRepository.findAll(pageable);
@@ -66,20 +138,68 @@ public class EmbeddingLogService {
   private static final String SQL_CREATE_TABLE =
       """
       CREATE TABLE IF NOT EXISTS embedding_logs (
-              embedding_id SERIAL PRIMARY KEY,
-              id VARCHAR(255) NOT NULL UNIQUE,
+              embedding_id SERIAL,
+              id VARCHAR(255) NOT NULL,
               call_identifier VARCHAR(255) NOT NULL,
-              created_at TIMESTAMP,
+              created_at TIMESTAMP NOT NULL DEFAULT now(),
               completed_at TIMESTAMP,
               model VARCHAR(255) NOT NULL,
               latency BIGINT,
               prompt_tokens BIGINT,
-              total_tokens BIGINT
-          );
-              """;
+              total_tokens BIGINT,
+              PRIMARY KEY (embedding_id, created_at),
+              UNIQUE (id, created_at)
+          ) PARTITION BY RANGE (created_at);
+      """;
+
+  // One per finder in EmbeddingLogRepository; created on every partition.
+  private static final String SQL_CREATE_INDEXES =
+      """
+      CREATE INDEX IF NOT EXISTS embedding_logs_completed_at_idx ON embedding_logs (completed_at);
+      CREATE INDEX IF NOT EXISTS embedding_logs_model_idx ON embedding_logs (model, completed_at);
+      CREATE INDEX IF NOT EXISTS embedding_logs_call_identifier_idx
+          ON embedding_logs (call_identifier, completed_at);
+      CREATE INDEX IF NOT EXISTS embedding_logs_latency_idx ON embedding_logs (latency);
+      """;
 
   @Transactional
   public void createTable() {
     jdbcTemplate.execute(SQL_CREATE_TABLE);
+    jdbcTemplate.execute(LogMaintenanceService.defaultPartitionSql(TABLE));
+    jdbcTemplate.execute(SQL_CREATE_INDEXES);
+  }
+
+  /**
+   * Hourly rollups maintained by {@link LogMaintenanceService}, named by call identifier; {@code
+   * model} may be null.
+   */
+  @Transactional(readOnly = true)
+  public List<LogRollup> findRollups(LocalDateTime from, LocalDateTime to, String model) {
+    return this.logMaintenanceService.findRollups(
+        LogMaintenanceService.EMBEDDING_LOG_ROLLUPS, from, to, model);
+  }
+
+  @PreDestroy
+  public void close() {
+    if (Objects.nonNull(writer)) writer.close();
+  }
+
+  private AsyncBatchLogWriter<EmbeddingLog> getWriter() {
+    if (Objects.isNull(writer)) {
+      synchronized (this) {
+        if (Objects.isNull(writer)) {
+          writer = AsyncBatchLogWriter.fromEnvironment("embedding-log", env, this::saveAll);
+        }
+      }
+    }
+    return writer;
+  }
+
+  private void ensureTable() {
+    if (!tableCreated) {
+      this.createTable();
+      this.logMaintenanceService.initialize(TABLE);
+      tableCreated = true;
+    }
   }
 }
@@ -2,7 +2,17 @@ package com.edgechain.lib.logger.services;
 
 import com.edgechain.lib.logger.entities.JsonnetLog;
 import com.edgechain.lib.logger.repositories.JsonnetLogRepository;
+import com.edgechain.lib.logger.writer.AsyncBatchLogWriter;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -14,12 +24,73 @@ public class JsonnetLogService {
 
   @Autowired private JsonnetLogRepository jsonnetLogRepository;
   @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired @Lazy private Environment env;
+  @Autowired @Lazy private LogMaintenanceService logMaintenanceService;
+
+  private volatile boolean tableCreated;
+  private volatile AsyncBatchLogWriter<JsonnetLog> writer;
+
+  private static final String TABLE = LogMaintenanceService.JSONNET_LOGS;
+
+  // The serial key leads each partition's primary key index, so the ordering is a merge of
+  // index scans rather than a sort of the whole range.
+  private static final String SQL_STREAM =
+      "SELECT * FROM jsonnet_logs WHERE created_at >= ? AND created_at < ?"
+          + " ORDER BY jsonnet_log_id";
+
+  private static final String SQL_INSERT =
+      "INSERT INTO jsonnet_logs (id, split_size, metadata, content, selected_file, f1,"
+          + " f2, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
   public JsonnetLog saveOrUpdate(JsonnetLog jsonnetLog) {
-    this.createTable();
+    this.ensureTable();
     return jsonnetLogRepository.save(jsonnetLog);
   }
 
+  /**
+   * Queues the log for the background writer and returns immediately; see {@link
+   * AsyncBatchLogWriter} for buffering, batching and overflow behaviour.
+   */
+  public void saveAsync(JsonnetLog jsonnetLog) {
+    this.getWriter().write(jsonnetLog);
+  }
+
+  /** Inserts the logs as a single JDBC batch. */
+  public void saveAll(List<JsonnetLog> jsonnetLogs) {
+    this.ensureTable();
+
+    jdbcTemplate.batchUpdate(
+        SQL_INSERT,
+        jsonnetLogs,
+        jsonnetLogs.size(),
+        (ps, log) -> {
+          if (Objects.isNull(log.getId())) log.setId(UUID.randomUUID().toString());
+          ps.setObject(1, log.getId());
+          ps.setObject(2, log.getSplitSize());
+          ps.setObject(3, log.getMetadata());
+          ps.setObject(4, log.getContent());
+          ps.setObject(5, log.getSelectedFile());
+          ps.setObject(6, log.getF1());
+          ps.setObject(7, log.getF2());
+          ps.setObject(8, log.getCreatedAt());
+        });
+  }
+
+  /**
+   * Streams the logs created in {@code [from, to)} in insertion order to {@code consumer},
+   * through a server-side cursor rather than OFFSET pages.
+   */
+  @Transactional(readOnly = true)
+  public void streamAll(LocalDateTime from, LocalDateTime to, Consumer<JsonnetLog> consumer) {
+    LogCursor.stream(
+        jdbcTemplate,
+        SQL_STREAM,
+        JsonnetLog.class,
+        consumer,
+        Timestamp.valueOf(from),
+        Timestamp.valueOf(to));
+  }
+
   @Transactional(readOnly = true)
   public Page<JsonnetLog> findAll(Pageable pageable) {
     return this.jsonnetLogRepository.findAll(pageable);
@@ -40,15 +111,47 @@ public class JsonnetLogService {
   public void createTable() {
     jdbcTemplate.execute(
         "CREATE TABLE IF NOT EXISTS jsonnet_logs (\n"
-            + "    jsonnet_log_id SERIAL PRIMARY KEY,\n"
-            + "    id VARCHAR(255) NOT NULL UNIQUE,\n"
+            + "    jsonnet_log_id SERIAL,\n"
+            + "    id VARCHAR(255) NOT NULL,\n"
             + "    split_size VARCHAR(255) NOT NULL,\n"
             + "    metadata TEXT NOT NULL,\n"
             + "    content TEXT,\n"
             + "    selected_file VARCHAR(255),\n"
             + "    f1 VARCHAR(255) NOT NULL,\n"
             + "    f2 VARCHAR(255) NOT NULL,\n"
-            + "    created_at TIMESTAMP\n"
-            + ");\n");
+            + "    created_at TIMESTAMP NOT NULL DEFAULT now(),\n"
+            + "    PRIMARY KEY (jsonnet_log_id, created_at),\n"
+            + "    UNIQUE (id, created_at)\n"
+            + ") PARTITION BY RANGE (created_at);\n");
+    jdbcTemplate.execute(LogMaintenanceService.defaultPartitionSql(TABLE));
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS jsonnet_logs_created_at_idx ON jsonnet_logs (created_at)");
+    jdbcTemplate.execute(
+        "CREATE INDEX IF NOT EXISTS jsonnet_logs_selected_file_idx"
+            + " ON jsonnet_logs (selected_file, created_at)");
+  }
+
+  @PreDestroy
+  public void close() {
+    if (Objects.nonNull(writer)) writer.close();
+  }
+
+  private AsyncBatchLogWriter<JsonnetLog> getWriter() {
+    if (Objects.isNull(writer)) {
+      synchronized (this) {
+        if (Objects.isNull(writer)) {
+          writer = AsyncBatchLogWriter.fromEnvironment("jsonnet-log", env, this::saveAll);
+        }
+      }
+    }
+    return writer;
+  }
+
+  private void ensureTable() {
+    if (!tableCreated) {
+      this.createTable();
+      this.logMaintenanceService.initialize(TABLE);
+      tableCreated = true;
+    }
   }
 }
@@ -0,0 +1,35 @@
+package com.edgechain.lib.logger.services;
+
+import java.sql.PreparedStatement;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Reads query results through a PostgreSQL server-side cursor: with a fetch size inside a
+ * transaction the driver pulls {@link #FETCH_SIZE} rows at a time instead of materializing the
+ * whole result, so memory stays constant however many rows are read.
+ */
+final class LogCursor {
+
+  static final int FETCH_SIZE = 500;
+
+  private LogCursor() {}
+
+  /** Must be called within a transaction, otherwise the driver ignores the fetch size. */
+  static <T> void stream(
+      JdbcTemplate jdbcTemplate, String sql, Class<T> type, Consumer<T> consumer, Object... args) {
+    RowMapper<T> mapper = new BeanPropertyRowMapper<>(type);
+
+    jdbcTemplate.query(
+        con -> {
+          PreparedStatement ps = con.prepareStatement(sql);
+          ps.setFetchSize(FETCH_SIZE);
+          for (int i = 0; i < args.length; i++) ps.setObject(i + 1, args[i]);
+          return ps;
+        },
+        (RowCallbackHandler) rs -> consumer.accept(mapper.mapRow(rs, rs.getRow())));
+  }
+}
@@ -0,0 +1,373 @@
+package com.edgechain.lib.logger.services;
+
+import com.edgechain.lib.logger.entities.LogRollup;
+import jakarta.annotation.PreDestroy;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the log tables bounded and cheap to query.
+ *
+ * <ul>
+ *   <li>Log tables are range partitioned on {@code created_at} by {@code
+ *       logger.partition.interval} (MONTH or DAY, default MONTH). Partitions are created ahead of
+ *       time, and a default partition catches anything outside them.
+ *   <li>With {@code logger.retention.days} set, partitions entirely older than the retention are
+ *       dropped. Tables created before partitioning are trimmed with batched deletes instead.
+ *   <li>Chat completion and embedding logs are aggregated per hour and (model, name) into {@code
+ *       *_rollups} tables with call counts, token sums and a latency histogram, for dashboards.
+ * </ul>
+ *
+ * The tasks run once the application is ready (when {@code postgres.db.host} is set) or the first
+ * log table is created, whichever comes first, then every {@code logger.maintenance.interval}
+ * seconds (default 3600). Rollups resume from the latest one stored, so rows logged before they
+ * existed, or while the application was down, are backfilled.
+ */
+@Service
+public class LogMaintenanceService {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  static final String CHAT_COMPLETION_LOGS = "chat_completion_logs";
+  static final String EMBEDDING_LOGS = "embedding_logs";
+  static final String JSONNET_LOGS = "jsonnet_logs";
+
+  static final String CHAT_COMPLETION_LOG_ROLLUPS = "chat_completion_log_rollups";
+  static final String EMBEDDING_LOG_ROLLUPS = "embedding_log_rollups";
+
+  private static final List<String> TABLES =
+      List.of(CHAT_COMPLETION_LOGS, EMBEDDING_LOGS, JSONNET_LOGS);
+
+  // Partitions created beyond the current one, so inserts never land in the default partition.
+  private static final int PARTITIONS_AHEAD = 2;
+
+  // Rollups of the last hours are recomputed each run to pick up late (buffered) writes.
+  private static final int ROLLUP_LOOKBACK_HOURS = 2;
+
+  private static final int DELETE_BATCH_SIZE = 5000;
+
+  enum PartitionInterval {
+    DAY(ChronoUnit.DAYS, "yyyyMMdd"),
+    MONTH(ChronoUnit.MONTHS, "yyyyMM");
+
+    private final ChronoUnit unit;
+    private final DateTimeFormatter suffix;
+
+    PartitionInterval(ChronoUnit unit, String suffix) {
+      this.unit = unit;
+      this.suffix = DateTimeFormatter.ofPattern(suffix);
+    }
+
+    LocalDate start(LocalDate date) {
+      return this == DAY ? date : date.withDayOfMonth(1);
+    }
+
+    LocalDate next(LocalDate start) {
+      return start.plus(1, unit);
+    }
+
+    String suffix(LocalDate start) {
+      return start.format(suffix);
+    }
+
+    /** The interval a partition suffix was created with, told apart by its length. */
+    static PartitionInterval ofSuffix(String suffix) {
+      return suffix.length() == 8 ? DAY : MONTH;
+    }
+
+    LocalDate parse(String suffix) {
+      return this == DAY
+          ? LocalDate.parse(suffix, this.suffix)
+          : LocalDate.parse(suffix + "01", DAY.suffix);
+    }
+  }
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired @Lazy private Environment env;
+
+  private ScheduledExecutorService executor;
+
+  /**
+   * Called by the log services once their table exists: creates the current partitions and starts
+   * the maintenance tasks.
+   */
+  public void initialize(String table) {
+    if (isPartitioned(table)) {
+      this.createPartitions(table, LocalDate.now());
+    } else {
+      logger.info("{} is not partitioned; retention falls back to batched deletes", table);
+    }
+    this.schedule();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (Objects.nonNull(env.getProperty("postgres.db.host"))) this.schedule();
+  }
+
+  /** Runs partition creation, retention and rollups once. */
+  public void maintain() {
+    for (String table : TABLES) {
+      if (!exists(table)) continue;
+
+      try {
+        if (isPartitioned(table)) this.createPartitions(table, LocalDate.now());
+        this.applyRetention(table);
+      } catch (Exception e) {
+        logger.warn("Maintenance of {} failed ~ {}", table, e.getMessage());
+      }
+    }
+
+    LocalDateTime from =
+        LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(ROLLUP_LOOKBACK_HOURS);
+    this.refreshRollups(CHAT_COMPLETION_LOGS, CHAT_COMPLETION_LOG_ROLLUPS, "name", from);
+    this.refreshRollups(EMBEDDING_LOGS, EMBEDDING_LOG_ROLLUPS, "call_identifier", from);
+  }
+
+  /** Hourly rollups in {@code [from, to)}, optionally for a single model, oldest first. */
+  public List<LogRollup> findRollups(
+      String rollupTable, LocalDateTime from, LocalDateTime to, String model) {
+    if (!exists(rollupTable)) return List.of();
+
+    String sql =
+        "SELECT bucket, model, name, calls, prompt_tokens, total_tokens, latency_sum, latency_max,"
+            + " latency_histogram FROM "
+            + rollupTable
+            + " WHERE bucket >= ? AND bucket < ?";
+
+    if (Objects.isNull(model)) {
+      return jdbcTemplate.query(
+          sql + " ORDER BY bucket",
+          this::mapRollup,
+          Timestamp.valueOf(from),
+          Timestamp.valueOf(to));
+    }
+    return jdbcTemplate.query(
+        sql + " AND model = ? ORDER BY bucket",
+        this::mapRollup,
+        Timestamp.valueOf(from),
+        Timestamp.valueOf(to),
+        model);
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (Objects.nonNull(executor)) executor.shutdownNow();
+  }
+
+  /**
+   * DDL adding the default partition to {@code table}; a no-op for tables created before
+   * partitioning, which cannot take partitions.
+   */
+  static String defaultPartitionSql(String table) {
+    return String.format(
+        "DO $$ BEGIN IF EXISTS (SELECT 1 FROM pg_partitioned_table"
+            + " WHERE partrelid = '%s'::regclass) THEN"
+            + " CREATE TABLE IF NOT EXISTS %s_default PARTITION OF %s DEFAULT; END IF; END $$",
+        table, table, table);
+  }
+
+  void createPartitions(String table, LocalDate today) {
+    PartitionInterval interval = getPartitionInterval();
+
+    LocalDate start = interval.start(today);
+    for (int i = 0; i <= PARTITIONS_AHEAD; i++) {
+      LocalDate end = interval.next(start);
+      jdbcTemplate.execute(
+          String.format(
+              "CREATE TABLE IF NOT EXISTS %s_p%s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+              table, interval.suffix(start), table, start, end));
+      start = end;
+    }
+  }
+
+  void applyRetention(String table) {
+    String days = env.getProperty("logger.retention.days");
+    if (Objects.isNull(days)) return;
+
+    LocalDateTime cutoff = LocalDate.now().minusDays(Long.parseLong(days)).atStartOfDay();
+
+    if (!isPartitioned(table)) {
+      long deleted = 0;
+      int batch;
+      do {
+        batch =
+            jdbcTemplate.update(
+                "DELETE FROM "
+                    + table
+                    + " WHERE ctid = ANY(ARRAY(SELECT ctid FROM "
+                    + table
+                    + " WHERE created_at < ? LIMIT ?))",
+                Timestamp.valueOf(cutoff),
+                DELETE_BATCH_SIZE);
+        deleted += batch;
+      } while (batch == DELETE_BATCH_SIZE);
+
+      if (deleted > 0) logger.info("{} rows older than {} deleted from {}", deleted, cutoff, table);
+      return;
+    }
+
+    List<String> partitions =
+        jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                + " JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?",
+            String.class,
+            table);
+
+    String prefix = table + "_p";
+    for (String partition : partitions) {
+      if (!partition.startsWith(prefix)) continue; // e.g. the default partition
+
+      String suffix = partition.substring(prefix.length());
+      PartitionInterval interval = PartitionInterval.ofSuffix(suffix);
+
+      if (!interval.next(interval.parse(suffix)).atStartOfDay().isAfter(cutoff)) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+        logger.info("{} dropped by retention", partition);
+      }
+    }
+  }
+
+  void refreshRollups(String table, String rollupTable, String nameColumn, LocalDateTime from) {
+    if (!exists(table)) return;
+
+    try {
+      jdbcTemplate.execute(
+          "CREATE TABLE IF NOT EXISTS "
+              + rollupTable
+              + " (bucket TIMESTAMP NOT NULL, model VARCHAR(255) NOT NULL, name VARCHAR(255) NOT"
+              + " NULL, calls BIGINT NOT NULL, prompt_tokens BIGINT, total_tokens BIGINT,"
+              + " latency_sum BIGINT, latency_max BIGINT, latency_histogram BIGINT[] NOT NULL,"
+              + " PRIMARY KEY (bucket, model, name))");
+
+      // The latest bucket is recomputed as well, as it may have been rolled up while still open.
+      Timestamp last =
+          jdbcTemplate.queryForObject("SELECT MAX(bucket) FROM " + rollupTable, Timestamp.class);
+      LocalDateTime start = from;
+      if (Objects.isNull(last)) start = LocalDateTime.of(1970, 1, 1, 0, 0);
+      else if (last.toLocalDateTime().isBefore(from)) start = last.toLocalDateTime();
+
+      int rows =
+          jdbcTemplate.update(
+              "INSERT INTO "
+                  + rollupTable
+                  + " (bucket, model, name, calls, prompt_tokens, total_tokens, latency_sum,"
+                  + " latency_max, latency_histogram) SELECT date_trunc('hour', created_at),"
+                  + " model, "
+                  + nameColumn
+                  + ", COUNT(*), SUM(prompt_tokens), SUM(total_tokens), SUM(latency),"
+                  + " MAX(latency), "
+                  + latencyHistogramSql()
+                  + " FROM "
+                  + table
+                  + " WHERE created_at >= ? GROUP BY 1, 2, 3"
+                  + " ON CONFLICT (bucket, model, name) DO UPDATE SET calls = EXCLUDED.calls,"
+                  + " prompt_tokens = EXCLUDED.prompt_tokens,"
+                  + " total_tokens = EXCLUDED.total_tokens, latency_sum = EXCLUDED.latency_sum,"
+                  + " latency_max = EXCLUDED.latency_max,"
+                  + " latency_histogram = EXCLUDED.latency_histogram",
+              Timestamp.valueOf(start));
+
+      if (logger.isDebugEnabled()) logger.debug("{} rollups refreshed in {}", rows, rollupTable);
+    } catch (Exception e) {
+      logger.warn("Rollup of {} failed ~ {}", table, e.getMessage());
+    }
+  }
+
+  static String latencyHistogramSql() {
+    long[] bounds = LogRollup.LATENCY_BUCKET_BOUNDS_MILLIS;
+
+    StringJoiner buckets = new StringJoiner(", ", "ARRAY[", "]");
+    buckets.add("COUNT(*) FILTER (WHERE latency < " + bounds[0] + ")");
+    for (int i = 1; i < bounds.length; i++) {
+      buckets.add(
+          String.format(
+              "COUNT(*) FILTER (WHERE latency >= %d AND latency < %d)", bounds[i - 1], bounds[i]));
+    }
+    buckets.add("COUNT(*) FILTER (WHERE latency >= " + bounds[bounds.length - 1] + ")");
+    return buckets.toString();
+  }
+
+  private synchronized void schedule() {
+    if (Objects.nonNull(executor)) return;
+
+    long interval = env.getProperty("logger.maintenance.interval", Long.class, 3600L);
+
+    executor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "log-maintenance");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.scheduleWithFixedDelay(
+        () -> {
+          try {
+            this.maintain();
+          } catch (Exception e) {
+            logger.warn("Log maintenance failed ~ {}", e.getMessage());
+          }
+        },
+        0,
+        interval,
+        TimeUnit.SECONDS);
+  }
+
+  private PartitionInterval getPartitionInterval() {
+    return PartitionInterval.valueOf(
+        env.getProperty("logger.partition.interval", PartitionInterval.MONTH.name()));
+  }
+
+  private boolean exists(String table) {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+  }
+
+  private boolean isPartitioned(String table) {
+    return Boolean.TRUE.equals(
+        jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c"
+                + " ON c.oid = pt.partrelid WHERE c.relname = ?)",
+            Boolean.class,
+            table));
+  }
+
+  private LogRollup mapRollup(ResultSet rs, int rowNum) throws SQLException {
+    LogRollup rollup = new LogRollup();
+    rollup.setBucket(rs.getTimestamp("bucket").toLocalDateTime());
+    rollup.setModel(rs.getString("model"));
+    rollup.setName(rs.getString("name"));
+    rollup.setCalls(rs.getLong("calls"));
+    rollup.setPromptTokens(rs.getObject("prompt_tokens", Long.class));
+    rollup.setTotalTokens(rs.getObject("total_tokens", Long.class));
+    rollup.setLatencySum(rs.getObject("latency_sum", Long.class));
+    rollup.setLatencyMax(rs.getObject("latency_max", Long.class));
+
+    Array histogram = rs.getArray("latency_histogram");
+    rollup.setLatencyHistogram(Arrays.asList((Long[]) histogram.getArray()));
+    return rollup;
+  }
+}
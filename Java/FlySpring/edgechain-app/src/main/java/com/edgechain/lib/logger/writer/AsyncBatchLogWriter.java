@@ -0,0 +1,169 @@
+package com.edgechain.lib.logger.writer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+/**
+ * Moves log persistence off the response path. Records go into a bounded buffer that a single
+ * daemon thread drains, handing them to {@code sink} in batches once {@code batchSize} records are
+ * waiting or {@code flushIntervalMillis} has passed since the first one, whichever comes first.
+ * Records still buffered are written on {@link #close()}.
+ */
+public class AsyncBatchLogWriter<T> implements AutoCloseable {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private static final long POLL_MILLIS = 100;
+
+  private final String name;
+  private final BlockingQueue<T> buffer;
+  private final int batchSize;
+  private final long flushIntervalMillis;
+  private final LogOverflowPolicy overflowPolicy;
+  private final Consumer<List<T>> sink;
+
+  private final AtomicLong dropped = new AtomicLong();
+  private final Thread worker;
+
+  private volatile boolean running = true;
+
+  public AsyncBatchLogWriter(
+      String name,
+      int capacity,
+      int batchSize,
+      long flushIntervalMillis,
+      LogOverflowPolicy overflowPolicy,
+      Consumer<List<T>> sink) {
+    this.name = name;
+    this.buffer = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = batchSize;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.overflowPolicy = overflowPolicy;
+    this.sink = sink;
+
+    this.worker = new Thread(this::drain, name + "-writer");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Reads {@code logger.buffer.capacity} (default 10000), {@code logger.buffer.batch-size}
+   * (default 200), {@code logger.buffer.flush-interval} in millis (default 1000) and {@code
+   * logger.buffer.overflow} (default DROP).
+   */
+  public static <T> AsyncBatchLogWriter<T> fromEnvironment(
+      String name, Environment env, Consumer<List<T>> sink) {
+    return new AsyncBatchLogWriter<>(
+        name,
+        env.getProperty("logger.buffer.capacity", Integer.class, 10000),
+        env.getProperty("logger.buffer.batch-size", Integer.class, 200),
+        env.getProperty("logger.buffer.flush-interval", Long.class, 1000L),
+        LogOverflowPolicy.valueOf(
+            env.getProperty("logger.buffer.overflow", LogOverflowPolicy.DROP.name())),
+        sink);
+  }
+
+  /**
+   * Queues a record for writing.
+   *
+   * @return false if the record was dropped because the buffer is full or the writer is closed
+   */
+  public boolean write(T record) {
+    if (!running) return false;
+
+    if (overflowPolicy == LogOverflowPolicy.BLOCK) {
+      try {
+        buffer.put(record);
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    if (buffer.offer(record)) return true;
+
+    long count = dropped.incrementAndGet();
+    // Powers of two keep the warning visible without flooding the log under sustained overload.
+    if (Long.bitCount(count) == 1) {
+      logger.warn("{} buffer is full; {} records dropped so far", name, count);
+    }
+    return false;
+  }
+
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  public int getPending() {
+    return buffer.size();
+  }
+
+  /** Stops accepting records and waits for buffered ones to be written. */
+  @Override
+  public void close() {
+    running = false;
+    try {
+      worker.join(TimeUnit.SECONDS.toMillis(30));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!buffer.isEmpty()) {
+      logger.warn("{} closed with {} records unwritten", name, buffer.size());
+    }
+  }
+
+  private void drain() {
+    List<T> batch = new ArrayList<>(batchSize);
+    while (running || !buffer.isEmpty()) {
+      try {
+        T first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (Objects.isNull(first)) continue;
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < batchSize && running) {
+          if (buffer.drainTo(batch, batchSize - batch.size()) > 0) continue;
+
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) break;
+
+          // Short polls so that close() is noticed even with a long flush interval.
+          T next =
+              buffer.poll(
+                  Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)),
+                  TimeUnit.NANOSECONDS);
+          if (Objects.nonNull(next)) batch.add(next);
+        }
+        buffer.drainTo(batch, batchSize - batch.size());
+
+        flush(batch);
+      } catch (InterruptedException e) {
+        running = false;
+        flush(batch);
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void flush(List<T> batch) {
+    if (batch.isEmpty()) return;
+
+    try {
+      sink.accept(batch);
+    } catch (Exception e) {
+      logger.error("{} failed to write {} records ~ {}", name, batch.size(), e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.edgechain.lib.logger.writer;
+
+/** What {@link AsyncBatchLogWriter} does with a record when its buffer is full. */
+public enum LogOverflowPolicy {
+  /** Discard the record; the response path never waits on the database. */
+  DROP,
+  /** Wait for space in the buffer; no record is lost, at the cost of back-pressure. */
+  BLOCK
+}
@@ -0,0 +1,190 @@
+package com.edgechain.lib.openai.cache;
+
+import com.edgechain.lib.openai.request.ChatCompletionRequest;
+import com.edgechain.lib.openai.request.ChatMessage;
+import com.edgechain.lib.openai.response.ChatCompletionResponse;
+import com.edgechain.lib.utils.HashUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.JedisPooled;
+
+/**
+ * Exact-match cache of chat completions for deterministic requests (temperature 0, one choice).
+ * Entries are keyed by a hash of the canonical request, i.e. the model, messages and sampling
+ * parameters; {@code stream} and {@code user} do not change the answer and are left out.
+ *
+ * <ul>
+ *   <li>{@code completion.cache.size}: in-process LRU entries (default 0, disabled)
+ *   <li>{@code completion.cache.ttl}: seconds an entry is served (default 3600)
+ *   <li>{@code completion.cache.redis}: also share entries through Redis (default false)
+ * </ul>
+ *
+ * Cached responses are marked with {@link ChatCompletionResponse#getCached()}.
+ */
+@Service
+public class ChatCompletionCache {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private static final String PREFIX = "completioncache:";
+
+  private static final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+          .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  @Autowired @Lazy private Environment env;
+
+  @Autowired @Lazy private JedisPooled jedisPooled;
+
+  private volatile Map<String, CacheEntry> cache;
+  private volatile int maxSize = -1;
+  private volatile long ttlSeconds;
+  private volatile boolean redis;
+
+  private record CacheEntry(ChatCompletionResponse response, long expiresAt) {}
+
+  /** Only deterministic requests have a single correct answer worth caching. */
+  public static boolean isCacheable(ChatCompletionRequest request) {
+    return Objects.nonNull(request.getTemperature())
+        && request.getTemperature() == 0
+        && (Objects.isNull(request.getN()) || request.getN() == 1);
+  }
+
+  public static String key(ChatCompletionRequest request) {
+    return PREFIX + HashUtils.sha256(canonicalJson(request, request.getMessages()));
+  }
+
+  /** The model, sampling parameters and {@code messages} as JSON with a fixed field order. */
+  static String canonicalJson(ChatCompletionRequest request, List<ChatMessage> messages) {
+    List<Map<String, String>> canonicalMessages = new ArrayList<>();
+    for (ChatMessage message : messages) {
+      Map<String, String> m = new LinkedHashMap<>();
+      m.put("role", message.getRole());
+      m.put("content", message.getContent());
+      canonicalMessages.add(m);
+    }
+
+    Map<String, Object> canonical = new LinkedHashMap<>();
+    canonical.put("model", request.getModel());
+    canonical.put("messages", canonicalMessages);
+    canonical.put("temperature", request.getTemperature());
+    canonical.put("top_p", request.getTopP());
+    canonical.put("stop", request.getStop());
+    canonical.put("presence_penalty", request.getPresencePenalty());
+    canonical.put("frequency_penalty", request.getFrequencyPenalty());
+    canonical.put("logit_bias", request.getLogitBias());
+
+    try {
+      return objectMapper.writeValueAsString(canonical);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * A copy of {@code response} marked as cached, so the response returned for the miss is left
+   * untouched.
+   */
+  static ChatCompletionResponse cachedCopy(ChatCompletionResponse response) throws IOException {
+    ChatCompletionResponse cached =
+        objectMapper.readValue(
+            objectMapper.writeValueAsBytes(response), ChatCompletionResponse.class);
+    cached.setCached(true);
+    return cached;
+  }
+
+  public boolean isEnabled() {
+    return getMaxSize() > 0;
+  }
+
+  /** The cached response for {@code key}, or {@code null}. */
+  public ChatCompletionResponse get(String key) {
+    if (!isEnabled()) return null;
+
+    synchronized (cache) {
+      CacheEntry entry = cache.get(key);
+      if (Objects.nonNull(entry)) {
+        if (System.nanoTime() - entry.expiresAt() < 0) return entry.response();
+        cache.remove(key);
+      }
+    }
+
+    if (!redis) return null;
+
+    try {
+      byte[] value = jedisPooled.get(key.getBytes(StandardCharsets.UTF_8));
+      if (Objects.isNull(value)) return null;
+
+      ChatCompletionResponse response = objectMapper.readValue(value, ChatCompletionResponse.class);
+      store(key, response);
+      return response;
+    } catch (Exception e) {
+      logger.warn("Completion cache lookup of {} failed ~ {}", key, e.getMessage());
+      return null;
+    }
+  }
+
+  public void put(String key, ChatCompletionResponse response) {
+    if (!isEnabled()) return;
+
+    try {
+      ChatCompletionResponse cached = cachedCopy(response);
+      store(key, cached);
+
+      if (redis) {
+        jedisPooled.setex(
+            key.getBytes(StandardCharsets.UTF_8),
+            ttlSeconds,
+            objectMapper.writeValueAsBytes(cached));
+      }
+    } catch (Exception e) {
+      logger.warn("Completion cache write of {} failed ~ {}", key, e.getMessage());
+    }
+  }
+
+  private void store(String key, ChatCompletionResponse response) {
+    synchronized (cache) {
+      cache.put(
+          key,
+          new CacheEntry(response, System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+    }
+  }
+
+  private int getMaxSize() {
+    if (maxSize < 0) {
+      synchronized (this) {
+        if (maxSize < 0) {
+          int capacity = env.getProperty("completion.cache.size", Integer.class, 0);
+          ttlSeconds = env.getProperty("completion.cache.ttl", Long.class, 3600L);
+          redis = env.getProperty("completion.cache.redis", Boolean.class, false);
+          cache =
+              new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                  return size() > capacity;
+                }
+              };
+          maxSize = capacity;
+        }
+      }
+    }
+    return maxSize;
+  }
+}
@@ -0,0 +1,197 @@
+package com.edgechain.lib.openai.cache;
+
+import com.edgechain.lib.embeddings.bgeSmall.BgeSmallClient;
+import com.edgechain.lib.embeddings.miniLLM.MiniLMClient;
+import com.edgechain.lib.embeddings.miniLLM.enums.MiniLMModel;
+import com.edgechain.lib.endpoint.impl.embeddings.BgeSmallEndpoint;
+import com.edgechain.lib.endpoint.impl.embeddings.MiniLMEndpoint;
+import com.edgechain.lib.openai.request.ChatCompletionRequest;
+import com.edgechain.lib.openai.request.ChatMessage;
+import com.edgechain.lib.openai.response.ChatCompletionResponse;
+import com.edgechain.lib.utils.FloatUtils;
+import com.edgechain.lib.utils.HashUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers chat completions whose final user message is close in meaning to a recent one. The final
+ * user message is embedded with a local model and compared against the recent prompts of the same
+ * namespace: the chain name together with the model, sampling parameters and every earlier
+ * message, so an answer is only reused for the same conversation context.
+ *
+ * <ul>
+ *   <li>{@code semantic.cache.size}: prompts kept per namespace (default 0, disabled)
+ *   <li>{@code semantic.cache.threshold}: minimum cosine similarity of a hit (default 0.95)
+ *   <li>{@code semantic.cache.ttl}: seconds an answer is served (default 3600)
+ *   <li>{@code semantic.cache.max-namespaces}: least recently used namespaces beyond this are
+ *       dropped (default 1000)
+ *   <li>{@code semantic.cache.model}: a {@link MiniLMModel} name or {@code BGE_SMALL} (default
+ *       {@code ALL_MINILM_L6_V2})
+ *   <li>{@code semantic.cache.sampled}: also cache answers sampled with a temperature above 0,
+ *       replaying one sample for every similar prompt (default false)
+ * </ul>
+ */
+@Service
+public class SemanticCache {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  @Autowired @Lazy private Environment env;
+
+  @Autowired @Lazy private MiniLMClient miniLMClient;
+
+  @Autowired @Lazy private BgeSmallClient bgeSmallClient;
+
+  private volatile Map<String, SemanticIndex> namespaces;
+  private volatile Function<String, float[]> embedder;
+  private volatile int size = -1;
+  private volatile double threshold;
+  private volatile long ttlSeconds;
+
+  /**
+   * @param match the cached answer, or {@code null} on a miss
+   */
+  public record Lookup(String namespace, float[] vector, SemanticIndex.Match match) {}
+
+  public boolean isEnabled() {
+    return getSize() > 0;
+  }
+
+  /** Returns {@code null} when the request cannot be served semantically. */
+  public Lookup lookup(String chainName, ChatCompletionRequest request) {
+    if (!isEnabled() || !isCacheable(request)) return null;
+
+    try {
+      String namespace = namespace(chainName, request);
+      float[] vector = getEmbedder().apply(lastMessage(request).getContent());
+
+      SemanticIndex index;
+      synchronized (namespaces) {
+        index = namespaces.get(namespace);
+      }
+
+      SemanticIndex.Match match =
+          Objects.nonNull(index) ? index.search(vector, threshold) : null;
+      return new Lookup(namespace, vector, match);
+
+    } catch (Exception e) {
+      logger.warn("Semantic cache lookup failed ~ {}", e.getMessage());
+      return null;
+    }
+  }
+
+  public void put(Lookup lookup, ChatCompletionResponse response) {
+    if (!isEnabled() || Objects.isNull(lookup)) return;
+
+    ChatCompletionResponse cached;
+    try {
+      cached = ChatCompletionCache.cachedCopy(response);
+    } catch (Exception e) {
+      logger.warn("Semantic cache write failed ~ {}", e.getMessage());
+      return;
+    }
+
+    SemanticIndex index;
+    synchronized (namespaces) {
+      index =
+          namespaces.computeIfAbsent(lookup.namespace(), k -> new SemanticIndex(size, ttlSeconds));
+    }
+    index.put(lookup.vector(), cached);
+  }
+
+  public List<SemanticCacheStats> getStats() {
+    if (!isEnabled()) return List.of();
+
+    List<SemanticCacheStats> stats = new ArrayList<>();
+    synchronized (namespaces) {
+      namespaces.forEach(
+          (namespace, index) ->
+              stats.add(
+                  new SemanticCacheStats(
+                      namespace, index.size(), index.getLookups(), index.getHits())));
+    }
+    return stats;
+  }
+
+  // Like the exact cache, only deterministic (temperature 0) answers are replayed unless sampled
+  // ones are explicitly allowed.
+  private boolean isCacheable(ChatCompletionRequest request) {
+    if (Objects.isNull(request.getMessages()) || request.getMessages().isEmpty()) return false;
+    if (Objects.nonNull(request.getN()) && request.getN() != 1) return false;
+    if (!ChatCompletionCache.isCacheable(request)
+        && !env.getProperty("semantic.cache.sampled", Boolean.class, false)) return false;
+
+    ChatMessage last = lastMessage(request);
+    return "user".equals(last.getRole())
+        && Objects.nonNull(last.getContent())
+        && !last.getContent().isBlank();
+  }
+
+  private static ChatMessage lastMessage(ChatCompletionRequest request) {
+    return request.getMessages().get(request.getMessages().size() - 1);
+  }
+
+  private static String namespace(String chainName, ChatCompletionRequest request) {
+    List<ChatMessage> context =
+        request.getMessages().subList(0, request.getMessages().size() - 1);
+    return (Objects.nonNull(chainName) ? chainName : "default")
+        + ":"
+        + HashUtils.contentHash(ChatCompletionCache.canonicalJson(request, context));
+  }
+
+  private Function<String, float[]> getEmbedder() {
+    if (Objects.isNull(embedder)) {
+      synchronized (this) {
+        if (Objects.isNull(embedder)) {
+          String model = env.getProperty("semantic.cache.model", "ALL_MINILM_L6_V2");
+
+          if ("BGE_SMALL".equals(model)) {
+            BgeSmallEndpoint endpoint = new BgeSmallEndpoint();
+            embedder =
+                text ->
+                    FloatUtils.toFloatArray(
+                        bgeSmallClient.createEmbeddings(text, endpoint).get().getEmbedding());
+          } else {
+            MiniLMEndpoint endpoint = new MiniLMEndpoint(MiniLMModel.valueOf(model));
+            embedder =
+                text ->
+                    FloatUtils.toFloatArray(
+                        miniLMClient.createEmbeddings(text, endpoint).get().getEmbedding());
+          }
+        }
+      }
+    }
+    return embedder;
+  }
+
+  private int getSize() {
+    if (size < 0) {
+      synchronized (this) {
+        if (size < 0) {
+          threshold = env.getProperty("semantic.cache.threshold", Double.class, 0.95);
+          ttlSeconds = env.getProperty("semantic.cache.ttl", Long.class, 3600L);
+          int maxNamespaces = env.getProperty("semantic.cache.max-namespaces", Integer.class, 1000);
+          namespaces =
+              new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SemanticIndex> eldest) {
+                  return size() > maxNamespaces;
+                }
+              };
+          size = env.getProperty("semantic.cache.size", Integer.class, 0);
+        }
+      }
+    }
+    return size;
+  }
+}
@@ -0,0 +1,60 @@
+package com.edgechain.lib.openai.cache;
+
+public class SemanticCacheStats {
+
+  private String namespace;
+  private int entries;
+  private long lookups;
+  private long hits;
+  private double hitRate;
+
+  public SemanticCacheStats() {}
+
+  public SemanticCacheStats(String namespace, int entries, long lookups, long hits) {
+    this.namespace = namespace;
+    this.entries = entries;
+    this.lookups = lookups;
+    this.hits = hits;
+    this.hitRate = lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  public String getNamespace() {
+    return namespace;
+  }
+
+  public void setNamespace(String namespace) {
+    this.namespace = namespace;
+  }
+
+  public int getEntries() {
+    return entries;
+  }
+
+  public void setEntries(int entries) {
+    this.entries = entries;
+  }
+
+  public long getLookups() {
+    return lookups;
+  }
+
+  public void setLookups(long lookups) {
+    this.lookups = lookups;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public void setHits(long hits) {
+    this.hits = hits;
+  }
+
+  public double getHitRate() {
+    return hitRate;
+  }
+
+  public void setHitRate(double hitRate) {
+    this.hitRate = hitRate;
+  }
+}
@@ -0,0 +1,109 @@
+package com.edgechain.lib.openai.cache;
+
+import com.edgechain.lib.openai.response.ChatCompletionResponse;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded set of prompt embeddings and their answers for one namespace. Vectors are normalized on
+ * the way in, so similarity is a plain dot product over a brute-force scan; with a few thousand
+ * entries of a few hundred dimensions that is well under a millisecond. When full, the oldest
+ * entry is overwritten; expired entries are skipped by searches.
+ */
+public class SemanticIndex {
+
+  private final float[][] vectors;
+  private final ChatCompletionResponse[] responses;
+  private final long[] expiresAt;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+
+  private int next;
+  private int size;
+
+  private final AtomicLong lookups = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+
+  public record Match(ChatCompletionResponse response, double similarity) {}
+
+  public SemanticIndex(int capacity, long ttlSeconds) {
+    this(capacity, ttlSeconds, System::nanoTime);
+  }
+
+  SemanticIndex(int capacity, long ttlSeconds, LongSupplier clock) {
+    this.vectors = new float[capacity][];
+    this.responses = new ChatCompletionResponse[capacity];
+    this.expiresAt = new long[capacity];
+    this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    this.clock = clock;
+  }
+
+  /** The most similar live entry at or above {@code threshold}, or {@code null}. */
+  public Match search(float[] vector, double threshold) {
+    float[] query = normalize(vector);
+    long now = clock.getAsLong();
+
+    int best = -1;
+    double bestSimilarity = threshold;
+
+    synchronized (this) {
+      for (int i = 0; i < size; i++) {
+        if (now - expiresAt[i] > 0 || vectors[i].length != query.length) continue;
+
+        double similarity = dot(vectors[i], query);
+        if (similarity >= bestSimilarity) {
+          best = i;
+          bestSimilarity = similarity;
+        }
+      }
+
+      lookups.incrementAndGet();
+      if (best < 0) return null;
+
+      hits.incrementAndGet();
+      return new Match(responses[best], bestSimilarity);
+    }
+  }
+
+  public synchronized void put(float[] vector, ChatCompletionResponse response) {
+    vectors[next] = normalize(vector);
+    responses[next] = response;
+    expiresAt[next] = clock.getAsLong() + ttlNanos;
+
+    next = (next + 1) % vectors.length;
+    size = Math.min(size + 1, vectors.length);
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public long getLookups() {
+    return lookups.get();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  static float[] normalize(float[] vector) {
+    Objects.requireNonNull(vector);
+
+    double norm = 0;
+    for (float v : vector) norm += v * v;
+    norm = Math.sqrt(norm);
+
+    float[] normalized = new float[vector.length];
+    if (norm == 0) return normalized;
+    for (int i = 0; i < vector.length; i++) normalized[i] = (float) (vector[i] / norm);
+    return normalized;
+  }
+
+  private static double dot(float[] a, float[] b) {
+    double sum = 0;
+    for (int i = 0; i < a.length; i++) sum += a[i] * b[i];
+    return sum;
+  }
+}
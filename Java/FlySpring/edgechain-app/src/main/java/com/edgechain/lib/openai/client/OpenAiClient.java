@@ -5,150 +5,194 @@ import com.edgechain.lib.embeddings.request.OpenAiEmbeddingRequest;
 import com.edgechain.lib.embeddings.response.OpenAiEmbeddingResponse;
 import com.edgechain.lib.endpoint.impl.embeddings.OpenAiEmbeddingEndpoint;
 import com.edgechain.lib.endpoint.impl.llm.OpenAiChatEndpoint;
+import com.edgechain.lib.openai.parser.ChatCompletionDeltaParser;
+import com.edgechain.lib.openai.pool.OpenAiEndpointPool;
+import com.edgechain.lib.openai.pool.OpenAiPoolMember;
+import com.edgechain.lib.openai.ratelimit.OpenAiRateLimiter;
 import com.edgechain.lib.openai.request.ChatCompletionRequest;
 import com.edgechain.lib.openai.request.CompletionRequest;
+import com.edgechain.lib.openai.response.ChatCompletionDelta;
 import com.edgechain.lib.openai.response.ChatCompletionResponse;
 import com.edgechain.lib.openai.response.CompletionResponse;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.edgechain.lib.utils.TokenUtils;
 import io.reactivex.rxjava3.core.Observable;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.adapter.rxjava.RxJava3Adapter;
-
-import java.util.Objects;
-
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Calls the OpenAI API through the shared {@code openAiWebClient} (see {@link
+ * com.edgechain.lib.configuration.OpenAiHttpConfiguration}). Requests are non-blocking: no thread
+ * is held while waiting for the model, and each subscription (including a retry) sends a new
+ * request. Calls are spread over the endpoint's pool, if any, by {@link OpenAiEndpointPool} and
+ * throttled per model and API key by {@link OpenAiRateLimiter}.
+ */
 @Service
 public class OpenAiClient {
 
   private final Logger logger = LoggerFactory.getLogger(getClass());
-  private final RestTemplate restTemplate = new RestTemplate();
+
+  @Autowired
+  @Qualifier("openAiWebClient")
+  private WebClient webClient;
+
+  @Autowired private OpenAiRateLimiter rateLimiter;
+  @Autowired private OpenAiEndpointPool endpointPool;
 
   public EdgeChain<ChatCompletionResponse> createChatCompletion(
       ChatCompletionRequest request, OpenAiChatEndpoint endpoint) {
 
     return new EdgeChain<>(
-        Observable.create(
-            emitter -> {
-              try {
-
-                logger.info("Logging ChatCompletion....");
-
-                // Create headers
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.setBearerAuth(endpoint.getApiKey());
-
-                if (Objects.nonNull(endpoint.getOrgId()) && !endpoint.getOrgId().isEmpty()) {
-                  headers.set("OpenAI-Organization", endpoint.getOrgId());
-                }
-                HttpEntity<ChatCompletionRequest> entity = new HttpEntity<>(request, headers);
-
-                logger.info(String.valueOf(entity.getBody()));
+        this.call(
+                endpoint.getPool(),
+                new OpenAiPoolMember(endpoint.getUrl(), endpoint.getApiKey(), endpoint.getOrgId()),
+                request.getModel(),
+                () -> TokenUtils.countPromptTokens(request.getModel(), request.getMessages()),
+                request,
+                ChatCompletionResponse.class)
+            .doOnSubscribe(
+                s -> {
+                  logger.info("Logging ChatCompletion....");
+                  logger.info(String.valueOf(request));
+                })
+            .as(OpenAiClient::toObservable),
+        endpoint);
+  }
 
-                // Send the POST request
-                ResponseEntity<ChatCompletionResponse> response =
-                    restTemplate.exchange(
-                        endpoint.getUrl(), HttpMethod.POST, entity, ChatCompletionResponse.class);
+  public EdgeChain<ChatCompletionResponse> createChatCompletionStream(
+      ChatCompletionRequest request, OpenAiChatEndpoint endpoint) {
 
-                emitter.onNext(Objects.requireNonNull(response.getBody()));
-                emitter.onComplete();
+    logger.info("Logging ChatCompletion Stream....");
+    logger.info(request.toString());
 
-              } catch (final Exception e) {
-                emitter.onError(e);
-              }
-            }),
+    return new EdgeChain<>(
+        RxJava3Adapter.fluxToObservable(
+            this.stream(request, endpoint, ChatCompletionResponse.class)),
         endpoint);
   }
 
-  public EdgeChain<ChatCompletionResponse> createChatCompletionStream(
+  /**
+   * Same request as {@link #createChatCompletionStream}, but each chunk is reduced to its delta
+   * text and finish reason by {@link ChatCompletionDeltaParser}.
+   */
+  public EdgeChain<ChatCompletionDelta> createChatCompletionDeltaStream(
       ChatCompletionRequest request, OpenAiChatEndpoint endpoint) {
 
-    try {
-      logger.info("Logging ChatCompletion Stream....");
-      logger.info(request.toString());
-
-      return new EdgeChain<>(
-          RxJava3Adapter.fluxToObservable(
-              WebClient.builder()
-                  .build()
-                  .post()
-                  .uri(EndpointConstants.OPENAI_CHAT_COMPLETION_API)
-                  .accept(MediaType.TEXT_EVENT_STREAM)
-                  .headers(
-                      httpHeaders -> {
-                        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-                        httpHeaders.setBearerAuth(endpoint.getApiKey());
-                        if (Objects.nonNull(endpoint.getOrgId())
-                            && !endpoint.getOrgId().isEmpty()) {
-                          httpHeaders.set("OpenAI-Organization", endpoint.getOrgId());
-                        }
-                      })
-                  .bodyValue(new ObjectMapper().writeValueAsString(request))
-                  .retrieve()
-                  .bodyToFlux(ChatCompletionResponse.class)),
-          endpoint);
-    } catch (final Exception e) {
-      throw new RuntimeException(e);
-    }
+    logger.info("Logging ChatCompletion Delta Stream....");
+    logger.info(request.toString());
+
+    return new EdgeChain<>(
+        RxJava3Adapter.fluxToObservable(
+            this.stream(request, endpoint, String.class)
+                .mapNotNull(ChatCompletionDeltaParser::parse)),
+        endpoint);
   }
 
   public EdgeChain<CompletionResponse> createCompletion(
       CompletionRequest request, OpenAiChatEndpoint endpoint) {
     return new EdgeChain<>(
-        Observable.create(
-            emitter -> {
-              try {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.setBearerAuth(endpoint.getApiKey());
-                if (Objects.nonNull(endpoint.getOrgId()) && !endpoint.getOrgId().isEmpty()) {
-                  headers.set("OpenAI-Organization", endpoint.getOrgId());
-                }
-                HttpEntity<CompletionRequest> entity = new HttpEntity<>(request, headers);
-
-                ResponseEntity<CompletionResponse> response =
-                    this.restTemplate.exchange(
-                        endpoint.getUrl(), HttpMethod.POST, entity, CompletionResponse.class);
-                emitter.onNext(Objects.requireNonNull(response.getBody()));
-                emitter.onComplete();
-
-              } catch (final Exception e) {
-                emitter.onError(e);
-              }
-            }),
+        this.call(
+                endpoint.getPool(),
+                new OpenAiPoolMember(endpoint.getUrl(), endpoint.getApiKey(), endpoint.getOrgId()),
+                request.getModel(),
+                () -> TokenUtils.countTokens(request.getModel(), request.getPrompt()),
+                request,
+                CompletionResponse.class)
+            .as(OpenAiClient::toObservable),
         endpoint);
   }
 
   public EdgeChain<OpenAiEmbeddingResponse> createEmbeddings(
       OpenAiEmbeddingRequest request, OpenAiEmbeddingEndpoint endpoint) {
     return new EdgeChain<>(
-        Observable.create(
-            emitter -> {
-              try {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                headers.setBearerAuth(endpoint.getApiKey());
-                if (Objects.nonNull(endpoint.getOrgId()) && !endpoint.getOrgId().isEmpty()) {
-                  headers.set("OpenAI-Organization", endpoint.getOrgId());
-                }
-                HttpEntity<OpenAiEmbeddingRequest> entity = new HttpEntity<>(request, headers);
-
-                ResponseEntity<OpenAiEmbeddingResponse> response =
-                    this.restTemplate.exchange(
-                        endpoint.getUrl(), HttpMethod.POST, entity, OpenAiEmbeddingResponse.class);
-
-                emitter.onNext(Objects.requireNonNull(response.getBody()));
-                emitter.onComplete();
-
-              } catch (final Exception e) {
-                emitter.onError(e);
-              }
-            }),
+        this.call(
+                endpoint.getPool(),
+                new OpenAiPoolMember(endpoint.getUrl(), endpoint.getApiKey(), endpoint.getOrgId()),
+                request.getModel(),
+                () -> TokenUtils.countTokens(request.getModel(), request.getInput()),
+                request,
+                OpenAiEmbeddingResponse.class)
+            .as(OpenAiClient::toObservable),
         endpoint);
   }
+
+  /** Sends {@code body} to a member of {@code pool} (or {@code fallback}) under its rate limit. */
+  private <T> Mono<T> call(
+      List<OpenAiPoolMember> pool,
+      OpenAiPoolMember fallback,
+      String model,
+      LongSupplier estimatedTokens,
+      Object body,
+      Class<T> type) {
+    return endpointPool.route(
+        pool,
+        fallback,
+        member ->
+            rateLimiter.limit(
+                model,
+                member.getApiKey(),
+                estimatedTokens,
+                this.post(member.getUrl(), body, member.getApiKey(), member.getOrgId())
+                    .toEntity(type)));
+  }
+
+  // Without a pool, streams always go to the OpenAI API regardless of the endpoint url.
+  private <T> Flux<T> stream(
+      ChatCompletionRequest request, OpenAiChatEndpoint endpoint, Class<T> type) {
+    return endpointPool.routeMany(
+        endpoint.getPool(),
+        new OpenAiPoolMember(
+            EndpointConstants.OPENAI_CHAT_COMPLETION_API,
+            endpoint.getApiKey(),
+            endpoint.getOrgId()),
+        member ->
+            rateLimiter.limitMany(
+                request.getModel(),
+                member.getApiKey(),
+                () -> TokenUtils.countPromptTokens(request.getModel(), request.getMessages()),
+                this.post(
+                        member.getUrl(),
+                        request,
+                        member.getApiKey(),
+                        member.getOrgId(),
+                        MediaType.TEXT_EVENT_STREAM)
+                    .toEntityFlux(type)));
+  }
+
+  private WebClient.ResponseSpec post(String url, Object body, String apiKey, String orgId) {
+    return this.post(url, body, apiKey, orgId, MediaType.APPLICATION_JSON);
+  }
+
+  private WebClient.ResponseSpec post(
+      String url, Object body, String apiKey, String orgId, MediaType accept) {
+    return webClient
+        .post()
+        .uri(url)
+        .accept(accept)
+        .headers(
+            headers -> {
+              headers.setContentType(MediaType.APPLICATION_JSON);
+              headers.setBearerAuth(apiKey);
+              if (Objects.nonNull(orgId) && !orgId.isEmpty()) {
+                headers.set("OpenAI-Organization", orgId);
+              }
+            })
+        .bodyValue(body)
+        .retrieve();
+  }
+
+  private static <T> Observable<T> toObservable(Mono<T> mono) {
+    return RxJava3Adapter.monoToSingle(mono).toObservable();
+  }
 }
@@ -0,0 +1,76 @@
+package com.edgechain.lib.openai.parser;
+
+import com.edgechain.lib.openai.response.ChatCompletionDelta;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads {@code choices[0].delta.content} and {@code choices[0].finish_reason} out of an OpenAI
+ * chat completion chunk with a streaming parser, skipping everything else instead of binding the
+ * chunk to a {@link com.edgechain.lib.openai.response.ChatCompletionResponse}.
+ */
+public class ChatCompletionDeltaParser {
+
+  private static final String DONE = "[DONE]";
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private ChatCompletionDeltaParser() {}
+
+  /** Returns {@code null} for the {@code [DONE]} sentinel. */
+  public static ChatCompletionDelta parse(String data) {
+    if (DONE.equals(data.trim())) return null;
+
+    try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IllegalArgumentException("Chat completion chunk is not a JSON object: " + data);
+      }
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+
+        if ("choices".equals(field) && value == JsonToken.START_ARRAY) {
+          return parser.nextToken() == JsonToken.START_OBJECT
+              ? readChoice(parser)
+              : new ChatCompletionDelta();
+        }
+        parser.skipChildren();
+      }
+      return new ChatCompletionDelta();
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static ChatCompletionDelta readChoice(JsonParser parser) throws IOException {
+    ChatCompletionDelta delta = new ChatCompletionDelta();
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+
+      if ("finish_reason".equals(field)) {
+        delta.setFinishReason(value == JsonToken.VALUE_NULL ? null : parser.getText());
+      } else if (("delta".equals(field) || "message".equals(field))
+          && value == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String deltaField = parser.currentName();
+          JsonToken deltaValue = parser.nextToken();
+          if ("content".equals(deltaField) && deltaValue == JsonToken.VALUE_STRING) {
+            delta.setContent(parser.getText());
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return delta;
+  }
+}
@@ -0,0 +1,221 @@
+package com.edgechain.lib.openai.pool;
+
+import com.edgechain.lib.utils.HashUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spreads OpenAI calls over the {@link OpenAiPoolMember}s of an endpoint, so throughput is not
+ * capped by a single key's rate limits.
+ *
+ * <p>Each call picks the better of two random healthy members, scoring them by {@code (outstanding
+ * requests + 1) * latency}, where latency is a moving average of the time to the first response
+ * byte. Members without samples count as 1 ms, so they are tried early. A member that fails {@code
+ * openai.pool.failure-threshold} (default 3) times in a row, counting 429s, 5xx and connection
+ * errors, is ejected for {@code openai.pool.ejection-seconds} (default 30). If every member is
+ * ejected, the one returning soonest is used.
+ */
+@Service
+public class OpenAiEndpointPool {
+
+  private static final double LATENCY_WEIGHT = 0.2;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  @Autowired @Lazy private Environment env;
+
+  private final Map<String, MemberStats> stats = new ConcurrentHashMap<>();
+
+  /**
+   * Runs {@code call} against a member of {@code pool}, or against {@code fallback} when the pool
+   * is empty.
+   */
+  public <T> Mono<T> route(
+      List<OpenAiPoolMember> pool,
+      OpenAiPoolMember fallback,
+      Function<OpenAiPoolMember, Mono<T>> call) {
+    if (Objects.isNull(pool) || pool.isEmpty()) return call.apply(fallback);
+
+    return Mono.usingWhen(
+        Mono.fromSupplier(() -> acquire(pool)),
+        lease -> call.apply(lease.getMember()),
+        lease -> Mono.fromRunnable(lease::onSuccess),
+        (lease, e) -> Mono.fromRunnable(() -> lease.onError(e)),
+        lease -> Mono.fromRunnable(lease::onCancel));
+  }
+
+  /** Same as {@link #route}, for a streamed response; latency is measured to the first element. */
+  public <T> Flux<T> routeMany(
+      List<OpenAiPoolMember> pool,
+      OpenAiPoolMember fallback,
+      Function<OpenAiPoolMember, Flux<T>> call) {
+    if (Objects.isNull(pool) || pool.isEmpty()) return call.apply(fallback);
+
+    return Flux.usingWhen(
+        Mono.fromSupplier(() -> acquire(pool)),
+        lease -> call.apply(lease.getMember()).doOnNext(t -> lease.recordLatency()),
+        lease -> Mono.fromRunnable(lease::onSuccess),
+        (lease, e) -> Mono.fromRunnable(() -> lease.onError(e)),
+        lease -> Mono.fromRunnable(lease::onCancel));
+  }
+
+  /** Picks a member and counts it as outstanding until the lease is released. */
+  public Lease acquire(List<OpenAiPoolMember> pool) {
+    long now = System.nanoTime();
+
+    List<MemberStats> healthy = new ArrayList<>(pool.size());
+    MemberStats soonest = null;
+    for (OpenAiPoolMember member : pool) {
+      MemberStats s = stats.computeIfAbsent(key(member), k -> new MemberStats(member));
+      if (s.isHealthy(now)) healthy.add(s);
+      else if (Objects.isNull(soonest) || s.ejectedUntil - soonest.ejectedUntil < 0) soonest = s;
+    }
+
+    MemberStats chosen;
+    if (healthy.isEmpty()) {
+      chosen = soonest;
+    } else if (healthy.size() == 1) {
+      chosen = healthy.get(0);
+    } else {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int i = random.nextInt(healthy.size());
+      int j = random.nextInt(healthy.size() - 1);
+      if (j >= i) j++;
+
+      MemberStats a = healthy.get(i);
+      MemberStats b = healthy.get(j);
+      chosen = a.score() <= b.score() ? a : b;
+    }
+
+    synchronized (chosen) {
+      chosen.outstanding++;
+    }
+    return new Lease(chosen, now);
+  }
+
+  private static String key(OpenAiPoolMember member) {
+    return member.getUrl()
+        + "|"
+        + HashUtils.sha256(String.valueOf(member.getApiKey()))
+        + "|"
+        + member.getOrgId();
+  }
+
+  // 429s, 5xx and transport errors say something about the member; other 4xx are the caller's.
+  private static boolean isMemberFailure(Throwable error) {
+    if (error instanceof WebClientResponseException e) {
+      int status = e.getStatusCode().value();
+      return status == 429 || status >= 500;
+    }
+    return true;
+  }
+
+  /** A member picked for one call; exactly one of the release callbacks takes effect. */
+  public final class Lease {
+
+    private final MemberStats stats;
+    private final long startedAt;
+    private final AtomicBoolean latencyRecorded = new AtomicBoolean();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Lease(MemberStats stats, long startedAt) {
+      this.stats = stats;
+      this.startedAt = startedAt;
+    }
+
+    public OpenAiPoolMember getMember() {
+      return stats.member;
+    }
+
+    public void recordLatency() {
+      if (!latencyRecorded.compareAndSet(false, true)) return;
+
+      double millis = (System.nanoTime() - startedAt) / 1e6;
+      synchronized (stats) {
+        stats.latencyMillis =
+            stats.latencyMillis == 0
+                ? millis
+                : LATENCY_WEIGHT * millis + (1 - LATENCY_WEIGHT) * stats.latencyMillis;
+      }
+    }
+
+    public void onSuccess() {
+      if (!released.compareAndSet(false, true)) return;
+
+      recordLatency();
+      synchronized (stats) {
+        stats.outstanding--;
+        stats.consecutiveFailures = 0;
+      }
+    }
+
+    public void onError(Throwable error) {
+      if (!released.compareAndSet(false, true)) return;
+
+      synchronized (stats) {
+        stats.outstanding--;
+        if (!isMemberFailure(error)) return;
+
+        if (++stats.consecutiveFailures >= getFailureThreshold()) {
+          stats.consecutiveFailures = 0;
+          stats.ejected = true;
+          stats.ejectedUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(getEjectionSeconds());
+          logger.warn("Ejecting {} from the pool ~ {}", stats.member, error.getMessage());
+        }
+      }
+    }
+
+    public void onCancel() {
+      if (!released.compareAndSet(false, true)) return;
+
+      synchronized (stats) {
+        stats.outstanding--;
+      }
+    }
+  }
+
+  private int getFailureThreshold() {
+    return env.getProperty("openai.pool.failure-threshold", Integer.class, 3);
+  }
+
+  private long getEjectionSeconds() {
+    return env.getProperty("openai.pool.ejection-seconds", Long.class, 30L);
+  }
+
+  private static final class MemberStats {
+    private final OpenAiPoolMember member;
+    private int outstanding;
+    private double latencyMillis;
+    private int consecutiveFailures;
+    private long ejectedUntil;
+    private boolean ejected;
+
+    private MemberStats(OpenAiPoolMember member) {
+      this.member = member;
+    }
+
+    synchronized boolean isHealthy(long now) {
+      return !ejected || now - ejectedUntil >= 0;
+    }
+
+    synchronized double score() {
+      return (outstanding + 1) * Math.max(latencyMillis, 1);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.edgechain.lib.openai.pool;
+
+import java.util.Objects;
+
+/**
+ * One OpenAI-compatible target of an endpoint pool: the full request url (e.g. {@code
+ * https://api.openai.com/v1/chat/completions} or a local stand-in), the bearer API key and an
+ * optional organization.
+ */
+public class OpenAiPoolMember {
+
+  private String url;
+  private String apiKey;
+  private String orgId;
+
+  public OpenAiPoolMember() {}
+
+  public OpenAiPoolMember(String url, String apiKey) {
+    this(url, apiKey, null);
+  }
+
+  public OpenAiPoolMember(String url, String apiKey, String orgId) {
+    this.url = url;
+    this.apiKey = apiKey;
+    this.orgId = orgId;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(String url) {
+    this.url = url;
+  }
+
+  public String getApiKey() {
+    return apiKey;
+  }
+
+  public void setApiKey(String apiKey) {
+    this.apiKey = apiKey;
+  }
+
+  public String getOrgId() {
+    return orgId;
+  }
+
+  public void setOrgId(String orgId) {
+    this.orgId = orgId;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof OpenAiPoolMember that)) return false;
+    return Objects.equals(url, that.url)
+        && Objects.equals(apiKey, that.apiKey)
+        && Objects.equals(orgId, that.orgId);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(url, apiKey, orgId);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("OpenAiPoolMember{");
+    sb.append("url='").append(url).append('\'');
+    sb.append(", orgId='").append(orgId).append('\'');
+    sb.append('}');
+    return sb.toString();
+  }
+}
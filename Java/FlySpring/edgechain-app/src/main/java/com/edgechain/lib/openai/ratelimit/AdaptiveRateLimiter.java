@@ -0,0 +1,282 @@
+package com.edgechain.lib.openai.ratelimit;
+
+import com.edgechain.lib.rxjava.retry.RetryClassifier;
+import io.reactivex.rxjava3.core.Scheduler;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Client-side limiter for one model and API key.
+ *
+ * <p>Requests and tokens are drawn from two buckets synced from the {@code x-ratelimit-*} headers
+ * of every response; between responses a bucket refills linearly until it is full at its reset
+ * time. Until the first response is seen, only the concurrency limit applies.
+ *
+ * <p>Concurrency follows AIMD: each success raises the limit by {@code 1/limit}, roughly one per
+ * round of requests, and a 429 halves it and pauses the key for its {@code retry-after}. Requests
+ * granted before a decrease do not decrease it again, so a burst of 429s counts once.
+ */
+public class AdaptiveRateLimiter {
+
+  private static final Pattern DURATION = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+  private final int maxConcurrency;
+  private final Scheduler scheduler;
+
+  private final Bucket requests = new Bucket();
+  private final Bucket tokens = new Bucket();
+  private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+  private double concurrencyLimit;
+  private int inFlight;
+  private long pausedUntil;
+  private long lastDecreaseAt = Long.MIN_VALUE;
+  private boolean drainScheduled;
+
+  /**
+   * @param scheduler runs delayed grants and supplies the clock
+   */
+  public AdaptiveRateLimiter(int initialConcurrency, int maxConcurrency, Scheduler scheduler) {
+    this.concurrencyLimit = Math.max(1, Math.min(initialConcurrency, maxConcurrency));
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.scheduler = scheduler;
+  }
+
+  /** Emits a permit once a request of {@code estimatedTokens} may be sent. */
+  public Mono<Permit> acquire(long estimatedTokens) {
+    return Mono.create(
+        sink -> {
+          Waiter waiter = new Waiter(estimatedTokens, sink);
+          sink.onCancel(() -> cancel(waiter));
+          synchronized (this) {
+            waiters.add(waiter);
+          }
+          drain();
+        });
+  }
+
+  public synchronized double getConcurrencyLimit() {
+    return concurrencyLimit;
+  }
+
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  public synchronized int getQueued() {
+    return waiters.size();
+  }
+
+  private void drain() {
+    List<Waiter> granted = new ArrayList<>();
+
+    synchronized (this) {
+      long now = now();
+      long delay = 0;
+
+      while (!waiters.isEmpty() && inFlight < (int) concurrencyLimit) {
+        Waiter waiter = waiters.peek();
+        if (waiter.cancelled) {
+          waiters.poll();
+          continue;
+        }
+
+        delay =
+            Math.max(
+                pausedUntil - now,
+                Math.max(requests.delay(1, now), tokens.delay(waiter.tokens, now)));
+        if (delay > 0) break;
+
+        waiters.poll();
+        requests.consume(1, now);
+        tokens.consume(waiter.tokens, now);
+        inFlight++;
+        waiter.permit = new Permit(now);
+        granted.add(waiter);
+      }
+
+      if (delay > 0 && !drainScheduled) {
+        drainScheduled = true;
+        scheduler.scheduleDirect(
+            () -> {
+              synchronized (this) {
+                drainScheduled = false;
+              }
+              drain();
+            },
+            delay,
+            TimeUnit.NANOSECONDS);
+      }
+    }
+
+    granted.forEach(waiter -> waiter.sink.success(waiter.permit));
+  }
+
+  private void cancel(Waiter waiter) {
+    Permit permit;
+    synchronized (this) {
+      waiter.cancelled = true;
+      if (waiters.remove(waiter)) return;
+      permit = waiter.permit;
+    }
+    if (Objects.nonNull(permit)) permit.onCancel();
+  }
+
+  private void release(Permit permit, boolean success, long retryAfter) {
+    synchronized (this) {
+      inFlight--;
+      long now = now();
+
+      if (success) {
+        concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+      } else if (retryAfter >= 0) {
+        pausedUntil = Math.max(pausedUntil, now + retryAfter);
+        if (permit.grantedAt > lastDecreaseAt) {
+          concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+          lastDecreaseAt = now;
+        }
+      }
+    }
+    drain();
+  }
+
+  private synchronized void sync(HttpHeaders headers) {
+    long now = now();
+    requests.sync(headers, "requests", now);
+    tokens.sync(headers, "tokens", now);
+  }
+
+  private long now() {
+    return scheduler.now(TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Parses OpenAI reset durations such as {@code 20ms}, {@code 1.5s} or {@code 6m0s} into nanos,
+   * or returns {@code -1}.
+   */
+  static long parseDuration(String value) {
+    if (Objects.isNull(value) || value.isBlank()) return -1;
+
+    Matcher matcher = DURATION.matcher(value.trim());
+    double nanos = 0;
+    int end = 0;
+    while (matcher.find() && matcher.start() == end) {
+      double amount = Double.parseDouble(matcher.group(1));
+      nanos +=
+          switch (matcher.group(2)) {
+            case "h" -> amount * TimeUnit.HOURS.toNanos(1);
+            case "m" -> amount * TimeUnit.MINUTES.toNanos(1);
+            case "s" -> amount * TimeUnit.SECONDS.toNanos(1);
+            default -> amount * TimeUnit.MILLISECONDS.toNanos(1);
+          };
+      end = matcher.end();
+    }
+    return end == value.trim().length() && end > 0 ? Math.round(nanos) : -1;
+  }
+
+  /** One granted request; exactly one of the callbacks takes effect. */
+  public final class Permit {
+
+    private final long grantedAt;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(long grantedAt) {
+      this.grantedAt = grantedAt;
+    }
+
+    /** Syncs the buckets from the rate limit headers of a response. */
+    public void onHeaders(HttpHeaders headers) {
+      if (Objects.nonNull(headers)) sync(headers);
+    }
+
+    public void onSuccess() {
+      if (released.compareAndSet(false, true)) release(this, true, -1);
+    }
+
+    /** A 429 decreases the concurrency limit and pauses the key; other errors just release. */
+    public void onError(Throwable error) {
+      if (!released.compareAndSet(false, true)) return;
+
+      if (error instanceof WebClientResponseException e && e.getStatusCode().value() == 429) {
+        onHeaders(e.getHeaders());
+        long retryAfter = RetryClassifier.retryAfterMillis(e.getHeaders());
+        release(this, false, TimeUnit.MILLISECONDS.toNanos(Math.max(0, retryAfter)));
+      } else {
+        release(this, false, -1);
+      }
+    }
+
+    public void onCancel() {
+      if (released.compareAndSet(false, true)) release(this, false, -1);
+    }
+  }
+
+  private static final class Waiter {
+    private final long tokens;
+    private final MonoSink<Permit> sink;
+    private Permit permit;
+    private boolean cancelled;
+
+    private Waiter(long tokens, MonoSink<Permit> sink) {
+      this.tokens = tokens;
+      this.sink = sink;
+    }
+  }
+
+  private static final class Bucket {
+    private long limit = -1;
+    private double remaining;
+    private long observedAt;
+    private long resetAt;
+
+    void sync(HttpHeaders headers, String name, long now) {
+      try {
+        String limitHeader = headers.getFirst("x-ratelimit-limit-" + name);
+        String remainingHeader = headers.getFirst("x-ratelimit-remaining-" + name);
+        long reset = parseDuration(headers.getFirst("x-ratelimit-reset-" + name));
+        if (Objects.isNull(limitHeader) || Objects.isNull(remainingHeader) || reset < 0) return;
+
+        limit = Long.parseLong(limitHeader.trim());
+        remaining = Long.parseLong(remainingHeader.trim());
+        observedAt = now;
+        resetAt = now + reset;
+      } catch (NumberFormatException ignored) {
+        // Keep the previous values.
+      }
+    }
+
+    double available(long now) {
+      if (limit < 0) return Double.MAX_VALUE;
+      if (now >= resetAt || resetAt <= observedAt) return limit;
+      return remaining + (limit - remaining) * (now - observedAt) / (double) (resetAt - observedAt);
+    }
+
+    void consume(long amount, long now) {
+      if (limit < 0) return;
+      remaining = available(now) - amount;
+      observedAt = now;
+    }
+
+    /** Nanos until {@code amount} is available; a request above the limit waits for a reset. */
+    long delay(long amount, long now) {
+      if (limit < 0 || available(now) >= Math.min(amount, limit)) return 0;
+      if (now >= resetAt || limit <= remaining) return 0;
+
+      double needed = Math.min(amount, limit) - remaining;
+      double window = resetAt - observedAt;
+      long at = observedAt + (long) Math.ceil(needed * window / (limit - remaining));
+      return Math.max(1, at - now);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.edgechain.lib.openai.ratelimit;
+
+import com.edgechain.lib.utils.HashUtils;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Throttles OpenAI calls with one {@link AdaptiveRateLimiter} per model and API key, so bulk
+ * ingestion and chat traffic slow down ahead of the account limits instead of running into 429s.
+ * A call holds its permit until its response, or for streams the whole body, is consumed.
+ *
+ * <ul>
+ *   <li>{@code openai.ratelimit.enabled}: default true
+ *   <li>{@code openai.ratelimit.initial-concurrency}: concurrent calls per key before any feedback
+ *       (default 16)
+ *   <li>{@code openai.ratelimit.max-concurrency}: upper bound of the adaptive limit (default 256)
+ * </ul>
+ */
+@Service
+public class OpenAiRateLimiter {
+
+  @Autowired @Lazy private Environment env;
+
+  private final Map<String, AdaptiveRateLimiter> limiters = new ConcurrentHashMap<>();
+
+  private volatile Boolean enabled;
+
+  /**
+   * @param estimatedTokens prompt size of the call, only evaluated when limiting is enabled
+   */
+  public <T> Mono<T> limit(
+      String model, String apiKey, LongSupplier estimatedTokens, Mono<ResponseEntity<T>> call) {
+    if (!isEnabled()) return call.mapNotNull(HttpEntity::getBody);
+
+    return Mono.usingWhen(
+        Mono.defer(() -> getLimiter(model, apiKey).acquire(estimatedTokens.getAsLong())),
+        permit ->
+            call.doOnNext(e -> permit.onHeaders(e.getHeaders())).mapNotNull(HttpEntity::getBody),
+        permit -> Mono.fromRunnable(permit::onSuccess),
+        (permit, e) -> Mono.fromRunnable(() -> permit.onError(e)),
+        permit -> Mono.fromRunnable(permit::onCancel));
+  }
+
+  /** Same as {@link #limit}, for a streamed response body. */
+  public <T> Flux<T> limitMany(
+      String model,
+      String apiKey,
+      LongSupplier estimatedTokens,
+      Mono<ResponseEntity<Flux<T>>> call) {
+    if (!isEnabled()) return call.flatMapMany(HttpEntity::getBody);
+
+    return Flux.usingWhen(
+        Mono.defer(() -> getLimiter(model, apiKey).acquire(estimatedTokens.getAsLong())),
+        permit ->
+            call.flatMapMany(
+                e -> {
+                  permit.onHeaders(e.getHeaders());
+                  return e.getBody();
+                }),
+        permit -> Mono.fromRunnable(permit::onSuccess),
+        (permit, e) -> Mono.fromRunnable(() -> permit.onError(e)),
+        permit -> Mono.fromRunnable(permit::onCancel));
+  }
+
+  public boolean isEnabled() {
+    if (Objects.isNull(enabled)) {
+      enabled = env.getProperty("openai.ratelimit.enabled", Boolean.class, true);
+    }
+    return enabled;
+  }
+
+  // Keyed by a hash so API keys are not kept in memory longer than the request.
+  private AdaptiveRateLimiter getLimiter(String model, String apiKey) {
+    return limiters.computeIfAbsent(
+        model + ":" + HashUtils.sha256(String.valueOf(apiKey)),
+        k ->
+            new AdaptiveRateLimiter(
+                env.getProperty("openai.ratelimit.initial-concurrency", Integer.class, 16),
+                env.getProperty("openai.ratelimit.max-concurrency", Integer.class, 256),
+                Schedulers.computation()));
+  }
+}
@@ -1,12 +1,18 @@
 package com.edgechain.lib.openai.request;
 
 import com.edgechain.lib.response.ArkObject;
+import com.knuddels.jtokkit.api.Encoding;
 import org.json.JSONObject;
 
 public class ChatMessage implements ArkObject {
   String role;
   String content;
 
+  // Immutable, so it can be shared between threads without locking.
+  private record TokenCount(Encoding encoding, int tokens) {}
+
+  private transient TokenCount tokenCount;
+
   public ChatMessage(String role, String content) {
     this.role = role;
     this.content = content;
@@ -24,10 +30,26 @@ public class ChatMessage implements ArkObject {
 
   public void setRole(String role) {
     this.role = role;
+    this.tokenCount = null;
   }
 
   public void setContent(String content) {
     this.content = content;
+    this.tokenCount = null;
+  }
+
+  /** Tokens in the role and content under {@code encoding}; computed once per encoding. */
+  public int countTokens(Encoding encoding) {
+    TokenCount cached = this.tokenCount;
+    if (cached == null || cached.encoding() != encoding) {
+      cached = new TokenCount(encoding, count(encoding, role) + count(encoding, content));
+      this.tokenCount = cached;
+    }
+    return cached.tokens();
+  }
+
+  private static int count(Encoding encoding, String text) {
+    return (text == null || text.isEmpty()) ? 0 : encoding.countTokens(text);
   }
 
   @Override
@@ -0,0 +1,62 @@
+package com.edgechain.lib.openai.response;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The text of one or more streamed chat completion chunks, without the rest of the chunk. {@code
+ * finishReason} is set on the last delta of a completion.
+ */
+public class ChatCompletionDelta {
+
+  private String content;
+  private String finishReason;
+
+  public ChatCompletionDelta() {}
+
+  public ChatCompletionDelta(String content, String finishReason) {
+    this.content = content;
+    this.finishReason = finishReason;
+  }
+
+  /** Joins consecutive deltas into one, keeping the last finish reason. */
+  public static ChatCompletionDelta merge(List<ChatCompletionDelta> deltas) {
+    if (deltas.size() == 1) return deltas.get(0);
+
+    StringBuilder content = new StringBuilder();
+    String finishReason = null;
+    for (ChatCompletionDelta delta : deltas) {
+      if (Objects.nonNull(delta.getContent())) content.append(delta.getContent());
+      if (Objects.nonNull(delta.getFinishReason())) finishReason = delta.getFinishReason();
+    }
+    return new ChatCompletionDelta(content.toString(), finishReason);
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  public void setContent(String content) {
+    this.content = content;
+  }
+
+  public String getFinishReason() {
+    return finishReason;
+  }
+
+  public void setFinishReason(String finishReason) {
+    this.finishReason = finishReason;
+  }
+
+  @Override
+  public String toString() {
+    return "ChatCompletionDelta{"
+        + "content='"
+        + content
+        + '\''
+        + ", finishReason='"
+        + finishReason
+        + '\''
+        + '}';
+  }
+}
@@ -2,6 +2,7 @@ package com.edgechain.lib.openai.response;
 
 import com.edgechain.lib.embeddings.response.Usage;
 import com.edgechain.lib.response.ArkObject;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.json.JSONObject;
 
 import java.io.Serializable;
@@ -22,6 +23,10 @@ public class ChatCompletionResponse implements ArkObject, Serializable {
 
   private Usage usage;
 
+  // Only present on responses served from the completion cache.
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Boolean cached;
+
   public String getId() {
     return id;
   }
@@ -70,6 +75,14 @@ public class ChatCompletionResponse implements ArkObject, Serializable {
     this.usage = usage;
   }
 
+  public Boolean getCached() {
+    return cached;
+  }
+
+  public void setCached(Boolean cached) {
+    this.cached = cached;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder("ChatCompletionResponse{");
@@ -1,5 +1,7 @@
 package com.edgechain.lib.request;
 
+import com.edgechain.lib.deadline.Deadline;
+import com.edgechain.lib.deadline.DeadlineFilter;
 import com.edgechain.lib.request.exception.InvalidArkRequest;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.*;
@@ -144,4 +146,9 @@ public class ArkRequest {
   public HttpServletRequest getRequest() {
     return request;
   }
+
+  /** This request's time budget, set by {@link DeadlineFilter}; {@code null} if it has none. */
+  public Deadline getDeadline() {
+    return (Deadline) this.request.getAttribute(DeadlineFilter.ATTRIBUTE);
+  }
 }
@@ -2,11 +2,14 @@ package com.edgechain.lib.retrofit;
 
 import com.edgechain.lib.context.domain.ContextPutRequest;
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 import com.edgechain.lib.endpoint.impl.context.PostgreSQLHistoryContextEndpoint;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 import retrofit2.http.*;
 
+import java.util.List;
+
 public interface PostgreSQLContextService {
 
   @POST(value = "context/postgresql/create")
@@ -16,6 +19,15 @@ public interface PostgreSQLContextService {
   @POST(value = "context/postgresql/update")
   Single<HistoryContext> put(@Body ContextPutRequest request);
 
+  @POST(value = "context/postgresql/append")
+  Single<HistoryTurn> append(@Body ContextPutRequest request);
+
+  @POST(value = "context/postgresql/{id}/turns")
+  Single<List<HistoryTurn>> getTurns(
+      @Path("id") String id,
+      @Query("maxTokens") int maxTokens,
+      @Body PostgreSQLHistoryContextEndpoint endpoint);
+
   @POST(value = "context/postgresql/{id}")
   Single<HistoryContext> get(
       @Path("id") String id, @Body PostgreSQLHistoryContextEndpoint endpoint);
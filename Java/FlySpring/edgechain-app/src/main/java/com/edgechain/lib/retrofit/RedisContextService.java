@@ -2,12 +2,15 @@ package com.edgechain.lib.retrofit;
 
 import com.edgechain.lib.context.domain.ContextPutRequest;
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 
 import com.edgechain.lib.endpoint.impl.context.RedisHistoryContextEndpoint;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 import retrofit2.http.*;
 
+import java.util.List;
+
 public interface RedisContextService {
 
   @POST(value = "context/redis/create")
@@ -16,6 +19,15 @@ public interface RedisContextService {
   @POST(value = "context/redis/update")
   Single<HistoryContext> put(@Body ContextPutRequest request);
 
+  @POST(value = "context/redis/append")
+  Single<HistoryTurn> append(@Body ContextPutRequest request);
+
+  @POST(value = "context/redis/{id}/turns")
+  Single<List<HistoryTurn>> getTurns(
+      @Path("id") String id,
+      @Query("maxTokens") int maxTokens,
+      @Body RedisHistoryContextEndpoint endpoint);
+
   @POST(value = "context/redis/{id}")
   Single<HistoryContext> get(@Path("id") String id, @Body RedisHistoryContextEndpoint endpoint);
 
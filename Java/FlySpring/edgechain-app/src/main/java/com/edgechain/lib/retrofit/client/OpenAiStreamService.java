@@ -9,7 +9,9 @@ import io.reactivex.rxjava3.core.Observable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.adapter.rxjava.RxJava3Adapter;
@@ -43,4 +45,31 @@ public class OpenAiStreamService {
             .retrieve()
             .bodyToFlux(ChatCompletionResponse.class));
   }
+
+  /** Completion text from {@code /chat-completion-stream/deltas}, one coalesced frame each. */
+  public Observable<String> chatCompletionDeltas(OpenAiChatEndpoint endpoint) {
+
+    return RxJava3Adapter.fluxToObservable(
+        WebClient.builder()
+            .build()
+            .post()
+            .uri(
+                "http://0.0.0.0"
+                    + ":"
+                    + System.getProperty("server.port")
+                    + WebConfiguration.CONTEXT_PATH
+                    + "/openai/chat-completion-stream/deltas")
+            .headers(
+                httpHeaders -> {
+                  httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+                  httpHeaders.set("stream", "true");
+                  httpHeaders.set("Authorization", securityUUID.getAuthKey());
+                })
+            .bodyValue(JsonUtils.convertToString(endpoint))
+            .retrieve()
+            .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+            .takeWhile(event -> !"finish".equals(event.event()))
+            .mapNotNull(ServerSentEvent::data)
+            .map(data -> JsonUtils.convertToObject(data, String.class)));
+  }
 }
@@ -3,6 +3,8 @@ package com.edgechain.lib.retrofit.client;
 import com.edgechain.lib.configuration.WebConfiguration;
 import com.edgechain.lib.configuration.context.ApplicationContextHolder;
 import com.edgechain.lib.configuration.domain.SecurityUUID;
+import com.edgechain.lib.deadline.Deadline;
+import com.edgechain.lib.deadline.DeadlineExceededException;
 import com.edgechain.lib.retrofit.utils.PageJacksonModule;
 import com.edgechain.lib.retrofit.utils.SortJacksonModule;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -19,6 +21,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -55,7 +59,9 @@ public class RetrofitClientInstance {
                       + WebConfiguration.CONTEXT_PATH
                       + "/")
               .addConverterFactory(createJacksonFactory())
-              .addCallAdapterFactory(RxJava3CallAdapterFactory.create())
+              // Synchronous, so calls and their interceptors run on the subscribing thread and see
+              // its Deadline; EdgeChain already subscribes on a scheduler.
+              .addCallAdapterFactory(RxJava3CallAdapterFactory.createSynchronous())
               .client(
                   new OkHttpClient.Builder()
                       .connectionPool(new ConnectionPool(10, 5, TimeUnit.MINUTES))
@@ -64,9 +70,36 @@ public class RetrofitClientInstance {
                             try {
                               Request original = chain.request();
                               final String authKey = securityUUID.getAuthKey();
-                              Request request =
-                                  original.newBuilder().header("Authorization", authKey).build();
-                              Response response = chain.proceed(request);
+                              Request.Builder builder =
+                                  original.newBuilder().header("Authorization", authKey);
+
+                              // Forward the caller's deadline and give up on the call with it.
+                              Interceptor.Chain call = chain;
+                              Deadline deadline = Deadline.current();
+                              if (Objects.nonNull(deadline)) {
+                                if (deadline.isExpired()) {
+                                  throw new DeadlineExceededException(deadline);
+                                }
+                                builder.header(Deadline.HEADER, deadline.toHeader());
+                                call =
+                                    chain
+                                        .withConnectTimeout(
+                                            cap(deadline, chain.connectTimeoutMillis()),
+                                            TimeUnit.MILLISECONDS)
+                                        .withReadTimeout(
+                                            cap(deadline, chain.readTimeoutMillis()),
+                                            TimeUnit.MILLISECONDS)
+                                        .withWriteTimeout(
+                                            cap(deadline, chain.writeTimeoutMillis()),
+                                            TimeUnit.MILLISECONDS);
+                              }
+
+                              Response response = call.proceed(builder.build());
+
+                              // Log exports are read line by line; buffering them here would
+                              // load the whole export into memory.
+                              if (response.isSuccessful() && isNdjson(response)) return response;
+
                               String body = response.body().string();
 
                               String errorMessage = "";
@@ -106,6 +139,15 @@ public class RetrofitClientInstance {
     return retrofit;
   }
 
+  private static int cap(Deadline deadline, int timeoutMillis) {
+    return (int) deadline.capMillis(timeoutMillis);
+  }
+
+  private static boolean isNdjson(Response response) {
+    MediaType contentType = response.body().contentType();
+    return Objects.nonNull(contentType) && "x-ndjson".equals(contentType.subtype());
+  }
+
   private static JacksonConverterFactory createJacksonFactory() {
     ObjectMapper objectMapper = new ObjectMapper();
     objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
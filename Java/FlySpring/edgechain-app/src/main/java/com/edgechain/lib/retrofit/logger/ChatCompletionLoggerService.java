@@ -1,14 +1,19 @@
 package com.edgechain.lib.retrofit.logger;
 
 import com.edgechain.lib.logger.entities.ChatCompletionLog;
+import com.edgechain.lib.logger.entities.LogRollup;
 import io.reactivex.rxjava3.core.Single;
+import okhttp3.ResponseBody;
 import org.springframework.data.domain.Page;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 import java.util.HashMap;
+import java.util.List;
 
 public interface ChatCompletionLoggerService {
 
@@ -50,4 +55,12 @@ public interface ChatCompletionLoggerService {
   @POST(value = "logs/chat-completion/findByLatencyGtrThanEq/{page}/{size}")
   Single<Page<ChatCompletionLog>> findAllByLatencyGreaterThanEqual(
       @Body HashMap<String, Long> mapper, @Path("page") int page, @Path("size") int size);
+
+  @GET(value = "logs/chat-completion/rollups")
+  Single<List<LogRollup>> findRollups(
+      @Query("from") String from, @Query("to") String to, @Query("model") String model);
+
+  @Streaming
+  @GET(value = "logs/chat-completion/stream")
+  Single<ResponseBody> streamAll(@Query("from") String from, @Query("to") String to);
 }
@@ -1,14 +1,19 @@
 package com.edgechain.lib.retrofit.logger;
 
 import com.edgechain.lib.logger.entities.EmbeddingLog;
+import com.edgechain.lib.logger.entities.LogRollup;
 import io.reactivex.rxjava3.core.Single;
+import okhttp3.ResponseBody;
 import org.springframework.data.domain.Page;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 import java.util.HashMap;
+import java.util.List;
 
 public interface EmbeddingLoggerService {
 
@@ -42,4 +47,12 @@ public interface EmbeddingLoggerService {
   @POST(value = "logs/embeddings/findByLatencyGtrThanEq/{page}/{size}")
   Single<Page<EmbeddingLog>> findAllByLatencyGreaterThanEqual(
       @Body HashMap<String, Long> mapper, @Path("page") int page, @Path("size") int size);
+
+  @GET(value = "logs/embeddings/rollups")
+  Single<List<LogRollup>> findRollups(
+      @Query("from") String from, @Query("to") String to, @Query("model") String model);
+
+  @Streaming
+  @GET(value = "logs/embeddings/stream")
+  Single<ResponseBody> streamAll(@Query("from") String from, @Query("to") String to);
 }
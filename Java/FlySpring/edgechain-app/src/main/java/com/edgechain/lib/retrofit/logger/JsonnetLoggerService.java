@@ -3,11 +3,14 @@ package com.edgechain.lib.retrofit.logger;
 import com.edgechain.lib.logger.entities.JsonnetLog;
 import io.reactivex.rxjava3.core.Single;
 import java.util.HashMap;
+import okhttp3.ResponseBody;
 import org.springframework.data.domain.Page;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 public interface JsonnetLoggerService {
 
@@ -21,4 +24,8 @@ public interface JsonnetLoggerService {
   @POST(value = "logs/jsonnet/findByName/sorted/{page}/{size}")
   Single<Page<JsonnetLog>> findAllBySelectedFileOrderByCreatedAtDesc(
       @Body HashMap<String, String> mapper, @Path("page") int page, @Path("size") int size);
+
+  @Streaming
+  @GET(value = "logs/jsonnet/stream")
+  Single<ResponseBody> streamAll(@Query("from") String from, @Query("to") String to);
 }
@@ -0,0 +1,49 @@
+package com.edgechain.lib.rxjava.bulkhead;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the calls in flight to one downstream. A call over the limit is rejected at once with a
+ * {@link BulkheadFullException} rather than queued, so a slow endpoint cannot hold every io thread.
+ */
+public class Bulkhead {
+
+  private static final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+  private final String name;
+  private final int maxConcurrentCalls;
+  private final Semaphore permits;
+
+  Bulkhead(String name, int maxConcurrentCalls) {
+    this.name = name;
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.permits = new Semaphore(maxConcurrentCalls);
+  }
+
+  /** The bulkhead shared by all endpoints using {@code name}, built from the first policy seen. */
+  public static Bulkhead of(String name, BulkheadPolicy policy) {
+    return bulkheads.computeIfAbsent(name, k -> new Bulkhead(k, policy.getMaxConcurrentCalls()));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  public int getAvailableCalls() {
+    return permits.availablePermits();
+  }
+
+  public boolean tryAcquire() {
+    return permits.tryAcquire();
+  }
+
+  public void release() {
+    permits.release();
+  }
+}
@@ -0,0 +1,14 @@
+package com.edgechain.lib.rxjava.bulkhead;
+
+/** Raised instead of calling the endpoint when its {@link Bulkhead} has no free slot. */
+public class BulkheadFullException extends RuntimeException {
+
+  public BulkheadFullException(Bulkhead bulkhead) {
+    super(
+        "Bulkhead '"
+            + bulkhead.getName()
+            + "' is full ("
+            + bulkhead.getMaxConcurrentCalls()
+            + " concurrent calls)");
+  }
+}
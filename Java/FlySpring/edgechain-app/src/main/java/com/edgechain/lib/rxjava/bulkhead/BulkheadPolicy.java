@@ -0,0 +1,46 @@
+package com.edgechain.lib.rxjava.bulkhead;
+
+import java.io.Serializable;
+
+/**
+ * Settings of the {@link Bulkhead} guarding an endpoint. Bulkheads are shared by name, which
+ * defaults to the endpoint type, so the limit applies to all calls to the same downstream.
+ */
+public class BulkheadPolicy implements Serializable {
+
+  private static final long serialVersionUID = 2157781635928446017L;
+
+  private String name;
+  private int maxConcurrentCalls = 25;
+
+  public BulkheadPolicy() {}
+
+  public BulkheadPolicy(int maxConcurrentCalls) {
+    this.maxConcurrentCalls = maxConcurrentCalls;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+    this.maxConcurrentCalls = maxConcurrentCalls;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("BulkheadPolicy{");
+    sb.append("name='").append(name).append('\'');
+    sb.append(", maxConcurrentCalls=").append(maxConcurrentCalls);
+    sb.append('}');
+    return sb.toString();
+  }
+}
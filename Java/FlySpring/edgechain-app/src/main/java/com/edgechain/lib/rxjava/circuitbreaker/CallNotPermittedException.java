@@ -0,0 +1,21 @@
+package com.edgechain.lib.rxjava.circuitbreaker;
+
+/** Raised instead of calling the endpoint while its {@link CircuitBreaker} is open. */
+public class CallNotPermittedException extends RuntimeException {
+
+  private final transient CircuitBreaker circuitBreaker;
+
+  public CallNotPermittedException(CircuitBreaker circuitBreaker) {
+    super(
+        "CircuitBreaker '"
+            + circuitBreaker.getName()
+            + "' is "
+            + circuitBreaker.getState()
+            + " and does not permit further calls");
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+}
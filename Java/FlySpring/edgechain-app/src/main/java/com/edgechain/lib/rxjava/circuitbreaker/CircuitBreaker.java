@@ -0,0 +1,138 @@
+package com.edgechain.lib.rxjava.circuitbreaker;
+
+import com.edgechain.lib.rxjava.retry.RetryClassifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Closed / open / half-open breaker over a rolling window of the last {@code windowSize} calls.
+ *
+ * <p>While closed, calls pass and their outcomes are recorded; once at least {@code minimumCalls}
+ * are in the window and the failure rate reaches the threshold, the breaker opens and rejects
+ * calls for {@code openDuration}. It then lets {@code halfOpenCalls} trial calls through: if all
+ * succeed it closes with an empty window, and any failure opens it again.
+ *
+ * <p>Only downstream failures count, i.e. errors {@link RetryClassifier} would retry; a 4xx caused
+ * by the request itself does not open the breaker.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+  private final String name;
+  private final CircuitBreakerPolicy policy;
+  private final LongSupplier clock;
+
+  private final boolean[] window;
+  private int next;
+  private int calls;
+  private int failures;
+
+  private State state = State.CLOSED;
+  private long openUntil;
+  private int halfOpenPermits;
+  private int halfOpenSuccesses;
+
+  CircuitBreaker(String name, CircuitBreakerPolicy policy, LongSupplier clock) {
+    this.name = name;
+    this.policy = policy;
+    this.clock = clock;
+    this.window = new boolean[Math.max(1, policy.getWindowSize())];
+  }
+
+  /** The breaker shared by all endpoints using {@code name}, built from the first policy seen. */
+  public static CircuitBreaker of(String name, CircuitBreakerPolicy policy) {
+    return breakers.computeIfAbsent(name, k -> new CircuitBreaker(k, policy, System::nanoTime));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public synchronized State getState() {
+    if (state == State.OPEN && clock.getAsLong() - openUntil >= 0) return State.HALF_OPEN;
+    return state;
+  }
+
+  /** Failed calls in the window as a percentage, or {@code 0} while it is empty. */
+  public synchronized float getFailureRate() {
+    return calls == 0 ? 0 : failures * 100f / calls;
+  }
+
+  /** Whether a call may proceed; every permitted call must end in exactly one callback. */
+  public synchronized boolean tryAcquire() {
+    if (state == State.OPEN) {
+      if (clock.getAsLong() - openUntil < 0) return false;
+      state = State.HALF_OPEN;
+      halfOpenPermits = policy.getHalfOpenCalls();
+      halfOpenSuccesses = 0;
+    }
+
+    if (state == State.HALF_OPEN) {
+      if (halfOpenPermits <= 0) return false;
+      halfOpenPermits--;
+    }
+    return true;
+  }
+
+  public synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      if (++halfOpenSuccesses >= policy.getHalfOpenCalls()) close();
+      return;
+    }
+    record(false);
+  }
+
+  public synchronized void onError(Throwable error) {
+    if (RetryClassifier.classify(error) != RetryClassifier.Decision.RETRY) {
+      onSuccess();
+      return;
+    }
+
+    if (state == State.HALF_OPEN) {
+      open();
+      return;
+    }
+
+    record(true);
+    if (calls >= policy.getMinimumCalls()
+        && getFailureRate() >= policy.getFailureRateThreshold()) {
+      open();
+    }
+  }
+
+  /** A call given up before its outcome was known; frees its half-open permit. */
+  public synchronized void onCancel() {
+    if (state == State.HALF_OPEN) halfOpenPermits++;
+  }
+
+  private void record(boolean failed) {
+    if (calls == window.length) {
+      if (window[next]) failures--;
+    } else {
+      calls++;
+    }
+    window[next] = failed;
+    if (failed) failures++;
+    next = (next + 1) % window.length;
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openUntil = clock.getAsLong() + policy.getUnit().toNanos(policy.getOpenDuration());
+  }
+
+  private void close() {
+    state = State.CLOSED;
+    next = 0;
+    calls = 0;
+    failures = 0;
+  }
+}
@@ -0,0 +1,107 @@
+package com.edgechain.lib.rxjava.circuitbreaker;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings of the {@link CircuitBreaker} guarding an endpoint. Breakers are shared by name, which
+ * defaults to the endpoint type, so every call to the same downstream counts towards one breaker.
+ */
+public class CircuitBreakerPolicy implements Serializable {
+
+  private static final long serialVersionUID = 4385011236574902337L;
+
+  private String name;
+  private int failureRateThreshold = 50;
+  private int windowSize = 20;
+  private int minimumCalls = 10;
+  private long openDuration = 30;
+  private TimeUnit unit = TimeUnit.SECONDS;
+  private int halfOpenCalls = 3;
+
+  public CircuitBreakerPolicy() {}
+
+  /**
+   * @param failureRateThreshold percentage of failed calls in the window that opens the breaker
+   * @param windowSize number of most recent calls the failure rate is computed over
+   * @param openDuration how long the breaker stays open before letting trial calls through
+   */
+  public CircuitBreakerPolicy(
+      int failureRateThreshold, int windowSize, long openDuration, TimeUnit unit) {
+    this.failureRateThreshold = failureRateThreshold;
+    this.windowSize = windowSize;
+    this.minimumCalls = Math.min(minimumCalls, windowSize);
+    this.openDuration = openDuration;
+    this.unit = unit;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public int getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  public void setFailureRateThreshold(int failureRateThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+  }
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  public void setWindowSize(int windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  public void setMinimumCalls(int minimumCalls) {
+    this.minimumCalls = minimumCalls;
+  }
+
+  public long getOpenDuration() {
+    return openDuration;
+  }
+
+  public void setOpenDuration(long openDuration) {
+    this.openDuration = openDuration;
+  }
+
+  public TimeUnit getUnit() {
+    return unit;
+  }
+
+  public void setUnit(TimeUnit unit) {
+    this.unit = unit;
+  }
+
+  public int getHalfOpenCalls() {
+    return halfOpenCalls;
+  }
+
+  public void setHalfOpenCalls(int halfOpenCalls) {
+    this.halfOpenCalls = halfOpenCalls;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("CircuitBreakerPolicy{");
+    sb.append("name='").append(name).append('\'');
+    sb.append(", failureRateThreshold=").append(failureRateThreshold);
+    sb.append(", windowSize=").append(windowSize);
+    sb.append(", minimumCalls=").append(minimumCalls);
+    sb.append(", openDuration=").append(openDuration);
+    sb.append(", unit=").append(unit);
+    sb.append(", halfOpenCalls=").append(halfOpenCalls);
+    sb.append('}');
+    return sb.toString();
+  }
+}
@@ -0,0 +1,101 @@
+package com.edgechain.lib.rxjava.retry;
+
+import com.edgechain.lib.configuration.context.ApplicationContextHolder;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+
+/**
+ * Caps retries across the whole process to a share of first attempts, so an outage does not
+ * multiply traffic by the retry count. Over a 10 second window, retries are allowed while they stay
+ * below {@code ratio * first attempts + minPerSecond * 10}; the floor keeps low-traffic callers
+ * able to retry at all.
+ *
+ * <ul>
+ *   <li>{@code retry.budget.ratio}: default 0.2
+ *   <li>{@code retry.budget.min-per-second}: default 10
+ * </ul>
+ */
+public class RetryBudget {
+
+  private static final int WINDOW_SECONDS = 10;
+
+  private static volatile RetryBudget global;
+
+  private final double ratio;
+  private final double minPerSecond;
+  private final LongSupplier clockMillis;
+
+  private final long[] epochs = new long[WINDOW_SECONDS];
+  private final long[] requests = new long[WINDOW_SECONDS];
+  private final long[] retries = new long[WINDOW_SECONDS];
+
+  public RetryBudget(double ratio, double minPerSecond) {
+    this(ratio, minPerSecond, System::currentTimeMillis);
+  }
+
+  RetryBudget(double ratio, double minPerSecond, LongSupplier clockMillis) {
+    this.ratio = ratio;
+    this.minPerSecond = minPerSecond;
+    this.clockMillis = clockMillis;
+  }
+
+  public static RetryBudget getGlobal() {
+    if (Objects.isNull(global)) {
+      synchronized (RetryBudget.class) {
+        if (Objects.isNull(global)) {
+          ApplicationContext context = ApplicationContextHolder.getContext();
+          Environment env = Objects.nonNull(context) ? context.getEnvironment() : null;
+          global =
+              Objects.nonNull(env)
+                  ? new RetryBudget(
+                      env.getProperty("retry.budget.ratio", Double.class, 0.2),
+                      env.getProperty("retry.budget.min-per-second", Double.class, 10.0))
+                  : new RetryBudget(0.2, 10);
+        }
+      }
+    }
+    return global;
+  }
+
+  /** Counts a first attempt. */
+  public synchronized void onRequest() {
+    requests[slot(epoch())]++;
+  }
+
+  /** Takes one retry from the budget; {@code false} when the budget is spent. */
+  public synchronized boolean tryAcquire() {
+    long epoch = epoch();
+    int slot = slot(epoch);
+
+    long requestTotal = 0;
+    long retryTotal = 0;
+    for (int i = 0; i < WINDOW_SECONDS; i++) {
+      if (epoch - epochs[i] < WINDOW_SECONDS) {
+        requestTotal += requests[i];
+        retryTotal += retries[i];
+      }
+    }
+
+    if (retryTotal >= ratio * requestTotal + minPerSecond * WINDOW_SECONDS) return false;
+
+    retries[slot]++;
+    return true;
+  }
+
+  private long epoch() {
+    return clockMillis.getAsLong() / 1000;
+  }
+
+  // One slot per second of the window, reset when it comes round again.
+  private int slot(long epoch) {
+    int slot = (int) (epoch % WINDOW_SECONDS);
+    if (epochs[slot] != epoch) {
+      requests[slot] = 0;
+      retries[slot] = 0;
+      epochs[slot] = epoch;
+    }
+    return slot;
+  }
+}
@@ -0,0 +1,106 @@
+package com.edgechain.lib.rxjava.retry;
+
+import com.edgechain.lib.deadline.DeadlineExceededException;
+import com.edgechain.lib.rxjava.bulkhead.BulkheadFullException;
+import com.edgechain.lib.rxjava.circuitbreaker.CallNotPermittedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import retrofit2.HttpException;
+
+/**
+ * Decides from the exception type whether a failed call is worth retrying. HTTP errors (WebClient
+ * or Retrofit) are judged by status: 408, 409, 425, 429 and 5xx are retried, other 4xx are not.
+ * Transport errors and timeouts are retried; JSON and argument errors are not, nor are calls
+ * rejected by an open circuit breaker or a full bulkhead, nor work past its deadline. Anything else
+ * is retried, as before.
+ */
+public final class RetryClassifier {
+
+  public enum Decision {
+    RETRY,
+    FAIL,
+    /** The error marks the end of an OpenAI stream; complete without an error. */
+    COMPLETE
+  }
+
+  private RetryClassifier() {}
+
+  public static Decision classify(Throwable error) {
+    if (isEndOfStream(error)) return Decision.COMPLETE;
+
+    // Usually wrapped, e.g. in the IOException an OkHttp interceptor must throw.
+    for (Throwable t = error; Objects.nonNull(t); t = t.getCause() == t ? null : t.getCause()) {
+      if (t instanceof DeadlineExceededException) return Decision.FAIL;
+    }
+
+    for (Throwable t = error; Objects.nonNull(t); t = t.getCause() == t ? null : t.getCause()) {
+      if (t instanceof WebClientResponseException e) return classify(e.getStatusCode().value());
+      if (t instanceof HttpException e) return classify(e.code());
+      if (t instanceof JsonProcessingException || t instanceof DecodingException) {
+        return Decision.FAIL;
+      }
+      if (t instanceof IllegalArgumentException) return Decision.FAIL;
+      if (t instanceof CallNotPermittedException || t instanceof BulkheadFullException) {
+        return Decision.FAIL;
+      }
+      if (t instanceof WebClientRequestException
+          || t instanceof IOException
+          || t instanceof TimeoutException) return Decision.RETRY;
+    }
+    return Decision.RETRY;
+  }
+
+  public static Decision classify(int status) {
+    if (status == 408 || status == 409 || status == 425 || status == 429 || status >= 500) {
+      return Decision.RETRY;
+    }
+    return status >= 400 ? Decision.FAIL : Decision.RETRY;
+  }
+
+  /** The server's {@code Retry-After} in millis, or {@code -1} when the error carries none. */
+  public static long retryAfterMillis(Throwable error) {
+    for (Throwable t = error; Objects.nonNull(t); t = t.getCause() == t ? null : t.getCause()) {
+      if (t instanceof WebClientResponseException e) return retryAfterMillis(e.getHeaders());
+      if (t instanceof HttpException e && Objects.nonNull(e.response())) {
+        HttpHeaders headers = new HttpHeaders();
+        e.response().headers().forEach(h -> headers.add(h.getFirst(), h.getSecond()));
+        return retryAfterMillis(headers);
+      }
+    }
+    return -1;
+  }
+
+  /** {@code retry-after-ms}, else {@code Retry-After} in seconds; {@code -1} if neither parses. */
+  public static long retryAfterMillis(HttpHeaders headers) {
+    try {
+      String millis = headers.getFirst("retry-after-ms");
+      if (Objects.nonNull(millis)) return Math.round(Double.parseDouble(millis));
+
+      String seconds = headers.getFirst(HttpHeaders.RETRY_AFTER);
+      if (Objects.nonNull(seconds)) {
+        return Math.round(Double.parseDouble(seconds) * TimeUnit.SECONDS.toMillis(1));
+      }
+    } catch (NumberFormatException ignored) {
+      // An HTTP date; fall back to the policy's own delay.
+    }
+    return -1;
+  }
+
+  // Signals the OpenAI stream clients see when the final "[DONE]" event is decoded.
+  private static boolean isEndOfStream(Throwable error) {
+    String message = error.getMessage();
+    return Objects.nonNull(message)
+        && (message.contains("The mapper function returned a null value")
+            || message.contains(
+                "JSON decoding error: Cannot deserialize value of type"
+                    + " `com.edgechain.lib.openai.response.ChatCompletionResponse` from"
+                    + " Array value (token `JsonToken.START_ARRAY`)"));
+  }
+}
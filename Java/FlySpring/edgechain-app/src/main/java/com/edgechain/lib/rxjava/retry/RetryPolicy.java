@@ -1,10 +1,16 @@
 package com.edgechain.lib.rxjava.retry;
 
+import com.edgechain.lib.deadline.Deadline;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.functions.Function;
-
 import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntToLongFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
 public abstract class RetryPolicy
@@ -13,4 +19,75 @@ public abstract class RetryPolicy
   public RetryPolicy() {}
 
   private static final long serialVersionUID = -3531903621076848363L;
+
+  /**
+   * Retries the errors of one subscription. {@code retryWhen} calls {@link #apply} once per
+   * subscription, so the attempt count lives here rather than in the policy, which endpoints share
+   * across concurrent calls.
+   *
+   * <p>Errors are classified by {@link RetryClassifier}; a retryable one is retried after {@code
+   * backoffMillis} of the zero-based retry number, or the server's {@code Retry-After} if longer,
+   * while fewer than {@code maxRetries} attempts have been made and the {@link RetryBudget} allows.
+   * No retry is made if the delay would reach past the subscriber's {@link Deadline}.
+   */
+  protected Observable<?> retry(
+      Observable<? extends Throwable> errors, int maxRetries, IntToLongFunction backoffMillis) {
+    Logger logger = LoggerFactory.getLogger(this.getClass());
+    RetryBudget budget = RetryBudget.getGlobal();
+    budget.onRequest();
+
+    AtomicInteger retryCount = new AtomicInteger();
+    Deadline deadline = Deadline.current();
+
+    return errors.flatMap(
+        (Function<Throwable, Observable<?>>)
+            throwable -> {
+              RetryClassifier.Decision decision = RetryClassifier.classify(throwable);
+              if (decision == RetryClassifier.Decision.COMPLETE) return Observable.empty();
+
+              int attempt = retryCount.incrementAndGet();
+
+              if (decision == RetryClassifier.Decision.FAIL) {
+                logger.error(
+                    String.format(
+                        "Not retryable: Attempt: %s ~ %s", attempt, throwable.getMessage()));
+                return Observable.error(throwable);
+              }
+
+              if (attempt >= maxRetries) {
+                logger.error(
+                    String.format(
+                        "Error Occurred: Attempt: %s, Max Retries: %s ~ %s",
+                        attempt, maxRetries, throwable.getMessage()));
+                return Observable.error(throwable);
+              }
+
+              long delay =
+                  Math.max(
+                      backoffMillis.applyAsLong(attempt - 1),
+                      RetryClassifier.retryAfterMillis(throwable));
+
+              if (Objects.nonNull(deadline) && delay >= deadline.remainingMillis()) {
+                logger.error(
+                    String.format(
+                        "Deadline too close to retry: Attempt: %s ~ %s",
+                        attempt, throwable.getMessage()));
+                return Observable.error(throwable);
+              }
+
+              if (!budget.tryAcquire()) {
+                logger.error(
+                    String.format(
+                        "Retry budget exhausted: Attempt: %s ~ %s",
+                        attempt, throwable.getMessage()));
+                return Observable.error(throwable);
+              }
+
+              logger.info(
+                  String.format(
+                      "Retrying: Attempt: %s, Max Retries: %s ~ %s",
+                      attempt, maxRetries, throwable.getMessage()));
+              return Observable.timer(delay, TimeUnit.MILLISECONDS);
+            });
+  }
 }
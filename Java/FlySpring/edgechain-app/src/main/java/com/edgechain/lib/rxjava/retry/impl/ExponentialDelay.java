@@ -2,20 +2,15 @@ package com.edgechain.lib.rxjava.retry.impl;
 
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.functions.Function;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 public class ExponentialDelay extends RetryPolicy {
 
-  private final Logger logger = LoggerFactory.getLogger(this.getClass());
   private long firstDelay;
   private int maxRetries;
   private int factor;
   private TimeUnit unit = TimeUnit.SECONDS;
-  private int retryCount;
 
   public ExponentialDelay() {}
 
@@ -24,39 +19,16 @@ public class ExponentialDelay extends RetryPolicy {
     this.maxRetries = maxRetries;
     this.factor = factor;
     this.unit = unit;
-    this.retryCount = 0;
   }
 
+  /** Full jitter: each retry waits a random time up to {@code firstDelay * factor^retry}. */
   @Override
   public Observable<?> apply(Observable<? extends Throwable> observable) throws Throwable {
-    return observable.flatMap(
-        (Function<Throwable, Observable<?>>)
-            throwable -> {
-              if (throwable.getMessage().contains("The mapper function returned a null value")
-                  || throwable
-                      .getMessage()
-                      .contains(
-                          "JSON decoding error: Cannot deserialize value of type"
-                              + " `com.edgechain.lib.openai.response.ChatCompletionResponse` from"
-                              + " Array value (token `JsonToken.START_ARRAY`)"))
-                return Observable.empty();
-
-              long compute = compute(firstDelay, retryCount, factor, unit);
-
-              if (++retryCount < maxRetries) {
-                logger.info(
-                    String.format(
-                        "Retrying: Attempt: %s, Max Retries: %s ~ %s",
-                        retryCount, maxRetries, throwable.getMessage()));
-                return Observable.timer(compute, TimeUnit.MILLISECONDS);
-              }
-
-              logger.error(
-                  String.format(
-                      "Error Occurred: Attempt: %s, Max Retries: %s ~ %s",
-                      retryCount, maxRetries, throwable.getMessage()));
-              return Observable.error(throwable);
-            });
+    return retry(
+        observable,
+        maxRetries,
+        retry ->
+            ThreadLocalRandom.current().nextLong(compute(firstDelay, retry, factor, unit) + 1));
   }
 
   private long compute(
@@ -2,20 +2,14 @@ package com.edgechain.lib.rxjava.retry.impl;
 
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.functions.Function;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.TimeUnit;
 
 public class FixedDelay extends RetryPolicy {
 
-  private final Logger logger = LoggerFactory.getLogger(this.getClass());
-
   private int maxRetries;
   private int retryDelay;
   private TimeUnit unit = TimeUnit.SECONDS;
-  private int retryCount;
 
   public FixedDelay() {}
 
@@ -23,38 +17,11 @@ public class FixedDelay extends RetryPolicy {
     this.maxRetries = maxRetries;
     this.retryDelay = retryDelay;
     this.unit = unit;
-    this.retryCount = 0;
   }
 
   @Override
   public Observable<?> apply(final Observable<? extends Throwable> attempts) {
-    return attempts.flatMap(
-        (Function<Throwable, Observable<?>>)
-            throwable -> {
-              if (throwable.getMessage().contains("The mapper function returned a null value")
-                  || throwable
-                      .getMessage()
-                      .contains(
-                          "JSON decoding error: Cannot deserialize value of type"
-                              + " `com.edgechain.lib.openai.response.ChatCompletionResponse` from"
-                              + " Array value (token `JsonToken.START_ARRAY`)"))
-                return Observable.empty();
-
-              if (++retryCount < maxRetries) {
-                logger.info(
-                    String.format(
-                        "Retrying: Attempt: %s, Max Retries: %s ~ %s",
-                        retryCount, maxRetries, throwable.getMessage()));
-                return Observable.timer(unit.toMillis(retryDelay), TimeUnit.MILLISECONDS);
-              }
-
-              // Once, max-retries hit, emit an error.
-              logger.error(
-                  String.format(
-                      "Error Occurred: Attempt: %s, Max Retries: %s ~ %s",
-                      retryCount, maxRetries, throwable.getMessage()));
-              return Observable.error(throwable);
-            });
+    return retry(attempts, maxRetries, retry -> unit.toMillis(retryDelay));
   }
 
   @Override
@@ -67,10 +34,6 @@ public class FixedDelay extends RetryPolicy {
     return sb.toString();
   }
 
-  public int getRetryCount() {
-    return retryCount;
-  }
-
   public int getMaxRetries() {
     return maxRetries;
   }
@@ -0,0 +1,164 @@
+package com.edgechain.lib.rxjava.scheduler;
+
+import com.edgechain.lib.configuration.context.ApplicationContextHolder;
+import com.edgechain.lib.deadline.Deadline;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+
+/**
+ * Schedulers EdgeChain runs blocking work on. {@link #getDefault()} replaces the hard-wired {@code
+ * Schedulers.io()}, whose cached pool starts a new platform thread for every concurrent blocking
+ * call; {@link #get(Subsystem)} gives each subsystem its own named, bounded pool, so a slow
+ * database cannot starve LLM calls and a burst of chats queues instead of spawning threads.
+ *
+ * <ul>
+ *   <li>{@code edgechain.scheduler.default}: {@code io} (default), {@code virtual} (a virtual
+ *       thread per task, JDK 21 or later; falls back to {@code io} on older runtimes) or {@code
+ *       bounded}
+ *   <li>{@code edgechain.scheduler.default.threads}: size of the {@code bounded} pool, default 256
+ *   <li>{@code edgechain.scheduler.<llm|embeddings|db|tools>.threads}: subsystem pool sizes,
+ *       default 64, 32, 16 and 16
+ * </ul>
+ */
+public final class EdgeChainSchedulers {
+
+  public enum Subsystem {
+    LLM(64),
+    EMBEDDINGS(32),
+    DB(16),
+    TOOLS(16);
+
+    private final int defaultThreads;
+
+    Subsystem(int defaultThreads) {
+      this.defaultThreads = defaultThreads;
+    }
+
+    public int getDefaultThreads() {
+      return defaultThreads;
+    }
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(EdgeChainSchedulers.class);
+
+  private static volatile Scheduler defaultScheduler;
+  private static final Map<Subsystem, Scheduler> subsystems = new ConcurrentHashMap<>();
+
+  private EdgeChainSchedulers() {}
+
+  /** The scheduler {@code EdgeChain} subscribes on unless told otherwise. */
+  public static Scheduler getDefault() {
+    if (Objects.isNull(defaultScheduler)) {
+      synchronized (EdgeChainSchedulers.class) {
+        if (Objects.isNull(defaultScheduler)) defaultScheduler = createDefault(environment());
+      }
+    }
+    return defaultScheduler;
+  }
+
+  /** Replaces the default scheduler, e.g. with {@link #virtualThreads()} or a test scheduler. */
+  public static void setDefault(Scheduler scheduler) {
+    synchronized (EdgeChainSchedulers.class) {
+      defaultScheduler = Objects.requireNonNull(scheduler);
+    }
+  }
+
+  /** The bounded pool of {@code subsystem}, with threads named after it. */
+  public static Scheduler get(Subsystem subsystem) {
+    return subsystems.computeIfAbsent(
+        subsystem,
+        s -> {
+          String name = s.name().toLowerCase(Locale.ROOT);
+          Environment env = environment();
+          int threads =
+              Objects.nonNull(env)
+                  ? env.getProperty(
+                      "edgechain.scheduler." + name + ".threads", Integer.class, s.defaultThreads)
+                  : s.defaultThreads;
+          return bounded(name, threads);
+        });
+  }
+
+  /**
+   * Subscribes to {@code source} on the pool of {@code subsystem}; the subscriber's {@link
+   * Deadline} goes along, as with any scheduler.
+   */
+  public static <T> Observable<T> subscribeOn(Observable<T> source, Subsystem subsystem) {
+    return source.subscribeOn(get(subsystem));
+  }
+
+  /**
+   * A fixed pool of {@code threads} daemon threads named {@code edgechain-<name>-<n>}; work beyond
+   * that waits in the pool's queue.
+   */
+  public static Scheduler bounded(String name, int threads) {
+    AtomicInteger count = new AtomicInteger();
+    return Schedulers.from(
+        Executors.newFixedThreadPool(
+            threads,
+            r -> {
+              Thread thread = new Thread(r, "edgechain-" + name + "-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }));
+  }
+
+  /**
+   * A scheduler starting a virtual thread per task, so blocking calls park cheaply instead of
+   * holding a platform thread. Looked up reflectively, as the library still targets Java 17.
+   *
+   * @throws UnsupportedOperationException on runtimes older than JDK 21
+   */
+  public static Scheduler virtualThreads() {
+    try {
+      ExecutorService executor =
+          (ExecutorService)
+              Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      return Schedulers.from(executor);
+    } catch (NoSuchMethodException e) {
+      throw new UnsupportedOperationException(
+          "Virtual threads need JDK 21 or later; running on " + Runtime.version(), e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Scheduler createDefault(Environment env) {
+    String type =
+        Objects.nonNull(env) ? env.getProperty("edgechain.scheduler.default", "io") : "io";
+
+    switch (type.toLowerCase(Locale.ROOT)) {
+      case "virtual":
+        try {
+          return virtualThreads();
+        } catch (UnsupportedOperationException e) {
+          logger.warn(e.getMessage() + "; using Schedulers.io()");
+          return Schedulers.io();
+        }
+      case "bounded":
+        return bounded(
+            "default", env.getProperty("edgechain.scheduler.default.threads", Integer.class, 256));
+      case "io":
+        return Schedulers.io();
+      default:
+        throw new IllegalArgumentException("Unknown edgechain.scheduler.default: " + type);
+    }
+  }
+
+  private static Environment environment() {
+    ApplicationContext context = ApplicationContextHolder.getContext();
+    return Objects.nonNull(context) ? context.getEnvironment() : null;
+  }
+}
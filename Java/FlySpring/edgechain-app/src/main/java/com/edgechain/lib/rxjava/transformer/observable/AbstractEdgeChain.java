@@ -1,6 +1,7 @@
 package com.edgechain.lib.rxjava.transformer.observable;
 
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
 import io.reactivex.rxjava3.annotations.NonNull;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Notification;
@@ -16,6 +17,7 @@ import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.functions.Function;
 import io.reactivex.rxjava3.functions.Predicate;
 import java.io.Serializable;
+import java.time.Duration;
 
 public abstract class AbstractEdgeChain<T> implements Serializable {
 
@@ -59,11 +61,17 @@ public abstract class AbstractEdgeChain<T> implements Serializable {
 
   public abstract AbstractEdgeChain<T> schedule(Scheduler scheduler);
 
+  public abstract AbstractEdgeChain<T> schedule(EdgeChainSchedulers.Subsystem subsystem);
+
   public abstract AbstractEdgeChain<T> retry(
       Function<? super Observable<Throwable>, ? extends ObservableSource<?>> handler);
 
   public abstract AbstractEdgeChain<T> doWhileLoop(BooleanSupplier booleanSupplier);
 
+  public abstract AbstractEdgeChain<T> hedge(Duration after, int maxExtra);
+
+  public abstract AbstractEdgeChain<T> hedge(int maxExtra);
+
   public abstract void execute();
 
   public abstract void execute(RetryPolicy retryPolicy);
@@ -1,10 +1,15 @@
 package com.edgechain.lib.rxjava.transformer.observable;
 
+import com.edgechain.lib.deadline.Deadline;
 import com.edgechain.lib.endpoint.Endpoint;
+import com.edgechain.lib.logger.metrics.StageInstrumentation;
 import com.edgechain.lib.response.ArkResponse;
 import com.edgechain.lib.response.ArkEmitter;
 import com.edgechain.lib.response.ArkObservable;
+import com.edgechain.lib.rxjava.bulkhead.Bulkhead;
+import com.edgechain.lib.rxjava.circuitbreaker.CircuitBreaker;
 import com.edgechain.lib.rxjava.retry.RetryPolicy;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
 import com.edgechain.lib.utils.RetryUtils;
 import io.reactivex.rxjava3.annotations.NonNull;
 import io.reactivex.rxjava3.core.*;
@@ -13,6 +18,8 @@ import io.reactivex.rxjava3.functions.*;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.Objects;
 
 public class EdgeChain<T> extends AbstractEdgeChain<T> implements Serializable {
 
@@ -20,6 +27,9 @@ public class EdgeChain<T> extends AbstractEdgeChain<T> implements Serializable {
 
   private Endpoint endpoint;
 
+  // Taken from the thread the chain is built on, e.g. the request thread; see Deadline.
+  private transient Deadline deadline = Deadline.current();
+
   public EdgeChain(Observable<T> observable) {
     super(observable);
   }
@@ -33,80 +43,97 @@ public class EdgeChain<T> extends AbstractEdgeChain<T> implements Serializable {
     super(Observable.just(item));
   }
 
+  /** Gives the chain {@code budget} from now, or less if it already has a sooner deadline. */
+  public EdgeChain<T> withDeadline(Duration budget) {
+    EdgeChain<T> chain = carry(new EdgeChain<>(this.observable, endpoint));
+    chain.deadline = Deadline.earliest(chain.deadline, Deadline.after(budget));
+    return chain;
+  }
+
+  public Deadline getDeadline() {
+    return deadline;
+  }
+
   @Override
   public <R> EdgeChain<R> transform(Function<T, R> mapper) {
-    return new EdgeChain<>(this.observable.map(mapper));
+    return carry(new EdgeChain<>(this.observable.map(mapper)));
   }
 
   @Override
   public <R> EdgeChain<R> combine(ObservableSource<T> other, BiFunction<T, T, R> zipper) {
-    return new EdgeChain<>(this.observable.zipWith(other, zipper));
+    return carry(new EdgeChain<>(this.observable.zipWith(other, zipper)));
   }
 
   @Override
   public <R> EdgeChain<R> combine(EdgeChain<T> other, BiFunction<T, T, R> zipper) {
-    return new EdgeChain<>(this.observable.zipWith(other.getObservable(), zipper));
+    return carry(new EdgeChain<>(this.observable.zipWith(other.getObservable(), zipper)));
   }
 
   @Override
   public EdgeChain<T> filter(Predicate<T> predicate) {
-    return new EdgeChain<>(this.observable.filter(predicate));
+    return carry(new EdgeChain<>(this.observable.filter(predicate)));
   }
 
   @Override
   public EdgeChain<T> mergeWith(ObservableSource<T> other) {
-    return new EdgeChain<>(this.observable.mergeWith(other));
+    return carry(new EdgeChain<>(this.observable.mergeWith(other)));
   }
 
   @Override
   public EdgeChain<T> concatWith(ObservableSource<T> other) {
-    return new EdgeChain<>(this.observable.concatWith(other));
+    return carry(new EdgeChain<>(this.observable.concatWith(other)));
   }
 
   @Override
   public EdgeChain<T> doOnComplete(Action onComplete) {
-    return new EdgeChain<>(this.observable.doOnComplete(onComplete), endpoint);
+    return carry(new EdgeChain<>(this.observable.doOnComplete(onComplete), endpoint));
   }
 
   @Override
   public EdgeChain<T> doOnNext(@NonNull Consumer<? super T> onNext) {
-    return new EdgeChain<>(this.observable.doOnNext(onNext), endpoint);
+    return carry(new EdgeChain<>(this.observable.doOnNext(onNext), endpoint));
   }
 
   @Override
   public EdgeChain<T> doOnEach(@NonNull Consumer<? super Notification<T>> onNotification) {
-    return new EdgeChain<>(this.observable.doOnEach(onNotification), endpoint);
+    return carry(new EdgeChain<>(this.observable.doOnEach(onNotification), endpoint));
   }
 
   @Override
   public EdgeChain<T> doAfterNext(@NonNull Consumer<? super T> onAfterNext) {
-    return new EdgeChain<>(this.observable.doAfterNext(onAfterNext), endpoint);
+    return carry(new EdgeChain<>(this.observable.doAfterNext(onAfterNext), endpoint));
   }
 
   @Override
   public EdgeChain<T> doOnError(@NonNull Consumer<? super Throwable> onError) {
-    return new EdgeChain<>(this.observable.doOnError(onError), endpoint);
+    return carry(new EdgeChain<>(this.observable.doOnError(onError), endpoint));
   }
 
   @Override
   public EdgeChain<T> doOnSubscribe(Consumer<? super Disposable> onSubscribe) {
-    return new EdgeChain<>(this.observable.doOnSubscribe(onSubscribe), endpoint);
+    return carry(new EdgeChain<>(this.observable.doOnSubscribe(onSubscribe), endpoint));
   }
 
   @Override
   public EdgeChain<T> schedule() {
-    return new EdgeChain<>(this.observable.subscribeOn(Schedulers.io()));
+    return carry(new EdgeChain<>(this.observable.subscribeOn(EdgeChainSchedulers.getDefault())));
   }
 
   @Override
   public EdgeChain<T> schedule(Scheduler scheduler) {
-    return new EdgeChain<>(this.observable.subscribeOn(scheduler));
+    return carry(new EdgeChain<>(this.observable.subscribeOn(scheduler)));
+  }
+
+  /** Subscribes on the bounded pool of {@code subsystem} instead of the default scheduler. */
+  @Override
+  public EdgeChain<T> schedule(EdgeChainSchedulers.Subsystem subsystem) {
+    return carry(new EdgeChain<>(this.observable.subscribeOn(EdgeChainSchedulers.get(subsystem))));
   }
 
   @Override
   public EdgeChain<T> retry(
       Function<? super Observable<Throwable>, ? extends ObservableSource<?>> handler) {
-    return new EdgeChain<>(this.observable.retryWhen(handler));
+    return carry(new EdgeChain<>(this.observable.retryWhen(handler)));
   }
 
   /**
@@ -117,34 +144,105 @@ public class EdgeChain<T> extends AbstractEdgeChain<T> implements Serializable {
    */
   @Override
   public EdgeChain<T> doWhileLoop(BooleanSupplier booleanSupplier) {
-    return new EdgeChain<>(this.observable.repeatUntil(booleanSupplier));
+    return carry(new EdgeChain<>(this.observable.repeatUntil(booleanSupplier)));
+  }
+
+  /**
+   * Times every subscription to this chain as {@code stage}: calls, in-flight calls, errors by type
+   * and latency, in process, as a Micrometer observation and as a JFR event. Endpoint calls are
+   * already timed as {@code <endpoint class>.<operation>}; use this for stages of your own, such as
+   * prompt rendering. The chain is timed as a stream: disposed before it completes, it counts as
+   * cancelled.
+   */
+  public EdgeChain<T> instrument(String stage) {
+    return instrument(stage, false);
+  }
+
+  /**
+   * Times this chain as {@code stage}, as {@link #instrument(String)}. Pass {@code singleResult}
+   * when the chain emits at most one item, so that taking it with {@link #toSingle()} or {@link
+   * #get()} counts as a success rather than a cancellation.
+   */
+  public EdgeChain<T> instrument(String stage, boolean singleResult) {
+    return carry(
+        new EdgeChain<>(
+            StageInstrumentation.observe(stage, this.observable, singleResult), endpoint));
+  }
+
+  /**
+   * Hedges a single-result, idempotent call (embeddings, vector queries, Wiki lookups): if no
+   * result has arrived after {@code after}, the call is subscribed again, up to {@code maxExtra}
+   * times, one {@code after} apart. The first result is taken and the other attempts are disposed.
+   * Only the first item is emitted. No attempt is started that would begin after the deadline.
+   */
+  @Override
+  public EdgeChain<T> hedge(Duration after, int maxExtra) {
+    return carry(
+        new EdgeChain<>(
+            Hedging.hedge(
+                bound(this.observable),
+                after::toMillis,
+                maxExtra,
+                null,
+                deadline,
+                Schedulers.computation()),
+            endpoint));
+  }
+
+  /**
+   * Same as {@link #hedge(Duration, int)}, waiting for the 95th percentile latency observed for
+   * this endpoint (its type and url). Hedging starts once the endpoint has 20 recorded calls.
+   */
+  @Override
+  public EdgeChain<T> hedge(int maxExtra) {
+    Hedging.LatencyWindow window = Hedging.window(endpoint);
+    return carry(
+        new EdgeChain<>(
+            Hedging.hedge(
+                bound(this.observable),
+                window::p95,
+                maxExtra,
+                window,
+                deadline,
+                Schedulers.computation()),
+            endpoint));
   }
 
   @Override
   public void execute() {
-    this.observable.subscribeOn(Schedulers.io()).subscribe();
+    limited(this.observable).subscribeOn(EdgeChainSchedulers.getDefault()).subscribe();
   }
 
   @Override
   public void execute(RetryPolicy retryPolicy) {
-    this.observable.subscribeOn(Schedulers.io()).retryWhen(retryPolicy).subscribe();
+    limited(this.observable)
+        .subscribeOn(EdgeChainSchedulers.getDefault())
+        .retryWhen(retryPolicy)
+        .subscribe();
   }
 
   @Override
   public void execute(Consumer<? super T> onNext, Consumer<? super Throwable> onError) {
-    this.observable.subscribeOn(Schedulers.io()).subscribe(onNext, onError);
+    limited(this.observable)
+        .subscribeOn(EdgeChainSchedulers.getDefault())
+        .subscribe(onNext, onError);
   }
 
   @Override
   public void execute(
       Consumer<? super T> onNext, Consumer<? super Throwable> onError, RetryPolicy retryPolicy) {
-    this.observable.subscribeOn(Schedulers.io()).retryWhen(retryPolicy).subscribe(onNext, onError);
+    limited(this.observable)
+        .subscribeOn(EdgeChainSchedulers.getDefault())
+        .retryWhen(retryPolicy)
+        .subscribe(onNext, onError);
   }
 
   @Override
   public void execute(
       Consumer<? super T> onNext, Consumer<? super Throwable> onError, Action onComplete) {
-    this.observable.subscribeOn(Schedulers.io()).subscribe(onNext, onError, onComplete);
+    limited(this.observable)
+        .subscribeOn(EdgeChainSchedulers.getDefault())
+        .subscribe(onNext, onError, onComplete);
   }
 
   @Override
@@ -153,8 +251,8 @@ public class EdgeChain<T> extends AbstractEdgeChain<T> implements Serializable {
       Consumer<? super Throwable> onError,
       Action onComplete,
       RetryPolicy retryPolicy) {
-    this.observable
-        .subscribeOn(Schedulers.io())
+    limited(this.observable)
+        .subscribeOn(EdgeChainSchedulers.getDefault())
         .retryWhen(retryPolicy)
         .subscribe(onNext, onError, onComplete);
   }
@@ -163,33 +261,35 @@ public class EdgeChain<T> extends AbstractEdgeChain<T> implements Serializable {
   public Observable<T> getScheduledObservable() {
 
     if (RetryUtils.available(endpoint))
-      return this.observable.retryWhen(endpoint.getRetryPolicy()).subscribeOn(Schedulers.io());
-    else return this.observable.subscribeOn(Schedulers.io());
+      return limited(guarded().retryWhen(endpoint.getRetryPolicy()))
+          .subscribeOn(EdgeChainSchedulers.getDefault());
+    else return limited(guarded()).subscribeOn(EdgeChainSchedulers.getDefault());
   }
 
   @Override
   public Single<T> toSingle() {
 
     if (RetryUtils.available(endpoint))
-      return this.observable
-          .subscribeOn(Schedulers.io())
-          .retryWhen(endpoint.getRetryPolicy())
+      return limited(
+              guarded()
+                  .subscribeOn(EdgeChainSchedulers.getDefault())
+                  .retryWhen(endpoint.getRetryPolicy()))
           .firstOrError();
-    else return this.observable.subscribeOn(Schedulers.io()).firstOrError();
+    else return limited(guarded()).subscribeOn(EdgeChainSchedulers.getDefault()).firstOrError();
   }
 
   public Single<T> toSingleWithoutScheduler() {
 
     if (RetryUtils.available(endpoint))
-      return this.observable.retryWhen(endpoint.getRetryPolicy()).firstOrError();
-    else return this.observable.firstOrError();
+      return limited(guarded().retryWhen(endpoint.getRetryPolicy())).firstOrError();
+    else return limited(guarded()).firstOrError();
   }
 
   @Override
   public T get() {
     if (RetryUtils.available(endpoint))
-      return this.observable.retryWhen(endpoint.getRetryPolicy()).firstOrError().blockingGet();
-    else return this.observable.firstOrError().blockingGet();
+      return limited(guarded().retryWhen(endpoint.getRetryPolicy())).firstOrError().blockingGet();
+    else return limited(guarded()).firstOrError().blockingGet();
   }
 
   @Override
@@ -201,28 +301,51 @@ public class EdgeChain<T> extends AbstractEdgeChain<T> implements Serializable {
   public Completable await() {
 
     if (RetryUtils.available(endpoint))
-      return this.observable
-          .subscribeOn(Schedulers.io())
-          .retryWhen(endpoint.getRetryPolicy())
+      return limited(
+              guarded()
+                  .subscribeOn(EdgeChainSchedulers.getDefault())
+                  .retryWhen(endpoint.getRetryPolicy()))
           .firstOrError()
           .ignoreElement();
-    else return this.observable.subscribeOn(Schedulers.io()).firstOrError().ignoreElement();
+    else
+      return limited(guarded())
+          .subscribeOn(EdgeChainSchedulers.getDefault())
+          .firstOrError()
+          .ignoreElement();
+  }
+
+  /**
+   * The circuit breaker shared by this chain's endpoint, or {@code null} when it has no {@link
+   * com.edgechain.lib.rxjava.circuitbreaker.CircuitBreakerPolicy}. Check {@code getState()} to
+   * skip the call or fall back while the downstream is failing.
+   */
+  public CircuitBreaker getCircuitBreaker() {
+    return EndpointGuard.circuitBreaker(endpoint);
+  }
+
+  /** The bulkhead shared by this chain's endpoint, or {@code null} when it has none. */
+  public Bulkhead getBulkhead() {
+    return EndpointGuard.bulkhead(endpoint);
   }
 
   @Override
   public void completed() {
-    Completable.fromObservable(this.observable).subscribeOn(Schedulers.io()).subscribe();
+    Completable.fromObservable(limited(this.observable))
+        .subscribeOn(EdgeChainSchedulers.getDefault())
+        .subscribe();
   }
 
   @Override
   public void completed(Action onComplete) {
-    Completable.fromObservable(this.observable).subscribeOn(Schedulers.io()).subscribe(onComplete);
+    Completable.fromObservable(limited(this.observable))
+        .subscribeOn(EdgeChainSchedulers.getDefault())
+        .subscribe(onComplete);
   }
 
   @Override
   public void completed(Action onComplete, Consumer<? super Throwable> onError) {
-    Completable.fromObservable(this.observable)
-        .subscribeOn(Schedulers.io())
+    Completable.fromObservable(limited(this.observable))
+        .subscribeOn(EdgeChainSchedulers.getDefault())
         .subscribe(onComplete, onError);
   }
 
@@ -233,4 +356,24 @@ public class EdgeChain<T> extends AbstractEdgeChain<T> implements Serializable {
   public ArkResponse getArkStreamResponse() {
     return new ArkEmitter<>(this.observable);
   }
+
+  // The endpoint's bulkhead and circuit breaker, checked again on every (re)subscription.
+  private Observable<T> guarded() {
+    return bound(EndpointGuard.guard(this.observable, endpoint));
+  }
+
+  // Each attempt fails fast once the deadline has passed and sees it while subscribing.
+  private <R> Observable<R> bound(Observable<R> source) {
+    return Objects.nonNull(deadline) ? deadline.bind(source) : source;
+  }
+
+  // The whole call, retries included, times out at the deadline.
+  private <R> Observable<R> limited(Observable<R> source) {
+    return Objects.nonNull(deadline) ? deadline.limit(source) : source;
+  }
+
+  private <R> EdgeChain<R> carry(EdgeChain<R> chain) {
+    chain.deadline = Deadline.earliest(chain.deadline, deadline);
+    return chain;
+  }
 }
@@ -0,0 +1,91 @@
+package com.edgechain.lib.rxjava.transformer.observable;
+
+import com.edgechain.lib.endpoint.Endpoint;
+import com.edgechain.lib.rxjava.bulkhead.Bulkhead;
+import com.edgechain.lib.rxjava.bulkhead.BulkheadFullException;
+import com.edgechain.lib.rxjava.bulkhead.BulkheadPolicy;
+import com.edgechain.lib.rxjava.circuitbreaker.CallNotPermittedException;
+import com.edgechain.lib.rxjava.circuitbreaker.CircuitBreaker;
+import com.edgechain.lib.rxjava.circuitbreaker.CircuitBreakerPolicy;
+import io.reactivex.rxjava3.core.Observable;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs each subscription to an endpoint's observable through its {@link Bulkhead} and {@link
+ * CircuitBreaker}, rejecting it before it starts when either has no room. Applied inside {@code
+ * retryWhen}, so every retry is a separate call and an open breaker stops the retries as well.
+ */
+final class EndpointGuard {
+
+  private EndpointGuard() {}
+
+  static CircuitBreaker circuitBreaker(Endpoint endpoint) {
+    if (Objects.isNull(endpoint)) return null;
+    CircuitBreakerPolicy policy = endpoint.getCircuitBreakerPolicy();
+    if (Objects.isNull(policy)) return null;
+    return CircuitBreaker.of(name(policy.getName(), endpoint), policy);
+  }
+
+  static Bulkhead bulkhead(Endpoint endpoint) {
+    if (Objects.isNull(endpoint)) return null;
+    BulkheadPolicy policy = endpoint.getBulkheadPolicy();
+    if (Objects.isNull(policy)) return null;
+    return Bulkhead.of(name(policy.getName(), endpoint), policy);
+  }
+
+  static <T> Observable<T> guard(Observable<T> source, Endpoint endpoint) {
+    return guard(source, circuitBreaker(endpoint), bulkhead(endpoint));
+  }
+
+  static <T> Observable<T> guard(
+      Observable<T> source, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+    if (Objects.isNull(circuitBreaker) && Objects.isNull(bulkhead)) return source;
+
+    return Observable.defer(
+        () -> {
+          if (Objects.nonNull(bulkhead) && !bulkhead.tryAcquire()) {
+            return Observable.error(new BulkheadFullException(bulkhead));
+          }
+          if (Objects.nonNull(circuitBreaker) && !circuitBreaker.tryAcquire()) {
+            if (Objects.nonNull(bulkhead)) bulkhead.release();
+            return Observable.error(new CallNotPermittedException(circuitBreaker));
+          }
+
+          AtomicBoolean emitted = new AtomicBoolean();
+          AtomicBoolean finished = new AtomicBoolean();
+          return source
+              .doOnNext(v -> emitted.set(true))
+              .doOnComplete(
+                  () -> {
+                    if (finished.compareAndSet(false, true)) {
+                      if (Objects.nonNull(circuitBreaker)) circuitBreaker.onSuccess();
+                      if (Objects.nonNull(bulkhead)) bulkhead.release();
+                    }
+                  })
+              .doOnError(
+                  e -> {
+                    if (finished.compareAndSet(false, true)) {
+                      if (Objects.nonNull(circuitBreaker)) circuitBreaker.onError(e);
+                      if (Objects.nonNull(bulkhead)) bulkhead.release();
+                    }
+                  })
+              .doOnDispose(
+                  () -> {
+                    // firstOrError() disposes after the first item, which still means success.
+                    if (finished.compareAndSet(false, true)) {
+                      if (Objects.nonNull(circuitBreaker)) {
+                        if (emitted.get()) circuitBreaker.onSuccess();
+                        else circuitBreaker.onCancel();
+                      }
+                      if (Objects.nonNull(bulkhead)) bulkhead.release();
+                    }
+                  });
+        });
+  }
+
+  // Shared per endpoint type unless the policy names its own breaker or bulkhead.
+  private static String name(String name, Endpoint endpoint) {
+    return Objects.nonNull(name) ? name : endpoint.getClass().getSimpleName();
+  }
+}
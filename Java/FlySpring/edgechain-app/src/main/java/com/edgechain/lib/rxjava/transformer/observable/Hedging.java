@@ -0,0 +1,110 @@
+package com.edgechain.lib.rxjava.transformer.observable;
+
+import com.edgechain.lib.deadline.Deadline;
+import com.edgechain.lib.endpoint.Endpoint;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.exceptions.CompositeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/** Implementation of {@link EdgeChain#hedge}. */
+final class Hedging {
+
+  private static final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+  private Hedging() {}
+
+  /**
+   * Subscribes to {@code source} and, while it has not emitted, to up to {@code maxExtra} more
+   * copies, one every {@code delayMillis}. The first item wins and every other attempt is disposed.
+   * An attempt's error only surfaces once all attempts have failed. A negative delay disables
+   * hedging for that subscription.
+   *
+   * @param window optional; records how long the call took to its first item. It exceeds the
+   *     hedging delay exactly when the primary's latency does, so the percentile the delay comes
+   *     from is not skewed by hedging. Calls disposed before any item are not recorded.
+   * @param deadline optional; copies that would start after it are not made
+   */
+  static <T> Observable<T> hedge(
+      Observable<T> source,
+      LongSupplier delayMillis,
+      int maxExtra,
+      LatencyWindow window,
+      Deadline deadline,
+      Scheduler scheduler) {
+    return Observable.defer(
+        () -> {
+          Observable<T> hedged = attempts(source, delayMillis, maxExtra, deadline, scheduler);
+          if (Objects.isNull(window)) return hedged;
+
+          long startedAt = System.nanoTime();
+          return hedged.doOnNext(
+              t -> window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)));
+        });
+  }
+
+  private static <T> Observable<T> attempts(
+      Observable<T> source,
+      LongSupplier delayMillis,
+      int maxExtra,
+      Deadline deadline,
+      Scheduler scheduler) {
+    long delay = maxExtra > 0 ? delayMillis.getAsLong() : -1;
+    if (delay < 0) return source.take(1);
+
+    List<Observable<T>> attempts = new ArrayList<>(maxExtra + 1);
+    attempts.add(source.take(1));
+    for (int i = 1; i <= maxExtra; i++) {
+      if (Objects.nonNull(deadline) && delay * i >= deadline.remainingMillis()) break;
+      attempts.add(source.take(1).delaySubscription(delay * i, TimeUnit.MILLISECONDS, scheduler));
+    }
+
+    return Observable.mergeDelayError(attempts)
+        .take(1)
+        .onErrorResumeNext(
+            e ->
+                Observable.error(
+                    e instanceof CompositeException c ? c.getExceptions().get(0) : e));
+  }
+
+  static LatencyWindow window(Endpoint endpoint) {
+    String key =
+        Objects.isNull(endpoint)
+            ? "default"
+            : endpoint.getClass().getName() + "|" + endpoint.getUrl();
+    return windows.computeIfAbsent(key, k -> new LatencyWindow());
+  }
+
+  /** The most recent latencies of one endpoint. */
+  static final class LatencyWindow {
+
+    private static final int SIZE = 256;
+    private static final int MIN_SAMPLES = 20;
+
+    private final long[] samples = new long[SIZE];
+    private int next;
+    private int count;
+
+    synchronized void record(long millis) {
+      samples[next] = millis;
+      next = (next + 1) % SIZE;
+      count = Math.min(count + 1, SIZE);
+    }
+
+    /** The 95th percentile in millis, or {@code -1} until enough calls have been seen. */
+    synchronized long p95() {
+      if (count < MIN_SAMPLES) return -1;
+
+      long[] sorted = Arrays.copyOf(samples, count);
+      Arrays.sort(sorted);
+      return sorted[(int) Math.ceil(count * 0.95) - 1];
+    }
+  }
+}
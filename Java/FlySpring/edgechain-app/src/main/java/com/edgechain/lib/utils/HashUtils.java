@@ -0,0 +1,30 @@
+package com.edgechain.lib.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+public class HashUtils {
+
+  // 128 bits of SHA-256 keeps keys short while collisions stay negligible per namespace.
+  private static final int CONTENT_HASH_BYTES = 16;
+
+  public static String sha256(String input) {
+    return HexFormat.of().formatHex(digest(input));
+  }
+
+  /** Compact, stable identifier for arbitrary (possibly very long) content such as a chunk. */
+  public static String contentHash(String input) {
+    return HexFormat.of().formatHex(Arrays.copyOf(digest(input), CONTENT_HASH_BYTES));
+  }
+
+  private static byte[] digest(String input) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.edgechain.lib.utils;
+
+import com.knuddels.jtokkit.api.Encoding;
+
+/**
+ * Counts completion tokens as streamed deltas arrive, without keeping the text. OpenAI sends one
+ * token per delta, so encoding each delta on its own matches the billed count; a delta carrying
+ * several tokens is still counted by encoding it rather than as one chunk.
+ */
+public class StreamingTokenCounter {
+
+  private final Encoding encoding;
+  private long tokens;
+
+  public StreamingTokenCounter(String model) {
+    this.encoding = TokenUtils.encodingForModel(model);
+  }
+
+  /** Adds {@code delta} and returns the running total. */
+  public synchronized long add(String delta) {
+    if (delta != null && !delta.isEmpty()) tokens += encoding.countTokens(delta);
+    return tokens;
+  }
+
+  public synchronized long getTokens() {
+    return tokens;
+  }
+}
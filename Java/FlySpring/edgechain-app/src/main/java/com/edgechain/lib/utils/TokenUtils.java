@@ -0,0 +1,78 @@
+package com.edgechain.lib.utils;
+
+import com.edgechain.lib.openai.request.ChatMessage;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TokenUtils {
+
+  // Building a registry is expensive; share one and cache the (thread-safe) encoding per model.
+  private static final EncodingRegistry REGISTRY = Encodings.newLazyEncodingRegistry();
+
+  private static final Encoding CL100K_BASE = REGISTRY.getEncoding(EncodingType.CL100K_BASE);
+
+  private static final Map<String, Encoding> ENCODINGS_BY_MODEL = new ConcurrentHashMap<>();
+
+  // Every reply is primed with <|start|>assistant<|message|>.
+  private static final int REPLY_TOKENS = 3;
+
+  public static int countTokens(String input) {
+    return countTokens(CL100K_BASE, input);
+  }
+
+  public static int countTokens(String model, String input) {
+    return countTokens(encodingForModel(model), input);
+  }
+
+  /**
+   * Prompt tokens billed for a chat completion: each message's role and content plus the chat
+   * format's per-message overhead. Message counts are memoized on the {@link ChatMessage}, so
+   * resending a conversation only tokenizes the new messages.
+   */
+  public static int countPromptTokens(String model, List<ChatMessage> messages) {
+    Encoding encoding = encodingForModel(model);
+    int perMessage = messageOverhead(model);
+
+    int tokens = REPLY_TOKENS;
+    for (ChatMessage message : messages) {
+      tokens += perMessage + message.countTokens(encoding);
+    }
+    return tokens;
+  }
+
+  /**
+   * The encoding of {@code model}, resolving dated snapshots (e.g. {@code gpt-4-0613}) to their
+   * base model. Unknown models use cl100k_base.
+   */
+  public static Encoding encodingForModel(String model) {
+    if (Objects.isNull(model)) return CL100K_BASE;
+    return ENCODINGS_BY_MODEL.computeIfAbsent(model, TokenUtils::resolveEncoding);
+  }
+
+  private static int countTokens(Encoding encoding, String input) {
+    return (input == null || input.isEmpty()) ? 0 : encoding.countTokens(input);
+  }
+
+  private static Encoding resolveEncoding(String model) {
+    String name = model;
+    while (true) {
+      Optional<Encoding> encoding = REGISTRY.getEncodingForModel(name);
+      if (encoding.isPresent()) return encoding.get();
+
+      int dash = name.lastIndexOf('-');
+      if (dash <= 0) return CL100K_BASE;
+      name = name.substring(0, dash);
+    }
+  }
+
+  private static int messageOverhead(String model) {
+    return Objects.nonNull(model) && model.startsWith("gpt-3.5-turbo-0301") ? 4 : 3;
+  }
+}
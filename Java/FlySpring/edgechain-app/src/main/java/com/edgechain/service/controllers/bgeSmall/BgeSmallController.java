@@ -5,6 +5,7 @@ import com.edgechain.lib.embeddings.bgeSmall.BgeSmallClient;
 import com.edgechain.lib.embeddings.bgeSmall.response.BgeSmallResponse;
 import com.edgechain.lib.endpoint.impl.embeddings.BgeSmallEndpoint;
 import com.edgechain.lib.logger.entities.EmbeddingLog;
+import com.edgechain.lib.logger.metrics.CallMetricsService;
 import com.edgechain.lib.logger.services.EmbeddingLogService;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
 import io.reactivex.rxjava3.core.Single;
@@ -26,14 +27,25 @@ public class BgeSmallController {
   @Autowired private BgeSmallClient bgeSmallClient;
 
   @Autowired private EmbeddingLogService embeddingLogService;
+  @Autowired private CallMetricsService callMetricsService;
 
   @Autowired private Environment env;
 
   @PostMapping
   public Single<BgeSmallResponse> embeddings(@RequestBody BgeSmallEndpoint bgeSmallEndpoint) {
 
+    long startedAt = System.currentTimeMillis();
     EdgeChain<BgeSmallResponse> edgeChain =
-        this.bgeSmallClient.createEmbeddings(bgeSmallEndpoint.getRawText(), bgeSmallEndpoint);
+        this.bgeSmallClient
+            .createEmbeddings(bgeSmallEndpoint.getRawText(), bgeSmallEndpoint)
+            .doOnNext(
+                c ->
+                    callMetricsService.record(
+                        "bge-small-en",
+                        null,
+                        bgeSmallEndpoint.getCallIdentifier(),
+                        System.currentTimeMillis() - startedAt,
+                        -1));
 
     if (Objects.nonNull(env.getProperty("postgres.db.host"))) {
 
@@ -49,7 +61,7 @@ public class BgeSmallController {
                 Duration duration =
                     Duration.between(embeddingLog.getCreatedAt(), embeddingLog.getCompletedAt());
                 embeddingLog.setLatency(duration.toMillis());
-                embeddingLogService.saveOrUpdate(embeddingLog);
+                embeddingLogService.saveAsync(embeddingLog);
               })
           .toSingleWithoutScheduler();
     }
@@ -1,20 +1,25 @@
 package com.edgechain.service.controllers.context;
 
 import com.edgechain.lib.configuration.WebConfiguration;
-import com.edgechain.lib.context.client.impl.PostgreSQLHistoryContextClient;
+import com.edgechain.lib.context.client.cache.NearCacheHistoryContextClient;
 import com.edgechain.lib.context.domain.ContextPutRequest;
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 import com.edgechain.lib.endpoint.impl.context.PostgreSQLHistoryContextEndpoint;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(value = WebConfiguration.CONTEXT_PATH + "/context/postgresql")
 public class PostgreSQLHistoryContextController {
 
-  @Autowired private PostgreSQLHistoryContextClient contextClient;
+  @Autowired @Lazy
+  private NearCacheHistoryContextClient<PostgreSQLHistoryContextEndpoint> contextClient;
 
   @PostMapping("/create")
   public Single<HistoryContext> create(
@@ -30,6 +35,22 @@ public class PostgreSQLHistoryContextController {
         .toSingle();
   }
 
+  @PostMapping("/append")
+  public Single<HistoryTurn> append(
+      @RequestBody ContextPutRequest<PostgreSQLHistoryContextEndpoint> request) {
+    return this.contextClient
+        .append(request.getId(), request.getResponse(), request.getEndpoint())
+        .toSingle();
+  }
+
+  @PostMapping(value = "/{id}/turns")
+  public Single<List<HistoryTurn>> getTurns(
+      @PathVariable("id") String id,
+      @RequestParam("maxTokens") int maxTokens,
+      @RequestBody PostgreSQLHistoryContextEndpoint endpoint) {
+    return this.contextClient.getTurns(id, maxTokens, endpoint).toSingle();
+  }
+
   @PostMapping(value = "/{id}")
   public Single<HistoryContext> get(
       @PathVariable("id") String id, @RequestBody PostgreSQLHistoryContextEndpoint endpoint) {
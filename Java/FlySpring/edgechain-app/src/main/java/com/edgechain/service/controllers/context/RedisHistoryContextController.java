@@ -1,20 +1,24 @@
 package com.edgechain.service.controllers.context;
 
 import com.edgechain.lib.configuration.WebConfiguration;
-import com.edgechain.lib.context.client.impl.RedisHistoryContextClient;
+import com.edgechain.lib.context.client.cache.NearCacheHistoryContextClient;
 import com.edgechain.lib.context.domain.ContextPutRequest;
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 import com.edgechain.lib.endpoint.impl.context.RedisHistoryContextEndpoint;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(value = WebConfiguration.CONTEXT_PATH + "/context/redis")
 public class RedisHistoryContextController {
 
-  @Autowired private RedisHistoryContextClient contextClient;
+  @Autowired @Lazy private NearCacheHistoryContextClient<RedisHistoryContextEndpoint> contextClient;
 
   @PostMapping("/create")
   public Single<HistoryContext> create(
@@ -30,6 +34,22 @@ public class RedisHistoryContextController {
         .toSingle();
   }
 
+  @PostMapping("/append")
+  public Single<HistoryTurn> append(
+      @RequestBody ContextPutRequest<RedisHistoryContextEndpoint> request) {
+    return this.contextClient
+        .append(request.getId(), request.getResponse(), request.getEndpoint())
+        .toSingle();
+  }
+
+  @PostMapping(value = "/{id}/turns")
+  public Single<List<HistoryTurn>> getTurns(
+      @PathVariable("id") String id,
+      @RequestParam("maxTokens") int maxTokens,
+      @RequestBody RedisHistoryContextEndpoint endpoint) {
+    return this.contextClient.getTurns(id, maxTokens, endpoint).toSingle();
+  }
+
   @PostMapping(value = "/{id}")
   public Single<HistoryContext> get(
       @PathVariable("id") String id, @RequestBody RedisHistoryContextEndpoint endpoint) {
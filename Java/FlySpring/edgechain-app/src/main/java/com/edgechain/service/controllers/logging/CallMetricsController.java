@@ -0,0 +1,32 @@
+package com.edgechain.service.controllers.logging;
+
+import com.edgechain.lib.configuration.WebConfiguration;
+import com.edgechain.lib.logger.metrics.CallMetrics;
+import com.edgechain.lib.logger.metrics.CallMetricsService;
+import com.edgechain.lib.logger.metrics.StageInstrumentation;
+import com.edgechain.lib.logger.metrics.StageMetrics;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController("Service CallMetricsController")
+@RequestMapping(value = WebConfiguration.CONTEXT_PATH + "/logs/metrics")
+public class CallMetricsController {
+
+  @Autowired private CallMetricsService callMetricsService;
+
+  /** p50/p95/p99 latency, token counts and throughput per series over the sliding window. */
+  @GetMapping
+  public List<CallMetrics> findAll(@RequestParam(value = "model", required = false) String model) {
+    return this.callMetricsService.snapshot(model);
+  }
+
+  /** Calls, in-flight calls, errors by type and latency per instrumented chain stage. */
+  @GetMapping("/stages")
+  public List<StageMetrics> stages() {
+    return StageInstrumentation.snapshot();
+  }
+}
@@ -2,13 +2,20 @@ package com.edgechain.service.controllers.logging;
 
 import com.edgechain.lib.configuration.WebConfiguration;
 import com.edgechain.lib.logger.entities.ChatCompletionLog;
+import com.edgechain.lib.logger.entities.LogRollup;
 import com.edgechain.lib.logger.services.ChatCompletionLogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 
 @RestController("Service ChatCompletionLogController")
 @RequestMapping(value = WebConfiguration.CONTEXT_PATH + "/logs/chat-completion")
@@ -16,6 +23,8 @@ public class ChatCompletionLogController {
 
   @Autowired private ChatCompletionLogService chatCompletionLogService;
 
+  @Autowired private ObjectMapper objectMapper;
+
   @GetMapping("/findAll/{page}/{size}")
   public Page<ChatCompletionLog> findAll(@PathVariable int page, @PathVariable int size) {
     return this.chatCompletionLogService.findAll(PageRequest.of(page, size));
@@ -82,4 +91,25 @@ public class ChatCompletionLogController {
     return this.chatCompletionLogService.findAllByLatencyGreaterThanEqual(
         mapper.get("latency"), PageRequest.of(page, size));
   }
+
+  @GetMapping("/rollups")
+  public List<LogRollup> findRollups(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(value = "model", required = false) String model) {
+    return this.chatCompletionLogService.findRollups(from, to, model);
+  }
+
+  /** Every log created in {@code [from, to)} as newline-delimited JSON, oldest first. */
+  @GetMapping(value = "/stream", produces = NdjsonResponses.MEDIA_TYPE)
+  public void streamAll(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      HttpServletResponse response)
+      throws IOException {
+    NdjsonResponses.<ChatCompletionLog>write(
+        response,
+        objectMapper,
+        consumer -> this.chatCompletionLogService.streamAll(from, to, consumer));
+  }
 }
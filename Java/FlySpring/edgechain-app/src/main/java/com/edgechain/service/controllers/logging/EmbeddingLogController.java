@@ -2,16 +2,24 @@ package com.edgechain.service.controllers.logging;
 
 import com.edgechain.lib.configuration.WebConfiguration;
 import com.edgechain.lib.logger.entities.EmbeddingLog;
+import com.edgechain.lib.logger.entities.LogRollup;
 import com.edgechain.lib.logger.services.EmbeddingLogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController("Service EmbeddingLogController")
@@ -20,6 +28,8 @@ public class EmbeddingLogController {
 
   @Autowired private EmbeddingLogService embeddingLogService;
 
+  @Autowired private ObjectMapper objectMapper;
+
   @GetMapping("/findAll/{page}/{size}")
   public Page<EmbeddingLog> findAll(@PathVariable int page, @PathVariable int size) {
     return this.embeddingLogService.findAll(PageRequest.of(page, size));
@@ -71,4 +81,23 @@ public class EmbeddingLogController {
     return this.embeddingLogService.findAllByLatencyGreaterThanEqual(
         mapper.get("latency"), PageRequest.of(page, size));
   }
+
+  @GetMapping("/rollups")
+  public List<LogRollup> findRollups(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(value = "model", required = false) String model) {
+    return this.embeddingLogService.findRollups(from, to, model);
+  }
+
+  /** Every log created in {@code [from, to)} as newline-delimited JSON, oldest first. */
+  @GetMapping(value = "/stream", produces = NdjsonResponses.MEDIA_TYPE)
+  public void streamAll(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      HttpServletResponse response)
+      throws IOException {
+    NdjsonResponses.<EmbeddingLog>write(
+        response, objectMapper, consumer -> this.embeddingLogService.streamAll(from, to, consumer));
+  }
 }
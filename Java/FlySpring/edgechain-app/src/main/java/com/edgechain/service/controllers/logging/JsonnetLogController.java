@@ -2,20 +2,27 @@ package com.edgechain.service.controllers.logging;
 
 import com.edgechain.lib.configuration.WebConfiguration;
 import com.edgechain.lib.logger.entities.JsonnetLog;
-import java.util.HashMap;
-
 import com.edgechain.lib.logger.services.JsonnetLogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+
 @RestController("Service JsonnetLogControllers")
 @RequestMapping(value = WebConfiguration.CONTEXT_PATH + "/logs/jsonnet")
 public class JsonnetLogController {
 
   @Autowired private JsonnetLogService jsonnetLogService;
 
+  @Autowired private ObjectMapper objectMapper;
+
   @GetMapping("/findAll/{page}/{size}")
   public Page<JsonnetLog> findAll(@PathVariable int page, @PathVariable int size) {
     return this.jsonnetLogService.findAll(PageRequest.of(page, size));
@@ -33,4 +40,15 @@ public class JsonnetLogController {
     return this.jsonnetLogService.findAllBySelectedFileOrderByCreatedAtDesc(
         mapper.get("filename"), PageRequest.of(page, size));
   }
+
+  /** Every log created in {@code [from, to)} as newline-delimited JSON, oldest first. */
+  @GetMapping(value = "/stream", produces = NdjsonResponses.MEDIA_TYPE)
+  public void streamAll(
+      @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      HttpServletResponse response)
+      throws IOException {
+    NdjsonResponses.<JsonnetLog>write(
+        response, objectMapper, consumer -> this.jsonnetLogService.streamAll(from, to, consumer));
+  }
 }
@@ -0,0 +1,40 @@
+package com.edgechain.service.controllers.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows to the response as newline-delimited JSON while they are read, so an export never
+ * holds more than the container's output buffer in memory.
+ */
+final class NdjsonResponses {
+
+  static final String MEDIA_TYPE = "application/x-ndjson";
+
+  private NdjsonResponses() {}
+
+  static <T> void write(
+      HttpServletResponse response, ObjectMapper objectMapper, Consumer<Consumer<T>> source)
+      throws IOException {
+    response.setContentType(MEDIA_TYPE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+    OutputStream out = response.getOutputStream();
+    source.accept(
+        row -> {
+          try {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write('\n');
+          } catch (IOException e) {
+            // Usually the client went away; aborts the query and releases the cursor.
+            throw new UncheckedIOException(e);
+          }
+        });
+    out.flush();
+  }
+}
@@ -5,6 +5,7 @@ import com.edgechain.lib.embeddings.miniLLM.MiniLMClient;
 import com.edgechain.lib.embeddings.miniLLM.response.MiniLMResponse;
 import com.edgechain.lib.endpoint.impl.embeddings.MiniLMEndpoint;
 import com.edgechain.lib.logger.entities.EmbeddingLog;
+import com.edgechain.lib.logger.metrics.CallMetricsService;
 import com.edgechain.lib.logger.services.EmbeddingLogService;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
 import io.reactivex.rxjava3.core.Single;
@@ -26,14 +27,25 @@ public class MiniLMController {
   @Autowired private MiniLMClient miniLMClient;
 
   @Autowired private EmbeddingLogService embeddingLogService;
+  @Autowired private CallMetricsService callMetricsService;
 
   @Autowired private Environment env;
 
   @PostMapping
   public Single<MiniLMResponse> embeddings(@RequestBody MiniLMEndpoint miniLMEndpoint) {
 
+    long startedAt = System.currentTimeMillis();
     EdgeChain<MiniLMResponse> edgeChain =
-        this.miniLMClient.createEmbeddings(miniLMEndpoint.getRawText(), miniLMEndpoint);
+        this.miniLMClient
+            .createEmbeddings(miniLMEndpoint.getRawText(), miniLMEndpoint)
+            .doOnNext(
+                c ->
+                    callMetricsService.record(
+                        miniLMEndpoint.getMiniLMModel().getName(),
+                        null,
+                        miniLMEndpoint.getCallIdentifier(),
+                        System.currentTimeMillis() - startedAt,
+                        -1));
 
     if (Objects.nonNull(env.getProperty("postgres.db.host"))) {
 
@@ -49,7 +61,7 @@ public class MiniLMController {
                 Duration duration =
                     Duration.between(embeddingLog.getCreatedAt(), embeddingLog.getCompletedAt());
                 embeddingLog.setLatency(duration.toMillis());
-                embeddingLogService.saveOrUpdate(embeddingLog);
+                embeddingLogService.saveAsync(embeddingLog);
               })
           .toSingleWithoutScheduler();
     }
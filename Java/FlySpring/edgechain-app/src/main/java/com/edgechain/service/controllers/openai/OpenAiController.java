@@ -3,28 +3,39 @@ package com.edgechain.service.controllers.openai;
 import com.edgechain.lib.configuration.WebConfiguration;
 import com.edgechain.lib.embeddings.request.OpenAiEmbeddingRequest;
 import com.edgechain.lib.embeddings.response.OpenAiEmbeddingResponse;
+import com.edgechain.lib.embeddings.response.Usage;
 import com.edgechain.lib.endpoint.impl.embeddings.OpenAiEmbeddingEndpoint;
 import com.edgechain.lib.endpoint.impl.llm.OpenAiChatEndpoint;
 import com.edgechain.lib.logger.entities.ChatCompletionLog;
 import com.edgechain.lib.logger.entities.EmbeddingLog;
 import com.edgechain.lib.logger.entities.JsonnetLog;
+import com.edgechain.lib.logger.metrics.CallMetricsService;
 import com.edgechain.lib.logger.services.ChatCompletionLogService;
 import com.edgechain.lib.logger.services.EmbeddingLogService;
 import com.edgechain.lib.logger.services.JsonnetLogService;
+import com.edgechain.lib.openai.cache.ChatCompletionCache;
+import com.edgechain.lib.openai.cache.SemanticCache;
+import com.edgechain.lib.openai.cache.SemanticCacheStats;
 import com.edgechain.lib.openai.client.OpenAiClient;
 import com.edgechain.lib.openai.request.ChatCompletionRequest;
 import com.edgechain.lib.openai.request.ChatMessage;
 import com.edgechain.lib.openai.request.CompletionRequest;
+import com.edgechain.lib.openai.response.ChatCompletionChoice;
+import com.edgechain.lib.openai.response.ChatCompletionDelta;
 import com.edgechain.lib.openai.response.ChatCompletionResponse;
 import com.edgechain.lib.openai.response.CompletionResponse;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
-import com.edgechain.lib.rxjava.utils.AtomInteger;
-import com.knuddels.jtokkit.Encodings;
-import com.knuddels.jtokkit.api.Encoding;
-import com.knuddels.jtokkit.api.EncodingRegistry;
-import com.knuddels.jtokkit.api.EncodingType;
+import com.edgechain.lib.utils.JsonUtils;
+import com.edgechain.lib.utils.StreamingTokenCounter;
+import com.edgechain.lib.utils.TokenUtils;
 import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.BiConsumer;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
@@ -34,25 +45,50 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.sql.SQLException;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController("Service OpenAiController")
 @RequestMapping(value = WebConfiguration.CONTEXT_PATH + "/openai")
 public class OpenAiController {
 
+  static final String CACHE_HEADER = "X-EdgeChain-Cache";
+  static final String SIMILARITY_HEADER = "X-EdgeChain-Cache-Similarity";
+
   @Autowired private ChatCompletionLogService chatCompletionLogService;
   @Autowired private EmbeddingLogService embeddingLogService;
   @Autowired private JsonnetLogService jsonnetLogService;
+  @Autowired private CallMetricsService callMetricsService;
 
   @Autowired private Environment env;
   @Autowired private OpenAiClient openAiClient;
+  @Autowired private ChatCompletionCache chatCompletionCache;
+  @Autowired private SemanticCache semanticCache;
+
+  private volatile Scheduler streamScheduler;
+
+  /**
+   * Where a request's answer is looked up and stored: {@code key} in the exact cache and {@code
+   * semantic} in the semantic cache, each {@code null} when it does not apply. {@code hit} is the
+   * cached answer, if any.
+   */
+  private record CacheLookup(
+      String key, SemanticCache.Lookup semantic, ChatCompletionResponse hit) {
+
+    boolean isCaching() {
+      return Objects.nonNull(key) || Objects.nonNull(semantic);
+    }
+  }
 
   @PostMapping(value = "/chat-completion")
   public Single<ChatCompletionResponse> chatCompletion(
-      @RequestBody OpenAiChatEndpoint openAiEndpoint) {
+      @RequestBody OpenAiChatEndpoint openAiEndpoint, HttpServletResponse response) {
 
     ChatCompletionRequest chatCompletionRequest =
         ChatCompletionRequest.builder()
@@ -69,8 +105,22 @@ public class OpenAiController {
             .user(openAiEndpoint.getUser())
             .build();
 
+    CacheLookup cache = lookupCache(chatCompletionRequest, openAiEndpoint, response);
+    if (Objects.nonNull(cache.hit())) return Single.just(cache.hit());
+
+    long startedAt = System.currentTimeMillis();
     EdgeChain<ChatCompletionResponse> edgeChain =
-        openAiClient.createChatCompletion(chatCompletionRequest, openAiEndpoint);
+        openAiClient
+            .createChatCompletion(chatCompletionRequest, openAiEndpoint)
+            .doOnNext(c -> storeCache(cache, c))
+            .doOnNext(
+                c ->
+                    callMetricsService.record(
+                        chatCompletionRequest.getModel(),
+                        openAiEndpoint.getChainName(),
+                        openAiEndpoint.getCallIdentifier(),
+                        System.currentTimeMillis() - startedAt,
+                        Objects.nonNull(c.getUsage()) ? c.getUsage().getTotal_tokens() : -1));
 
     if (Objects.nonNull(env.getProperty("postgres.db.host"))) {
 
@@ -101,7 +151,7 @@ public class OpenAiController {
                     Duration.between(chatLog.getCreatedAt(), chatLog.getCompletedAt());
                 chatLog.setLatency(duration.toMillis());
 
-                chatCompletionLogService.saveOrUpdate(chatLog);
+                chatCompletionLogService.saveAsync(chatLog);
 
                 if (Objects.nonNull(openAiEndpoint.getJsonnetLoader())
                     && openAiEndpoint.getJsonnetLoader().getThreshold() >= 1) {
@@ -113,7 +163,7 @@ public class OpenAiController {
                   jsonnetLog.setSplitSize(openAiEndpoint.getJsonnetLoader().getSplitSize());
                   jsonnetLog.setCreatedAt(LocalDateTime.now());
                   jsonnetLog.setSelectedFile(openAiEndpoint.getJsonnetLoader().getSelectedFile());
-                  jsonnetLogService.saveOrUpdate(jsonnetLog);
+                  jsonnetLogService.saveAsync(jsonnetLog);
                 }
               })
           .toSingle();
@@ -124,129 +174,142 @@ public class OpenAiController {
   @PostMapping(
       value = "/chat-completion-stream",
       consumes = {MediaType.APPLICATION_JSON_VALUE})
-  public SseEmitter chatCompletionStream(@RequestBody OpenAiChatEndpoint openAiEndpoint) {
+  public SseEmitter chatCompletionStream(
+      @RequestBody OpenAiChatEndpoint openAiEndpoint, HttpServletResponse response) {
 
-    ChatCompletionRequest chatCompletionRequest =
-        ChatCompletionRequest.builder()
-            .model(openAiEndpoint.getModel())
-            .temperature(openAiEndpoint.getTemperature())
-            .messages(openAiEndpoint.getChatMessages())
-            .stream(true)
-            .topP(openAiEndpoint.getTopP())
-            .n(openAiEndpoint.getN())
-            .stop(openAiEndpoint.getStop())
-            .presencePenalty(openAiEndpoint.getPresencePenalty())
-            .frequencyPenalty(openAiEndpoint.getFrequencyPenalty())
-            .logitBias(openAiEndpoint.getLogitBias())
-            .user(openAiEndpoint.getUser())
-            .build();
-    SseEmitter emitter = new SseEmitter();
-    ExecutorService executorService = Executors.newSingleThreadExecutor();
-
-    executorService.execute(
-        () -> {
-          try {
-            EdgeChain<ChatCompletionResponse> edgeChain =
-                openAiClient.createChatCompletionStream(chatCompletionRequest, openAiEndpoint);
-
-            AtomInteger chunks = AtomInteger.of(0);
-
-            if (Objects.nonNull(env.getProperty("postgres.db.host"))) {
-
-              ChatCompletionLog chatLog = new ChatCompletionLog();
-              chatLog.setName(openAiEndpoint.getChainName());
-              chatLog.setCreatedAt(LocalDateTime.now());
-              chatLog.setCallIdentifier(openAiEndpoint.getCallIdentifier());
-              chatLog.setInput(StringUtils.join(chatCompletionRequest.getMessages()));
-              chatLog.setModel(chatCompletionRequest.getModel());
-
-              chatLog.setPresencePenalty(chatCompletionRequest.getPresencePenalty());
-              chatLog.setFrequencyPenalty(chatCompletionRequest.getFrequencyPenalty());
-              chatLog.setTopP(chatCompletionRequest.getTopP());
-              chatLog.setN(chatCompletionRequest.getN());
-              chatLog.setTemperature(chatCompletionRequest.getTemperature());
-
-              StringBuilder stringBuilder = new StringBuilder();
-              stringBuilder.append("<|im_start|>");
-
-              for (ChatMessage chatMessage : openAiEndpoint.getChatMessages()) {
-                stringBuilder.append(chatMessage.getContent());
-              }
-              EncodingRegistry registry = Encodings.newDefaultEncodingRegistry();
-              Encoding enc = registry.getEncoding(EncodingType.CL100K_BASE);
-
-              chatLog.setPromptTokens((long) enc.countTokens(stringBuilder.toString()));
-
-              StringBuilder content = new StringBuilder();
-
-              Observable<ChatCompletionResponse> obs = edgeChain.getScheduledObservable();
-
-              obs.subscribe(
-                  res -> {
-                    try {
-
-                      emitter.send(res);
-
-                      chunks.incrementAndGet();
-                      content.append(res.getChoices().get(0).getMessage().getContent());
-
-                      if (Objects.nonNull(res.getChoices().get(0).getFinishReason())) {
-
-                        emitter.complete();
-                        chatLog.setType(res.getObject());
-                        chatLog.setContent(content.toString());
-                        chatLog.setCompletedAt(LocalDateTime.now());
-                        chatLog.setTotalTokens(chunks.get() + chatLog.getPromptTokens());
-
-                        Duration duration =
-                            Duration.between(chatLog.getCreatedAt(), chatLog.getCompletedAt());
-                        chatLog.setLatency(duration.toMillis());
-
-                        chatCompletionLogService.saveOrUpdate(chatLog);
-
-                        if (Objects.nonNull(openAiEndpoint.getJsonnetLoader())
-                            && openAiEndpoint.getJsonnetLoader().getThreshold() >= 1) {
-                          JsonnetLog jsonnetLog = new JsonnetLog();
-                          jsonnetLog.setMetadata(openAiEndpoint.getJsonnetLoader().getMetadata());
-                          jsonnetLog.setContent(content.toString());
-                          jsonnetLog.setF1(openAiEndpoint.getJsonnetLoader().getF1());
-                          jsonnetLog.setF2(openAiEndpoint.getJsonnetLoader().getF2());
-                          jsonnetLog.setSplitSize(openAiEndpoint.getJsonnetLoader().getSplitSize());
-                          jsonnetLog.setCreatedAt(LocalDateTime.now());
-                          jsonnetLog.setSelectedFile(
-                              openAiEndpoint.getJsonnetLoader().getSelectedFile());
-                          jsonnetLogService.saveOrUpdate(jsonnetLog);
-                        }
-                      }
-
-                    } catch (final Exception e) {
-                      emitter.completeWithError(e);
-                    }
-                  });
-            } else {
-
-              Observable<ChatCompletionResponse> obs = edgeChain.getScheduledObservable();
-              obs.subscribe(
-                  res -> {
-                    try {
-                      emitter.send(res);
-                      if (Objects.nonNull(res.getChoices().get(0).getFinishReason())) {
-                        emitter.complete();
-                      }
-
-                    } catch (final Exception e) {
-                      emitter.completeWithError(e);
-                    }
-                  });
-            }
+    ChatCompletionRequest chatCompletionRequest = streamRequest(openAiEndpoint);
 
-          } catch (final Exception e) {
-            emitter.completeWithError(e);
+    CacheLookup cache = lookupCache(chatCompletionRequest, openAiEndpoint, response);
+    if (Objects.nonNull(cache.hit())) {
+      ChatCompletionResponse content = streamChunk(cache.hit(), false);
+      ChatCompletionResponse finish = streamChunk(cache.hit(), true);
+      return subscribe(Observable.just(content, finish), SseEmitter::send);
+    }
+
+    long startedAt = System.currentTimeMillis();
+    StringBuilder content = new StringBuilder();
+    long promptTokens =
+        TokenUtils.countPromptTokens(
+            chatCompletionRequest.getModel(), chatCompletionRequest.getMessages());
+    StreamingTokenCounter completionTokens =
+        new StreamingTokenCounter(chatCompletionRequest.getModel());
+    ChatCompletionLog chatLog = newStreamLog(chatCompletionRequest, openAiEndpoint, promptTokens);
+
+    Observable<ChatCompletionResponse> stream =
+        openAiClient
+            .createChatCompletionStream(chatCompletionRequest, openAiEndpoint)
+            .getScheduledObservable()
+            .observeOn(getStreamScheduler());
+
+    return subscribe(
+        stream,
+        (emitter, res) -> {
+          emitter.send(res);
+
+          String delta = res.getChoices().get(0).getMessage().getContent();
+          completionTokens.add(delta);
+          if (Objects.nonNull(chatLog) || cache.isCaching()) content.append(delta);
+
+          String finishReason = res.getChoices().get(0).getFinishReason();
+          if (Objects.nonNull(finishReason)) {
+            emitter.complete();
+            finishStream(
+                chatCompletionRequest,
+                openAiEndpoint,
+                chatLog,
+                res.getObject(),
+                content,
+                startedAt,
+                promptTokens + completionTokens.getTokens());
+            cacheStream(
+                cache,
+                chatCompletionRequest,
+                content,
+                finishReason,
+                promptTokens,
+                completionTokens.getTokens());
           }
         });
+  }
 
-    executorService.shutdown();
-    return emitter;
+  /**
+   * Streams only the completion text, each frame's data being a JSON string. Deltas are coalesced
+   * into one SSE frame every {@code openai.stream.coalesce-millis} (default 50) or {@code
+   * openai.stream.coalesce-deltas} (default 16), whichever comes first. The last frame is a {@code
+   * finish} event carrying the finish reason.
+   */
+  @PostMapping(
+      value = "/chat-completion-stream/deltas",
+      consumes = {MediaType.APPLICATION_JSON_VALUE})
+  public SseEmitter chatCompletionDeltaStream(
+      @RequestBody OpenAiChatEndpoint openAiEndpoint, HttpServletResponse response) {
+
+    ChatCompletionRequest chatCompletionRequest = streamRequest(openAiEndpoint);
+
+    CacheLookup cache = lookupCache(chatCompletionRequest, openAiEndpoint, response);
+    ChatCompletionResponse cached = cache.hit();
+
+    long startedAt = System.currentTimeMillis();
+    StringBuilder content = new StringBuilder();
+    long promptTokens =
+        TokenUtils.countPromptTokens(
+            chatCompletionRequest.getModel(), chatCompletionRequest.getMessages());
+    StreamingTokenCounter completionTokens =
+        new StreamingTokenCounter(chatCompletionRequest.getModel());
+    ChatCompletionLog chatLog = newStreamLog(chatCompletionRequest, openAiEndpoint, promptTokens);
+
+    Observable<ChatCompletionDelta> stream =
+        Objects.nonNull(cached)
+            ? Observable.just(
+                new ChatCompletionDelta(
+                    cached.getChoices().get(0).getMessage().getContent(),
+                    cached.getChoices().get(0).getFinishReason()))
+            : openAiClient
+                .createChatCompletionDeltaStream(chatCompletionRequest, openAiEndpoint)
+                .getScheduledObservable()
+                .doOnNext(delta -> completionTokens.add(delta.getContent()))
+                .buffer(
+                    env.getProperty("openai.stream.coalesce-millis", Long.class, 50L),
+                    TimeUnit.MILLISECONDS,
+                    getStreamScheduler(),
+                    env.getProperty("openai.stream.coalesce-deltas", Integer.class, 16))
+                .filter(deltas -> !deltas.isEmpty())
+                .map(ChatCompletionDelta::merge)
+                .observeOn(getStreamScheduler());
+
+    return subscribe(
+        stream,
+        (emitter, delta) -> {
+          if (Objects.nonNull(delta.getContent()) && !delta.getContent().isEmpty()) {
+            emitter.send(deltaEvent(delta.getContent()));
+
+            if (Objects.nonNull(chatLog) || cache.isCaching()) {
+              content.append(delta.getContent());
+            }
+          }
+
+          if (Objects.nonNull(delta.getFinishReason())) {
+            emitter.send(SseEmitter.event().name("finish").data(delta.getFinishReason()));
+            emitter.complete();
+            if (Objects.nonNull(cached)) return;
+
+            finishStream(
+                chatCompletionRequest,
+                openAiEndpoint,
+                chatLog,
+                "chat.completion.chunk",
+                content,
+                startedAt,
+                promptTokens + completionTokens.getTokens());
+            cacheStream(
+                cache,
+                chatCompletionRequest,
+                content,
+                delta.getFinishReason(),
+                promptTokens,
+                completionTokens.getTokens());
+          }
+        });
   }
 
   @PostMapping("/completion")
@@ -269,10 +332,20 @@ public class OpenAiController {
   public Single<OpenAiEmbeddingResponse> embeddings(
       @RequestBody OpenAiEmbeddingEndpoint openAiEndpoint) throws SQLException {
 
+    long startedAt = System.currentTimeMillis();
     EdgeChain<OpenAiEmbeddingResponse> edgeChain =
-        openAiClient.createEmbeddings(
-            new OpenAiEmbeddingRequest(openAiEndpoint.getModel(), openAiEndpoint.getRawText()),
-            openAiEndpoint);
+        openAiClient
+            .createEmbeddings(
+                new OpenAiEmbeddingRequest(openAiEndpoint.getModel(), openAiEndpoint.getRawText()),
+                openAiEndpoint)
+            .doOnNext(
+                e ->
+                    callMetricsService.record(
+                        openAiEndpoint.getModel(),
+                        null,
+                        openAiEndpoint.getCallIdentifier(),
+                        System.currentTimeMillis() - startedAt,
+                        Objects.nonNull(e.getUsage()) ? e.getUsage().getTotal_tokens() : -1));
 
     if (Objects.nonNull(env.getProperty("postgres.db.host"))) {
 
@@ -292,11 +365,257 @@ public class OpenAiController {
                     Duration.between(embeddingLog.getCreatedAt(), embeddingLog.getCompletedAt());
                 embeddingLog.setLatency(duration.toMillis());
 
-                embeddingLogService.saveOrUpdate(embeddingLog);
+                embeddingLogService.saveAsync(embeddingLog);
               })
           .toSingleWithoutScheduler();
     }
 
     return edgeChain.toSingleWithoutScheduler();
   }
+
+  @GetMapping("/semantic-cache/stats")
+  public List<SemanticCacheStats> semanticCacheStats() {
+    return semanticCache.getStats();
+  }
+
+  /**
+   * Looks the request up in the exact cache, then in the semantic cache, and reports the outcome in
+   * the {@value #CACHE_HEADER} header: {@code HIT}, {@code SEMANTIC_HIT} (with the similarity in
+   * {@value #SIMILARITY_HEADER}) or {@code MISS}. No header is set when neither cache applies.
+   */
+  private CacheLookup lookupCache(
+      ChatCompletionRequest chatCompletionRequest,
+      OpenAiChatEndpoint openAiEndpoint,
+      HttpServletResponse response) {
+
+    String key =
+        chatCompletionCache.isEnabled() && ChatCompletionCache.isCacheable(chatCompletionRequest)
+            ? ChatCompletionCache.key(chatCompletionRequest)
+            : null;
+
+    if (Objects.nonNull(key)) {
+      ChatCompletionResponse cached = chatCompletionCache.get(key);
+      if (Objects.nonNull(cached)) {
+        response.setHeader(CACHE_HEADER, "HIT");
+        return new CacheLookup(key, null, cached);
+      }
+    }
+
+    SemanticCache.Lookup semantic =
+        semanticCache.lookup(openAiEndpoint.getChainName(), chatCompletionRequest);
+
+    if (Objects.nonNull(semantic) && Objects.nonNull(semantic.match())) {
+      response.setHeader(CACHE_HEADER, "SEMANTIC_HIT");
+      response.setHeader(
+          SIMILARITY_HEADER, String.format(Locale.ROOT, "%.4f", semantic.match().similarity()));
+      return new CacheLookup(key, semantic, semantic.match().response());
+    }
+
+    CacheLookup cache = new CacheLookup(key, semantic, null);
+    if (cache.isCaching()) response.setHeader(CACHE_HEADER, "MISS");
+    return cache;
+  }
+
+  private void storeCache(CacheLookup cache, ChatCompletionResponse completion) {
+    if (Objects.nonNull(cache.key())) chatCompletionCache.put(cache.key(), completion);
+    if (Objects.nonNull(cache.semantic())) semanticCache.put(cache.semantic(), completion);
+  }
+
+  /**
+   * Replays a cached answer as stream chunks: the whole content, then an empty chunk with the
+   * finish reason, matching what streaming clients expect from the last chunk.
+   */
+  private ChatCompletionResponse streamChunk(ChatCompletionResponse cached, boolean last) {
+    ChatCompletionChoice choice = new ChatCompletionChoice();
+    choice.setIndex(0);
+    choice.setMessage(
+        new ChatMessage(
+            "assistant", last ? "" : cached.getChoices().get(0).getMessage().getContent()));
+    if (last) choice.setFinishReason(cached.getChoices().get(0).getFinishReason());
+
+    ChatCompletionResponse chunk = new ChatCompletionResponse();
+    chunk.setId(cached.getId());
+    chunk.setObject("chat.completion.chunk");
+    chunk.setCreated(cached.getCreated());
+    chunk.setModel(cached.getModel());
+    chunk.setChoices(List.of(choice));
+    chunk.setCached(true);
+    return chunk;
+  }
+
+  private void cacheStream(
+      CacheLookup cache,
+      ChatCompletionRequest chatCompletionRequest,
+      CharSequence content,
+      String finishReason,
+      long promptTokens,
+      long completionTokens) {
+    if (!cache.isCaching()) return;
+
+    ChatCompletionChoice choice = new ChatCompletionChoice();
+    choice.setIndex(0);
+    choice.setMessage(new ChatMessage("assistant", content.toString()));
+    choice.setFinishReason(finishReason);
+
+    Usage usage = new Usage();
+    usage.setPrompt_tokens(promptTokens);
+    usage.setCompletion_tokens(completionTokens);
+    usage.setTotal_tokens(promptTokens + completionTokens);
+
+    ChatCompletionResponse completion = new ChatCompletionResponse();
+    completion.setObject("chat.completion");
+    completion.setCreated(Instant.now().getEpochSecond());
+    completion.setModel(chatCompletionRequest.getModel());
+    completion.setChoices(List.of(choice));
+    completion.setUsage(usage);
+
+    storeCache(cache, completion);
+  }
+
+  private ChatCompletionRequest streamRequest(OpenAiChatEndpoint openAiEndpoint) {
+    return ChatCompletionRequest.builder()
+        .model(openAiEndpoint.getModel())
+        .temperature(openAiEndpoint.getTemperature())
+        .messages(openAiEndpoint.getChatMessages())
+        .stream(true)
+        .topP(openAiEndpoint.getTopP())
+        .n(openAiEndpoint.getN())
+        .stop(openAiEndpoint.getStop())
+        .presencePenalty(openAiEndpoint.getPresencePenalty())
+        .frequencyPenalty(openAiEndpoint.getFrequencyPenalty())
+        .logitBias(openAiEndpoint.getLogitBias())
+        .user(openAiEndpoint.getUser())
+        .build();
+  }
+
+  /** Returns {@code null} when logging is disabled. */
+  private ChatCompletionLog newStreamLog(
+      ChatCompletionRequest chatCompletionRequest,
+      OpenAiChatEndpoint openAiEndpoint,
+      long promptTokens) {
+    if (Objects.isNull(env.getProperty("postgres.db.host"))) return null;
+
+    ChatCompletionLog chatLog = new ChatCompletionLog();
+    chatLog.setName(openAiEndpoint.getChainName());
+    chatLog.setCreatedAt(LocalDateTime.now());
+    chatLog.setCallIdentifier(openAiEndpoint.getCallIdentifier());
+    chatLog.setInput(StringUtils.join(chatCompletionRequest.getMessages()));
+    chatLog.setModel(chatCompletionRequest.getModel());
+
+    chatLog.setPresencePenalty(chatCompletionRequest.getPresencePenalty());
+    chatLog.setFrequencyPenalty(chatCompletionRequest.getFrequencyPenalty());
+    chatLog.setTopP(chatCompletionRequest.getTopP());
+    chatLog.setN(chatCompletionRequest.getN());
+    chatLog.setTemperature(chatCompletionRequest.getTemperature());
+    chatLog.setPromptTokens(promptTokens);
+    return chatLog;
+  }
+
+  private void finishStream(
+      ChatCompletionRequest chatCompletionRequest,
+      OpenAiChatEndpoint openAiEndpoint,
+      ChatCompletionLog chatLog,
+      String type,
+      CharSequence content,
+      long startedAt,
+      long totalTokens) {
+
+    if (Objects.isNull(chatLog)) {
+      callMetricsService.record(
+          chatCompletionRequest.getModel(),
+          openAiEndpoint.getChainName(),
+          openAiEndpoint.getCallIdentifier(),
+          System.currentTimeMillis() - startedAt,
+          totalTokens);
+      return;
+    }
+
+    chatLog.setType(type);
+    chatLog.setContent(content.toString());
+    chatLog.setCompletedAt(LocalDateTime.now());
+    chatLog.setTotalTokens(totalTokens);
+
+    Duration duration = Duration.between(chatLog.getCreatedAt(), chatLog.getCompletedAt());
+    chatLog.setLatency(duration.toMillis());
+
+    callMetricsService.record(
+        chatLog.getModel(),
+        chatLog.getName(),
+        chatLog.getCallIdentifier(),
+        chatLog.getLatency(),
+        chatLog.getTotalTokens());
+
+    chatCompletionLogService.saveAsync(chatLog);
+
+    if (Objects.nonNull(openAiEndpoint.getJsonnetLoader())
+        && openAiEndpoint.getJsonnetLoader().getThreshold() >= 1) {
+      JsonnetLog jsonnetLog = new JsonnetLog();
+      jsonnetLog.setMetadata(openAiEndpoint.getJsonnetLoader().getMetadata());
+      jsonnetLog.setContent(content.toString());
+      jsonnetLog.setF1(openAiEndpoint.getJsonnetLoader().getF1());
+      jsonnetLog.setF2(openAiEndpoint.getJsonnetLoader().getF2());
+      jsonnetLog.setSplitSize(openAiEndpoint.getJsonnetLoader().getSplitSize());
+      jsonnetLog.setCreatedAt(LocalDateTime.now());
+      jsonnetLog.setSelectedFile(openAiEndpoint.getJsonnetLoader().getSelectedFile());
+      jsonnetLogService.saveAsync(jsonnetLog);
+    }
+  }
+
+  /**
+   * One SSE frame carrying {@code content} as a JSON string. Plain SSE data would not survive the
+   * trip: readers drop the space after {@code data:}, gluing " world" onto the previous token, and
+   * Spring's reader drops empty {@code data:} lines, losing line breaks.
+   */
+  static SseEmitter.SseEventBuilder deltaEvent(String content) {
+    return SseEmitter.event().data(JsonUtils.convertToString(content));
+  }
+
+  private <T> SseEmitter subscribe(Observable<T> stream, BiConsumer<SseEmitter, T> onNext) {
+    SseEmitter emitter = new SseEmitter();
+
+    // A failed send (e.g. the client went away) throws out of onNext, which disposes the
+    // subscription and with it the upstream OpenAI request.
+    Disposable subscription =
+        stream.subscribe(
+            item -> onNext.accept(emitter, item), emitter::completeWithError, emitter::complete);
+
+    // Disconnects and timeouts end the emitter; stop pulling tokens from OpenAI.
+    emitter.onCompletion(subscription::dispose);
+    emitter.onTimeout(subscription::dispose);
+    emitter.onError(e -> subscription.dispose());
+
+    return emitter;
+  }
+
+  // Sending to an SseEmitter blocks on the servlet response, so chunks are delivered on a shared
+  // bounded pool rather than on the HTTP client's event loop or a thread per request.
+  private Scheduler getStreamScheduler() {
+    if (Objects.isNull(streamScheduler)) {
+      synchronized (this) {
+        if (Objects.isNull(streamScheduler)) {
+          int threads =
+              env.getProperty(
+                  "openai.stream.threads",
+                  Integer.class,
+                  Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+          AtomicInteger count = new AtomicInteger();
+          streamScheduler =
+              Schedulers.from(
+                  Executors.newFixedThreadPool(
+                      threads,
+                      r -> {
+                        Thread thread = new Thread(r, "openai-stream-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                      }));
+        }
+      }
+    }
+    return streamScheduler;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (Objects.nonNull(streamScheduler)) streamScheduler.shutdown();
+  }
 }
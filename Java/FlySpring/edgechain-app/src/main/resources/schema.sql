@@ -1,5 +1,16 @@
 CREATE TABLE history_context (
                                  id VARCHAR(255) NOT NULL PRIMARY KEY,
                                  response VARCHAR(1024),
+                                 created_at TIMESTAMP,
+                                 updated_at TIMESTAMP DEFAULT now()
+);
+
+CREATE INDEX history_context_updated_at_idx ON history_context (updated_at);
+
+CREATE TABLE history_context_turn (
+                                 seq BIGSERIAL PRIMARY KEY,
+                                 context_id VARCHAR(255) NOT NULL REFERENCES history_context (id) ON DELETE CASCADE,
+                                 response TEXT,
+                                 tokens INT NOT NULL,
                                  created_at TIMESTAMP
-);
\ No newline at end of file
+);
@@ -0,0 +1,85 @@
+package com.edgechain.lib.chains;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.edgechain.lib.embeddings.WordEmbeddings;
+import com.edgechain.lib.endpoint.impl.embeddings.EmbeddingEndpoint;
+import com.edgechain.lib.endpoint.impl.index.RedisEndpoint;
+import com.edgechain.lib.index.enums.RedisDistanceMetric;
+import com.edgechain.lib.index.enums.RedisVectorAlgorithm;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers;
+import com.edgechain.lib.rxjava.scheduler.EdgeChainSchedulers.Subsystem;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RedisRetrievalTest {
+
+  @Test
+  void upsert_CreatesIndexWithTheEndpointsAlgorithm() {
+    RedisEndpoint endpoint = mock(RedisEndpoint.class);
+    when(endpoint.getNamespace()).thenReturn("docs");
+    when(endpoint.getAlgorithm()).thenReturn(RedisVectorAlgorithm.FLAT);
+
+    new RedisRetrieval(new String[0], endpoint, 384, RedisDistanceMetric.COSINE, null).upsert();
+
+    verify(endpoint)
+        .createIndex("docs", 384, RedisDistanceMetric.COSINE, RedisVectorAlgorithm.FLAT);
+  }
+
+  @Test
+  void upsert_DoesNotDeadlockWhenEveryDbThreadIsIngesting() throws Exception {
+    int ingestions = Subsystem.DB.getDefaultThreads();
+    CyclicBarrier allWaiting = new CyclicBarrier(ingestions);
+
+    EmbeddingEndpoint embeddings = mock(EmbeddingEndpoint.class);
+    when(embeddings.embeddings(anyString(), any()))
+        .thenAnswer(i -> Observable.just(new WordEmbeddings(i.getArgument(0), List.of(1f))));
+
+    RedisEndpoint endpoint = mock(RedisEndpoint.class);
+    when(endpoint.getEmbeddingEndpoint()).thenReturn(embeddings);
+    doAnswer(
+            i -> {
+              // Every ingestion waits on the server at once, whose pipelines need a DB thread.
+              allWaiting.await(10, TimeUnit.SECONDS);
+              assertTrue(
+                  Completable.complete()
+                      .subscribeOn(EdgeChainSchedulers.get(Subsystem.DB))
+                      .blockingAwait(10, TimeUnit.SECONDS),
+                  "no DB thread left for the server");
+              return null;
+            })
+        .when(endpoint)
+        .batchUpsert(anyList());
+
+    ExecutorService callers = Executors.newFixedThreadPool(ingestions);
+    try {
+      List<Future<?>> upserts = new ArrayList<>();
+      for (int i = 0; i < ingestions; i++) {
+        String[] texts = {"text " + i};
+        upserts.add(
+            callers.submit(
+                () ->
+                    new RedisRetrieval(texts, endpoint, 1, RedisDistanceMetric.COSINE, null)
+                        .upsert()));
+      }
+      for (Future<?> upsert : upserts) upsert.get(30, TimeUnit.SECONDS);
+    } finally {
+      callers.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.edgechain.lib.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+class OpenAiHttpConfigurationTest {
+
+  @Test
+  void openAiWebClient_UsesPlainHttpForHttpBaseUrls() throws Exception {
+    AtomicReference<String> upgrade = new AtomicReference<>();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          upgrade.set(exchange.getRequestHeaders().getFirst("Upgrade"));
+          byte[] body = exchange.getRequestBody().readAllBytes();
+          exchange.sendResponseHeaders(200, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    server.start();
+
+    OpenAiHttpConfiguration configuration = new OpenAiHttpConfiguration();
+    ReflectionTestUtils.setField(configuration, "env", new MockEnvironment());
+    ConnectionProvider provider = configuration.openAiConnectionProvider();
+    try {
+      String echoed =
+          configuration
+              .openAiWebClient(WebClient.builder(), provider)
+              .post()
+              .uri("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions")
+              .bodyValue("{\"model\":\"gpt-3.5-turbo\"}")
+              .retrieve()
+              .bodyToMono(byte[].class)
+              .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+              .block(Duration.ofSeconds(10));
+
+      assertEquals("{\"model\":\"gpt-3.5-turbo\"}", echoed);
+      // No TLS: HTTP/2 is offered by h2c upgrade and the server answers in HTTP/1.1.
+      assertEquals("h2c", upgrade.get());
+    } finally {
+      provider.dispose();
+      server.stop(0);
+    }
+  }
+}
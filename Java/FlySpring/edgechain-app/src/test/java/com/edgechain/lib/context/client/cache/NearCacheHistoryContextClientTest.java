@@ -0,0 +1,146 @@
+package com.edgechain.lib.context.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.edgechain.lib.context.client.HistoryContextClient;
+import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
+import com.edgechain.lib.endpoint.Endpoint;
+import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import io.reactivex.rxjava3.core.Observable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class NearCacheHistoryContextClientTest {
+
+  private final Endpoint endpoint = new Endpoint();
+
+  @Test
+  void get_ServesRepeatedReadsFromLocalCache() {
+    CountingClient store = new CountingClient();
+    NearCacheHistoryContextClient<Endpoint> client =
+        new NearCacheHistoryContextClient<>(store, 10, 60, 0, null);
+
+    client.create("a", endpoint).get();
+    client.get("a", endpoint).get();
+    client.get("a", endpoint).get();
+
+    assertEquals(0, store.reads.get());
+  }
+
+  @Test
+  void put_WriteBehindCoalescesBurstIntoSingleStoreWrite() {
+    CountingClient store = new CountingClient();
+    NearCacheHistoryContextClient<Endpoint> client =
+        new NearCacheHistoryContextClient<>(store, 10, 60, 60_000, null);
+
+    client.create("a", endpoint).get();
+    for (int i = 0; i < 5; i++) {
+      assertEquals("r" + i, client.put("a", "r" + i, endpoint).get().getResponse());
+    }
+    assertEquals(0, store.writes.get());
+
+    client.close();
+
+    assertEquals(1, store.writes.get());
+    assertEquals("r4", store.contexts.get("a").getResponse());
+  }
+
+  @Test
+  void delete_DropsPendingWriteAndLocalCopy() {
+    CountingClient store = new CountingClient();
+    NearCacheHistoryContextClient<Endpoint> client =
+        new NearCacheHistoryContextClient<>(store, 10, 60, 60_000, null);
+
+    client.create("a", endpoint).get();
+    client.put("a", "r", endpoint).get();
+    client.delete("a", endpoint).get();
+    client.close();
+
+    assertEquals(0, store.writes.get());
+  }
+
+  @Test
+  void disabledCache_DelegatesEveryCall() {
+    CountingClient store = new CountingClient();
+    NearCacheHistoryContextClient<Endpoint> client =
+        new NearCacheHistoryContextClient<>(store, 0, 60, 60_000, null);
+
+    client.create("a", endpoint).get();
+    client.put("a", "r", endpoint).get();
+    client.get("a", endpoint).get();
+
+    assertEquals(1, store.writes.get());
+    assertEquals(1, store.reads.get());
+  }
+
+  @Test
+  void resubscribe_DropsLocalCopiesThatMayHaveMissedInvalidations() {
+    CountingClient store = new CountingClient();
+    RedisHistoryContextInvalidator invalidator = mock(RedisHistoryContextInvalidator.class);
+    NearCacheHistoryContextClient<Endpoint> client =
+        new NearCacheHistoryContextClient<>(store, 10, 60, 0, invalidator);
+
+    ArgumentCaptor<Runnable> onResubscribe = ArgumentCaptor.forClass(Runnable.class);
+    verify(invalidator).subscribe(any(), onResubscribe.capture());
+
+    client.create("a", endpoint).get();
+    client.get("a", endpoint).get();
+    onResubscribe.getValue().run();
+    client.get("a", endpoint).get();
+
+    assertEquals(1, store.reads.get());
+  }
+
+  private static class CountingClient implements HistoryContextClient<Endpoint> {
+
+    private final Map<String, HistoryContext> contexts = new ConcurrentHashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @Override
+    public EdgeChain<HistoryContext> create(String id, Endpoint endpoint) {
+      HistoryContext context = new HistoryContext(id, "", LocalDateTime.now());
+      contexts.put(id, context);
+      return new EdgeChain<>(Observable.just(context), endpoint);
+    }
+
+    @Override
+    public EdgeChain<HistoryContext> put(String key, String response, Endpoint endpoint) {
+      writes.incrementAndGet();
+      HistoryContext context = new HistoryContext(key, response, contexts.get(key).getCreatedAt());
+      contexts.put(key, context);
+      return new EdgeChain<>(Observable.just(context), endpoint);
+    }
+
+    @Override
+    public EdgeChain<HistoryContext> get(String key, Endpoint endpoint) {
+      reads.incrementAndGet();
+      return new EdgeChain<>(Observable.just(contexts.get(key)), endpoint);
+    }
+
+    @Override
+    public EdgeChain<String> delete(String key, Endpoint endpoint) {
+      contexts.remove(key);
+      return new EdgeChain<>(Observable.just(""), endpoint);
+    }
+
+    @Override
+    public EdgeChain<HistoryTurn> append(String key, String turn, Endpoint endpoint) {
+      return new EdgeChain<>(Observable.just(new HistoryTurn(turn, 0)), endpoint);
+    }
+
+    @Override
+    public EdgeChain<List<HistoryTurn>> getTurns(String key, int maxTokens, Endpoint endpoint) {
+      return new EdgeChain<>(Observable.just(List.of()), endpoint);
+    }
+  }
+}
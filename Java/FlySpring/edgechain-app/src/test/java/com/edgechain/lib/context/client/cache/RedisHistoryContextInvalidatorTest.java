@@ -0,0 +1,86 @@
+package com.edgechain.lib.context.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+class RedisHistoryContextInvalidatorTest {
+
+  @Test
+  void subscribe_ResubscribesAfterConnectionLossAndReportsMissedMessages() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    CountDownLatch closed = new CountDownLatch(1);
+
+    JedisPooled jedisPooled = mock(JedisPooled.class);
+    doAnswer(
+            i -> {
+              JedisPubSub pubSub = i.getArgument(0);
+              switch (attempts.incrementAndGet()) {
+                case 1:
+                  pubSub.onSubscribe("invalidations", 1);
+                  throw new JedisConnectionException("Unexpected end of stream.");
+                case 2:
+                  throw new JedisConnectionException("Connection refused");
+                default:
+                  pubSub.onSubscribe("invalidations", 1);
+                  pubSub.onMessage("invalidations", "other-node|historycontext:a");
+                  closed.await(10, TimeUnit.SECONDS);
+                  return null;
+              }
+            })
+        .when(jedisPooled)
+        .subscribe(any(JedisPubSub.class), any(String[].class));
+
+    List<String> invalidated = new CopyOnWriteArrayList<>();
+    AtomicInteger resubscribed = new AtomicInteger();
+
+    RedisHistoryContextInvalidator invalidator =
+        new RedisHistoryContextInvalidator(jedisPooled, "invalidations");
+    invalidator.subscribe(invalidated::add, resubscribed::incrementAndGet);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (invalidated.isEmpty() && System.nanoTime() < deadline) Thread.sleep(10);
+    invalidator.close();
+    closed.countDown();
+
+    assertEquals(List.of("historycontext:a"), invalidated);
+    assertEquals(3, attempts.get());
+    assertEquals(1, resubscribed.get());
+  }
+
+  @Test
+  void close_StopsRetrying() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    JedisPooled jedisPooled = mock(JedisPooled.class);
+    doAnswer(
+            i -> {
+              attempts.incrementAndGet();
+              throw new JedisConnectionException("Connection refused");
+            })
+        .when(jedisPooled)
+        .subscribe(any(JedisPubSub.class), any(String[].class));
+
+    RedisHistoryContextInvalidator invalidator =
+        new RedisHistoryContextInvalidator(jedisPooled, "invalidations");
+    invalidator.subscribe(key -> {}, () -> {});
+    Thread.sleep(50);
+    invalidator.close();
+
+    int afterClose = attempts.get();
+    Thread.sleep(500);
+    assertTrue(afterClose >= 1);
+    assertEquals(afterClose, attempts.get());
+  }
+}
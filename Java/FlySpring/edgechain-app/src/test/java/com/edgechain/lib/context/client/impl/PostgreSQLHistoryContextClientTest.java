@@ -1,6 +1,7 @@
 package com.edgechain.lib.context.client.impl;
 
 import com.edgechain.lib.context.domain.HistoryContext;
+import com.edgechain.lib.context.domain.HistoryTurn;
 import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
 import com.edgechain.testutil.PostgresTestContainer;
 import com.edgechain.testutil.PostgresTestContainer.PostgresImage;
@@ -15,9 +16,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.test.annotation.DirtiesContext;
 import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Testcontainers(disabledWithoutDocker = true)
 @SpringBootTest(webEnvironment = WebEnvironment.NONE)
@@ -83,6 +88,56 @@ class PostgreSQLHistoryContextClientTest {
     LOGGER.info("get-NotFound OK val={}", data.val);
   }
 
+  @Test
+  void appendAndGetTurns() {
+    hikariConfig.setJdbcUrl(instance.getJdbcUrl());
+    hikariConfig.setUsername(instance.getUsername());
+    hikariConfig.setPassword(instance.getPassword());
+
+    final String id = service.create("TURNS", null).toSingle().blockingGet().getId();
+
+    final HistoryTurn first = service.append(id, "hello there", null).toSingle().blockingGet();
+    final HistoryTurn second = service.append(id, "general kenobi", null).toSingle().blockingGet();
+    assertTrue(first.getTokens() > 0);
+    assertTrue(second.getTokens() > 0);
+
+    List<HistoryTurn> all = service.getTurns(id, 1000, null).toSingle().blockingGet();
+    assertEquals(List.of("hello there", "general kenobi"), responses(all));
+
+    List<HistoryTurn> newest =
+        service.getTurns(id, second.getTokens(), null).toSingle().blockingGet();
+    assertEquals(List.of("general kenobi"), responses(newest));
+
+    assertTrue(service.getTurns(id, 0, null).toSingle().blockingGet().isEmpty());
+
+    service.delete(id, null).toSingle().blockingGet();
+  }
+
+  @Test
+  void expire_DeletesContextsPastTtlWithTheirTurns() {
+    hikariConfig.setJdbcUrl(instance.getJdbcUrl());
+    hikariConfig.setUsername(instance.getUsername());
+    hikariConfig.setPassword(instance.getPassword());
+
+    final String stale = service.create("STALE", null).toSingle().blockingGet().getId();
+    service.append(stale, "old news", null).toSingle().blockingGet();
+
+    assertEquals(0, service.expire(3600, 1));
+    assertEquals(1, service.expire(0, 1));
+
+    final Data data = new Data();
+    service
+        .get(stale, null)
+        .toSingle()
+        .blockingSubscribe(s -> data.failed = true, e -> data.val = e.getMessage());
+    assertFalse(data.failed);
+    assertEquals("PostgreSQL history_context id isn't found.", data.val);
+  }
+
+  private static List<String> responses(List<HistoryTurn> turns) {
+    return turns.stream().map(HistoryTurn::getResponse).toList();
+  }
+
   private static class Data {
     public boolean failed;
     public String id;
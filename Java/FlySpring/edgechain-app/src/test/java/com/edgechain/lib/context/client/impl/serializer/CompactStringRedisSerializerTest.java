@@ -0,0 +1,72 @@
+package com.edgechain.lib.context.client.impl.serializer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class CompactStringRedisSerializerTest {
+
+  private final CompactStringRedisSerializer serializer = new CompactStringRedisSerializer(64);
+
+  @Test
+  @DisplayName("Values below the threshold are stored as plain UTF-8")
+  void serialize_SmallValue_StoredAsPlainText() {
+    String value = "Hello, wörld";
+
+    byte[] bytes = serializer.serialize(value);
+
+    assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), bytes);
+    assertEquals(value, serializer.deserialize(bytes));
+  }
+
+  @Test
+  @DisplayName("Large values are compressed with a format header and round trip")
+  void serialize_LargeValue_CompressedAndRoundTrips() {
+    String value = "User: what is machine learning?\nAssistant: It is ...\n".repeat(200);
+
+    byte[] bytes = serializer.serialize(value);
+
+    assertEquals((byte) 0xFF, bytes[0]);
+    assertTrue(bytes.length < value.length() / 4);
+    assertEquals(value, serializer.deserialize(bytes));
+  }
+
+  @Test
+  @DisplayName("Legacy plain values written before the header existed are still readable")
+  void deserialize_LegacyValue_ReadAsPlainText() {
+    String legacy = "Question: hi\nAnswer: hello".repeat(10);
+
+    assertEquals(legacy, serializer.deserialize(legacy.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  @DisplayName("Negative threshold disables compression")
+  void serialize_CompressionDisabled_StoredAsPlainText() {
+    String value = "a".repeat(10_000);
+
+    byte[] bytes = new CompactStringRedisSerializer(-1).serialize(value);
+
+    assertEquals(value.length(), bytes.length);
+  }
+
+  @Test
+  @DisplayName("Unknown format versions are rejected")
+  void deserialize_UnknownVersion_Throws() {
+    byte[] bytes = {(byte) 0xFF, 9, 1, 0};
+
+    assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+  }
+
+  @Test
+  void nullValues_PassThrough() {
+    assertNull(serializer.serialize(null));
+    assertNull(serializer.deserialize(null));
+  }
+}
@@ -0,0 +1,92 @@
+package com.edgechain.lib.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.edgechain.lib.endpoint.Endpoint;
+import com.edgechain.lib.rxjava.retry.impl.FixedDelay;
+import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import io.reactivex.rxjava3.core.Observable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DeadlineTest {
+
+  @AfterEach
+  void detach() {
+    Deadline.attach(null);
+  }
+
+  @Test
+  void edgeChain_CarriesDeadlineOntoSchedulerThread() {
+    Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+    Deadline.attach(deadline);
+
+    EdgeChain<String> chain = new EdgeChain<>(Observable.just("ok"));
+    Deadline.attach(null);
+
+    // Operators keep the deadline even when applied on a thread without one.
+    assertSame(deadline, chain.transform(s -> s).getDeadline());
+    Deadline seen =
+        new EdgeChain<>(Observable.fromCallable(Deadline::current))
+            .withDeadline(Duration.ofSeconds(10))
+            .toSingle()
+            .blockingGet();
+    assertTrue(seen.remainingMillis() > 0);
+    assertNull(Deadline.current());
+  }
+
+  @Test
+  void limit_FailsStreamAtDeadline() {
+    Deadline.afterMillis(50)
+        .limit(Observable.interval(10, TimeUnit.MILLISECONDS))
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertError(DeadlineExceededException.class);
+  }
+
+  @Test
+  void bind_FailsFastOnceExpired() {
+    AtomicInteger calls = new AtomicInteger();
+    Deadline.afterMillis(-1)
+        .bind(Observable.fromCallable(calls::incrementAndGet))
+        .test()
+        .assertError(DeadlineExceededException.class);
+    assertEquals(0, calls.get());
+  }
+
+  @Test
+  void edgeChain_SkipsRetryThatWouldOutliveDeadline() {
+    Endpoint endpoint = new Endpoint("http://localhost", new FixedDelay(5, 1, TimeUnit.SECONDS));
+    AtomicInteger calls = new AtomicInteger();
+    EdgeChain<Integer> chain =
+        new EdgeChain<>(
+                Observable.defer(
+                    () -> {
+                      calls.incrementAndGet();
+                      return Observable.<Integer>error(new IOException("connection reset"));
+                    }),
+                endpoint)
+            .withDeadline(Duration.ofMillis(500));
+
+    RuntimeException error = assertThrows(RuntimeException.class, chain::get);
+    assertTrue(error.getCause() instanceof IOException);
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void capMillis_UsesRemainingBudget() {
+    Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+    assertTrue(deadline.capMillis(TimeUnit.MINUTES.toMillis(20)) <= 5000);
+    assertEquals(100, deadline.capMillis(100));
+    assertEquals(1, Deadline.afterMillis(-10).capMillis(0));
+    assertNull(Deadline.fromHeader("soon"));
+  }
+}
@@ -0,0 +1,50 @@
+package com.edgechain.lib.logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.edgechain.lib.logger.entities.ChatCompletionLog;
+import io.reactivex.rxjava3.core.Single;
+import java.time.LocalDateTime;
+import java.util.List;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+class NdjsonReaderTest {
+
+  private static final MediaType NDJSON = MediaType.get("application/x-ndjson");
+
+  @Test
+  void read_ParsesEachLineAndSkipsBlankOnes() {
+    String body =
+        "{\"id\":\"a\",\"model\":\"gpt-3.5-turbo\",\"createdAt\":\"2023-09-01T10:15:30\"}\n"
+            + "\n"
+            + "{\"id\":\"b\",\"model\":\"gpt-4\",\"unknown\":1}";
+
+    List<ChatCompletionLog> logs =
+        NdjsonReader.read(
+                Single.just(ResponseBody.create(body, NDJSON)), ChatCompletionLog.class)
+            .toList()
+            .blockingGet();
+
+    assertEquals(2, logs.size());
+    assertEquals("a", logs.get(0).getId());
+    assertEquals(LocalDateTime.of(2023, 9, 1, 10, 15, 30), logs.get(0).getCreatedAt());
+    assertEquals("gpt-4", logs.get(1).getModel());
+  }
+
+  @Test
+  void read_StopsAfterRequestedRows() {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < 1000; i++) body.append("{\"id\":\"").append(i).append("\"}\n");
+
+    List<ChatCompletionLog> logs =
+        NdjsonReader.read(
+                Single.just(ResponseBody.create(body.toString(), NDJSON)), ChatCompletionLog.class)
+            .take(3)
+            .toList()
+            .blockingGet();
+
+    assertEquals(List.of("0", "1", "2"), logs.stream().map(ChatCompletionLog::getId).toList());
+  }
+}
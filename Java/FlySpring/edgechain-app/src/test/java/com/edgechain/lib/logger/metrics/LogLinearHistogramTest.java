@@ -0,0 +1,58 @@
+package com.edgechain.lib.logger.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class LogLinearHistogramTest {
+
+  @Test
+  void bucketBounds_AreContiguous() {
+    long previous = -1;
+    for (int i = 0; i < LogLinearHistogram.indexOf(LogLinearHistogram.MAX_VALUE); i++) {
+      long highest = LogLinearHistogram.highestValueOf(i);
+      assertEquals(i, LogLinearHistogram.indexOf(previous + 1));
+      assertEquals(i, LogLinearHistogram.indexOf(highest));
+      previous = highest;
+    }
+  }
+
+  @Test
+  void percentiles_AreWithinRelativePrecision() {
+    LogLinearHistogram histogram = new LogLinearHistogram();
+    for (long v = 1; v <= 10_000; v++) histogram.record(v);
+
+    assertWithin(5_000, histogram.getValueAtPercentile(50));
+    assertWithin(9_500, histogram.getValueAtPercentile(95));
+    assertWithin(9_900, histogram.getValueAtPercentile(99));
+    assertEquals(10_000, histogram.getValueAtPercentile(100));
+    assertEquals(1, histogram.getMin());
+    assertEquals(5_000.5, histogram.getMean());
+  }
+
+  @Test
+  void slidingWindow_ForgetsExpiredSlots() {
+    AtomicLong now = new AtomicLong(0);
+    SlidingWindowHistogram window = new SlidingWindowHistogram(60_000, 6, now::get);
+
+    window.record(100);
+    now.set(30_000);
+    window.record(200);
+    assertEquals(2, window.snapshot().getCount());
+
+    now.set(65_000);
+    assertEquals(1, window.snapshot().getCount());
+    assertEquals(200, window.snapshot().getMax());
+
+    now.set(200_000);
+    assertEquals(0, window.snapshot().getCount());
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(
+        Math.abs(actual - expected) <= expected / 64,
+        () -> "expected ~" + expected + " but was " + actual);
+  }
+}
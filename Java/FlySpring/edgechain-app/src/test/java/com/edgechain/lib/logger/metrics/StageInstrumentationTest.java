@@ -0,0 +1,123 @@
+package com.edgechain.lib.logger.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class StageInstrumentationTest {
+
+  @AfterEach
+  void clear() {
+    StageInstrumentation.clear();
+  }
+
+  @Test
+  void observe_CountsCallsAndErrorsByType() {
+    Observable<String> ok = StageInstrumentation.observe("Test.ok", Observable.just("a", "b"));
+    ok.test().assertValues("a", "b");
+    ok.test().assertValues("a", "b");
+
+    StageInstrumentation.observe("Test.fail", Observable.error(new IOException("reset")))
+        .test()
+        .assertError(IOException.class);
+
+    Map<String, StageMetrics> stages = byName();
+    StageMetrics success = stages.get("Test.ok");
+    assertEquals(2, success.getCalls());
+    assertEquals(0, success.getInFlight());
+    assertEquals(0, success.getCancelled());
+    assertTrue(success.getErrors().isEmpty());
+    assertEquals(2, success.getLatencyMillis().getCount());
+
+    StageMetrics failure = stages.get("Test.fail");
+    assertEquals(1, failure.getCalls());
+    assertEquals(Map.of("IOException", 1L), failure.getErrors());
+  }
+
+  @Test
+  void observe_TracksInFlightAndCancellation() {
+    PublishSubject<String> subject = PublishSubject.create();
+    TestObserver<String> observer =
+        new EdgeChain<>(subject).instrument("Test.pending").getObservable().test();
+
+    assertEquals(1, byName().get("Test.pending").getInFlight());
+
+    observer.dispose();
+    StageMetrics pending = byName().get("Test.pending");
+    assertEquals(0, pending.getInFlight());
+    assertEquals(1, pending.getCancelled());
+  }
+
+  @Test
+  void observe_StreamDisposedAfterFirstItemIsCancelled() {
+    PublishSubject<String> subject = PublishSubject.create();
+    TestObserver<String> observer = StageInstrumentation.observe("Test.stream", subject).test();
+
+    subject.onNext("Hello");
+    observer.dispose();
+
+    StageMetrics stream = byName().get("Test.stream");
+    assertEquals(0, stream.getInFlight());
+    assertEquals(1, stream.getCancelled());
+    assertEquals(0, stream.getLatencyMillis().getCount());
+  }
+
+  @Test
+  void observe_SingleResultTakenByFirstOrErrorIsSuccess() {
+    StageInstrumentation.observe("Test.single", Single.just("a"))
+        .firstOrError()
+        .test()
+        .assertValue("a");
+    new EdgeChain<>(Observable.just("b")).instrument("Test.chain", true).toSingle().blockingGet();
+
+    for (String name : List.of("Test.single", "Test.chain")) {
+      StageMetrics single = byName().get(name);
+      assertEquals(0, single.getInFlight());
+      assertEquals(0, single.getCancelled());
+      assertEquals(1, single.getLatencyMillis().getCount());
+    }
+  }
+
+  @Test
+  void observe_CommitsJfrEvent() throws Exception {
+    Path file = Files.createTempFile("stage", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(StageEvent.NAME);
+      recording.start();
+      StageInstrumentation.observe("Test.jfr", Observable.just(1)).test().assertValue(1);
+      recording.stop();
+      recording.dump(file);
+
+      List<RecordedEvent> events =
+          RecordingFile.readAllEvents(file).stream()
+              .filter(e -> e.getEventType().getName().equals(StageEvent.NAME))
+              .collect(Collectors.toList());
+      assertEquals(1, events.size());
+      assertEquals("Test.jfr", events.get(0).getString("stage"));
+      assertEquals("success", events.get(0).getString("outcome"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static Map<String, StageMetrics> byName() {
+    return StageInstrumentation.snapshot().stream()
+        .collect(Collectors.toMap(StageMetrics::getStage, m -> m));
+  }
+}
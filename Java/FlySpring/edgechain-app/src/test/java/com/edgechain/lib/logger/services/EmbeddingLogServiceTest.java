@@ -1,13 +1,19 @@
 package com.edgechain.lib.logger.services;
 
+import com.edgechain.lib.logger.entities.EmbeddingLog;
+import com.edgechain.lib.logger.entities.LogRollup;
+import java.time.LocalDateTime;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.postgresql.ds.PGSimpleDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
 @Testcontainers(disabledWithoutDocker = true)
@@ -28,11 +34,43 @@ class EmbeddingLogServiceTest {
       final JdbcTemplate template = new JdbcTemplate(datasource);
 
       // create service using template
+      final LogMaintenanceService maintenance = new LogMaintenanceService();
+      ReflectionTestUtils.setField(maintenance, "jdbcTemplate", template);
+      ReflectionTestUtils.setField(maintenance, "env", new MockEnvironment());
+
       final EmbeddingLogService service = new EmbeddingLogService();
       ReflectionTestUtils.setField(service, "jdbcTemplate", template);
+      ReflectionTestUtils.setField(service, "logMaintenanceService", maintenance);
 
       service.createTable();
 
+      // older than the rollup lookback, so only rolled up by the backfill
+      final EmbeddingLog old = embeddingLog();
+      old.setCreatedAt(LocalDateTime.now().minusDays(3));
+      service.saveAll(List.of(embeddingLog(), embeddingLog(), old));
+
+      assertEquals(
+          3, template.queryForObject("SELECT COUNT(*) FROM embedding_logs", Integer.class));
+      // rows land in the current partition, not the default one
+      assertEquals(
+          0,
+          template.queryForObject(
+              "SELECT COUNT(*) FROM embedding_logs_default WHERE created_at > now() - interval '1"
+                  + " day'",
+              Integer.class));
+
+      maintenance.maintain();
+      final List<LogRollup> rollups =
+          service.findRollups(
+              LocalDateTime.now().minusDays(4), LocalDateTime.now().plusDays(1), "bge-small-en");
+      assertEquals(2, rollups.size());
+      assertEquals(1, rollups.get(0).getCalls());
+      assertEquals(2, rollups.get(1).getCalls());
+      assertEquals(2L, rollups.get(1).getLatencyHistogram().get(0));
+
+      service.close();
+      maintenance.shutdown();
+
     } catch (Exception e) {
       fail("could not create table", e);
 
@@ -41,6 +79,16 @@ class EmbeddingLogServiceTest {
     }
   }
 
+  private static EmbeddingLog embeddingLog() {
+    final EmbeddingLog log = new EmbeddingLog();
+    log.setCallIdentifier("test");
+    log.setModel("bge-small-en");
+    log.setCreatedAt(LocalDateTime.now());
+    log.setCompletedAt(LocalDateTime.now());
+    log.setLatency(5L);
+    return log;
+  }
+
   public static class PostgresTestContainer extends PostgreSQLContainer<PostgresTestContainer> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PostgresTestContainer.class);
@@ -0,0 +1,105 @@
+package com.edgechain.lib.logger.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AsyncBatchLogWriterTest {
+
+  @Test
+  void write_FlushesFullBatchesWithoutWaitingForInterval() throws Exception {
+    List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    CountDownLatch flushed = new CountDownLatch(2);
+
+    try (AsyncBatchLogWriter<Integer> writer =
+        new AsyncBatchLogWriter<>(
+            "test",
+            100,
+            5,
+            60_000,
+            LogOverflowPolicy.DROP,
+            batch -> {
+              batches.add(new ArrayList<>(batch));
+              flushed.countDown();
+            })) {
+
+      for (int i = 0; i < 10; i++) writer.write(i);
+
+      assertTrue(flushed.await(5, TimeUnit.SECONDS));
+      assertEquals(List.of(0, 1, 2, 3, 4), batches.get(0));
+      assertEquals(List.of(5, 6, 7, 8, 9), batches.get(1));
+    }
+  }
+
+  @Test
+  void write_FlushesPartialBatchAfterInterval() throws Exception {
+    CountDownLatch flushed = new CountDownLatch(1);
+
+    try (AsyncBatchLogWriter<Integer> writer =
+        new AsyncBatchLogWriter<>(
+            "test", 100, 50, 50, LogOverflowPolicy.DROP, batch -> flushed.countDown())) {
+
+      writer.write(1);
+
+      assertTrue(flushed.await(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void write_DropsWhenBufferIsFull() throws Exception {
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    AsyncBatchLogWriter<Integer> writer =
+        new AsyncBatchLogWriter<>(
+            "test",
+            1,
+            1,
+            10,
+            LogOverflowPolicy.DROP,
+            batch -> {
+              blocked.countDown();
+              awaitQuietly(release);
+            });
+
+    writer.write(1);
+    assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+    assertTrue(writer.write(2));
+    assertFalse(writer.write(3));
+    assertEquals(1, writer.getDropped());
+
+    release.countDown();
+    writer.close();
+  }
+
+  @Test
+  void close_WritesBufferedRecords() {
+    List<Integer> written = new CopyOnWriteArrayList<>();
+
+    AsyncBatchLogWriter<Integer> writer =
+        new AsyncBatchLogWriter<>(
+            "test", 100, 1000, 60_000, LogOverflowPolicy.BLOCK, written::addAll);
+
+    for (int i = 0; i < 10; i++) writer.write(i);
+    writer.close();
+
+    assertEquals(10, written.size());
+    assertFalse(writer.write(11));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
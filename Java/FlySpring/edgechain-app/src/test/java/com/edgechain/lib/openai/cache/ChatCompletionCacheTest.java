@@ -0,0 +1,81 @@
+package com.edgechain.lib.openai.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.edgechain.lib.openai.request.ChatCompletionRequest;
+import com.edgechain.lib.openai.request.ChatMessage;
+import com.edgechain.lib.openai.response.ChatCompletionResponse;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ChatCompletionCacheTest {
+
+  @Test
+  void key_IgnoresStreamAndUserButNotMessages() {
+    ChatCompletionRequest request = request(0.0, "Classify: great product", false, "alice");
+
+    assertEquals(
+        ChatCompletionCache.key(request),
+        ChatCompletionCache.key(request(0.0, "Classify: great product", true, "bob")));
+    assertNotEquals(
+        ChatCompletionCache.key(request),
+        ChatCompletionCache.key(request(0.0, "Classify: bad product", false, "alice")));
+  }
+
+  @Test
+  void isCacheable_OnlyForDeterministicRequests() {
+    assertTrue(ChatCompletionCache.isCacheable(request(0.0, "x", false, null)));
+    assertFalse(ChatCompletionCache.isCacheable(request(0.7, "x", false, null)));
+  }
+
+  @Test
+  void get_ReturnsFlaggedCopyAndEvictsLeastRecentlyUsed() {
+    ChatCompletionCache cache = cache(2);
+
+    ChatCompletionResponse response = new ChatCompletionResponse();
+    response.setModel("gpt-3.5-turbo");
+    cache.put("a", response);
+    cache.put("b", new ChatCompletionResponse());
+
+    assertEquals(Boolean.TRUE, cache.get("a").getCached());
+    assertEquals("gpt-3.5-turbo", cache.get("a").getModel());
+    assertNull(response.getCached());
+
+    cache.put("c", new ChatCompletionResponse());
+    assertNull(cache.get("b"));
+    assertEquals(Boolean.TRUE, cache.get("c").getCached());
+  }
+
+  @Test
+  void cache_IsDisabledByDefault() {
+    ChatCompletionCache cache = cache(0);
+    cache.put("a", new ChatCompletionResponse());
+
+    assertFalse(cache.isEnabled());
+    assertNull(cache.get("a"));
+  }
+
+  private static ChatCompletionCache cache(int size) {
+    ChatCompletionCache cache = new ChatCompletionCache();
+    ReflectionTestUtils.setField(
+        cache, "env", new MockEnvironment().withProperty("completion.cache.size", "" + size));
+    return cache;
+  }
+
+  private static ChatCompletionRequest request(
+      double temperature, String content, boolean stream, String user) {
+    return ChatCompletionRequest.builder()
+        .model("gpt-3.5-turbo")
+        .temperature(temperature)
+        .messages(List.of(new ChatMessage("user", content)))
+        .stream(stream)
+        .user(user)
+        .build();
+  }
+}
@@ -0,0 +1,56 @@
+package com.edgechain.lib.openai.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.edgechain.lib.openai.response.ChatCompletionResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class SemanticIndexTest {
+
+  @Test
+  void search_ReturnsMostSimilarEntryAboveThreshold() {
+    SemanticIndex index = new SemanticIndex(4, 3600);
+    ChatCompletionResponse weather = new ChatCompletionResponse();
+    ChatCompletionResponse sports = new ChatCompletionResponse();
+    index.put(new float[] {1, 0, 0}, weather);
+    index.put(new float[] {0, 1, 0}, sports);
+
+    SemanticIndex.Match match = index.search(new float[] {2, 0.1f, 0}, 0.95);
+    assertSame(weather, match.response());
+    assertTrue(match.similarity() > 0.99);
+
+    assertNull(index.search(new float[] {1, 1, 0}, 0.95));
+    assertEquals(2, index.getLookups());
+    assertEquals(1, index.getHits());
+  }
+
+  @Test
+  void put_OverwritesOldestEntryWhenFull() {
+    SemanticIndex index = new SemanticIndex(2, 3600);
+    index.put(new float[] {1, 0, 0}, new ChatCompletionResponse());
+    index.put(new float[] {0, 1, 0}, new ChatCompletionResponse());
+    index.put(new float[] {0, 0, 1}, new ChatCompletionResponse());
+
+    assertEquals(2, index.size());
+    assertNull(index.search(new float[] {1, 0, 0}, 0.95));
+    assertTrue(index.search(new float[] {0, 0, 1}, 0.95).similarity() > 0.99);
+  }
+
+  @Test
+  void search_SkipsExpiredEntries() {
+    AtomicLong clock = new AtomicLong();
+    SemanticIndex index = new SemanticIndex(2, 60, clock::get);
+    index.put(new float[] {1, 0, 0}, new ChatCompletionResponse());
+
+    clock.set(TimeUnit.SECONDS.toNanos(59));
+    assertTrue(index.search(new float[] {1, 0, 0}, 0.5).similarity() > 0.99);
+
+    clock.set(TimeUnit.SECONDS.toNanos(61));
+    assertNull(index.search(new float[] {1, 0, 0}, 0.5));
+  }
+}
@@ -0,0 +1,49 @@
+package com.edgechain.lib.openai.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.edgechain.lib.openai.response.ChatCompletionDelta;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChatCompletionDeltaParserTest {
+
+  @Test
+  void parse_ReadsContentAndFinishReason() {
+    ChatCompletionDelta delta =
+        ChatCompletionDeltaParser.parse(
+            "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"created\":1694268190,"
+                + "\"model\":\"gpt-3.5-turbo-0613\",\"choices\":[{\"index\":0,"
+                + "\"delta\":{\"role\":\"assistant\",\"content\":\"Hel\\nlo\"},"
+                + "\"finish_reason\":null}]}");
+
+    assertEquals("Hel\nlo", delta.getContent());
+    assertNull(delta.getFinishReason());
+
+    ChatCompletionDelta last =
+        ChatCompletionDeltaParser.parse(
+            "{\"choices\":[{\"index\":0,\"delta\":{},\"finish_reason\":\"stop\"}]}");
+
+    assertNull(last.getContent());
+    assertEquals("stop", last.getFinishReason());
+  }
+
+  @Test
+  void parse_ReturnsNullForDoneSentinel() {
+    assertNull(ChatCompletionDeltaParser.parse("[DONE]"));
+  }
+
+  @Test
+  void merge_JoinsContentAndKeepsFinishReason() {
+    ChatCompletionDelta merged =
+        ChatCompletionDelta.merge(
+            List.of(
+                new ChatCompletionDelta("Hello", null),
+                new ChatCompletionDelta(null, null),
+                new ChatCompletionDelta(" world", "stop")));
+
+    assertEquals("Hello world", merged.getContent());
+    assertEquals("stop", merged.getFinishReason());
+  }
+}
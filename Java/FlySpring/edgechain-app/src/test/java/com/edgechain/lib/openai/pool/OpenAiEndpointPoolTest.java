@@ -0,0 +1,68 @@
+package com.edgechain.lib.openai.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+class OpenAiEndpointPoolTest {
+
+  private static final OpenAiPoolMember A = new OpenAiPoolMember("http://a/v1/chat", "key-a");
+  private static final OpenAiPoolMember B = new OpenAiPoolMember("http://b/v1/chat", "key-b");
+
+  @Test
+  void acquire_PrefersMemberWithFewerOutstandingRequests() {
+    OpenAiEndpointPool pool = pool();
+
+    OpenAiEndpointPool.Lease first = pool.acquire(List.of(A, B));
+    OpenAiEndpointPool.Lease second = pool.acquire(List.of(A, B));
+    assertNotEquals(first.getMember(), second.getMember());
+  }
+
+  @Test
+  void onError_EjectsMemberAfterConsecutiveFailures() {
+    OpenAiEndpointPool pool = pool();
+
+    pool.acquire(List.of(A)).onError(error(503));
+    pool.acquire(List.of(A)).onError(error(429));
+
+    for (int i = 0; i < 10; i++) {
+      OpenAiEndpointPool.Lease lease = pool.acquire(List.of(A, B));
+      assertEquals(B, lease.getMember());
+      lease.onSuccess();
+    }
+
+    // With every member ejected, the pool still answers.
+    assertEquals(A, pool.acquire(List.of(A)).getMember());
+  }
+
+  @Test
+  void onError_IgnoresCallerErrors() {
+    OpenAiEndpointPool pool = pool();
+
+    pool.acquire(List.of(A)).onError(error(400));
+    pool.acquire(List.of(A)).onError(error(400));
+
+    OpenAiEndpointPool.Lease held = pool.acquire(List.of(B));
+    assertEquals(A, pool.acquire(List.of(A, B)).getMember());
+    held.onCancel();
+  }
+
+  private static OpenAiEndpointPool pool() {
+    OpenAiEndpointPool pool = new OpenAiEndpointPool();
+    ReflectionTestUtils.setField(
+        pool, "env", new MockEnvironment().withProperty("openai.pool.failure-threshold", "2"));
+    return pool;
+  }
+
+  private static WebClientResponseException error(int status) {
+    return WebClientResponseException.create(
+        status, "error", new HttpHeaders(), new byte[0], StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,95 @@
+package com.edgechain.lib.openai.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+class AdaptiveRateLimiterTest {
+
+  @Test
+  void parseDuration_ReadsOpenAiResetFormats() {
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(20), AdaptiveRateLimiter.parseDuration("20ms"));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(1500), AdaptiveRateLimiter.parseDuration("1.5s"));
+    assertEquals(TimeUnit.SECONDS.toNanos(362), AdaptiveRateLimiter.parseDuration("6m2s"));
+    assertEquals(-1, AdaptiveRateLimiter.parseDuration("soon"));
+  }
+
+  @Test
+  void acquire_QueuesBeyondConcurrencyLimit() {
+    AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(1, 8, new TestScheduler());
+
+    AdaptiveRateLimiter.Permit first = limiter.acquire(10).block();
+    AdaptiveRateLimiter.Permit[] second = new AdaptiveRateLimiter.Permit[1];
+    limiter.acquire(10).subscribe(p -> second[0] = p);
+
+    assertNull(second[0]);
+    assertEquals(1, limiter.getQueued());
+
+    first.onSuccess();
+    assertEquals(1, limiter.getInFlight());
+    assertEquals(0, limiter.getQueued());
+    assertEquals(2.0, limiter.getConcurrencyLimit());
+  }
+
+  @Test
+  void acquire_WaitsForTokenBucketToRefill() {
+    TestScheduler scheduler = new TestScheduler();
+    AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(8, 8, scheduler);
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("x-ratelimit-limit-tokens", "1000");
+    headers.set("x-ratelimit-remaining-tokens", "0");
+    headers.set("x-ratelimit-reset-tokens", "10s");
+    limiter.acquire(1).block().onHeaders(headers);
+
+    AdaptiveRateLimiter.Permit[] permit = new AdaptiveRateLimiter.Permit[1];
+    limiter.acquire(500).subscribe(p -> permit[0] = p);
+
+    scheduler.advanceTimeBy(4, TimeUnit.SECONDS);
+    scheduler.triggerActions();
+    assertNull(permit[0]);
+
+    scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+    scheduler.triggerActions();
+    assertEquals(0, limiter.getQueued());
+  }
+
+  @Test
+  void onError_TooManyRequestsHalvesLimitOnceAndPauses() {
+    TestScheduler scheduler = new TestScheduler();
+    AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(8, 8, scheduler);
+
+    AdaptiveRateLimiter.Permit first = limiter.acquire(1).block();
+    AdaptiveRateLimiter.Permit second = limiter.acquire(1).block();
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, "2");
+    first.onError(tooManyRequests(headers));
+    second.onError(tooManyRequests(headers));
+    assertEquals(4.0, limiter.getConcurrencyLimit());
+
+    AdaptiveRateLimiter.Permit[] third = new AdaptiveRateLimiter.Permit[1];
+    limiter.acquire(1).subscribe(p -> third[0] = p);
+    assertNull(third[0]);
+
+    scheduler.advanceTimeBy(2, TimeUnit.SECONDS);
+    scheduler.triggerActions();
+    assertEquals(1, limiter.getInFlight());
+  }
+
+  private static WebClientResponseException tooManyRequests(HttpHeaders headers) {
+    return WebClientResponseException.create(
+        HttpStatus.TOO_MANY_REQUESTS.value(),
+        "Too Many Requests",
+        headers,
+        new byte[0],
+        StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,113 @@
+package com.edgechain.lib.retrofit.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.edgechain.lib.configuration.WebConfiguration;
+import com.edgechain.lib.configuration.domain.SecurityUUID;
+import com.edgechain.lib.deadline.Deadline;
+import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import com.sun.net.httpserver.HttpServer;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import retrofit2.http.GET;
+
+class RetrofitDeadlineTest {
+
+  interface DeadlineService {
+    @GET("fast")
+    Single<Map<String, String>> fast();
+
+    @GET("slow")
+    Single<Map<String, String>> slow();
+  }
+
+  private final AtomicReference<String> forwarded = new AtomicReference<>();
+
+  private HttpServer server;
+  private String previousPort;
+  private DeadlineService service;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        WebConfiguration.CONTEXT_PATH + "/",
+        exchange -> {
+          forwarded.set(exchange.getRequestHeaders().getFirst(Deadline.HEADER));
+          try {
+            if (exchange.getRequestURI().getPath().endsWith("/slow")) Thread.sleep(5000);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().set("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    server.start();
+
+    previousPort = System.getProperty("server.port");
+    System.setProperty("server.port", String.valueOf(server.getAddress().getPort()));
+    ReflectionTestUtils.setField(RetrofitClientInstance.class, "retrofit", null);
+    ReflectionTestUtils.setField(
+        RetrofitClientInstance.class, "securityUUID", new SecurityUUID("test"));
+    service = RetrofitClientInstance.getInstance().create(DeadlineService.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    ReflectionTestUtils.setField(RetrofitClientInstance.class, "retrofit", null);
+    ReflectionTestUtils.setField(RetrofitClientInstance.class, "securityUUID", null);
+    if (previousPort != null) System.setProperty("server.port", previousPort);
+    else System.clearProperty("server.port");
+  }
+
+  @Test
+  void call_ForwardsRemainingBudgetFromSchedulerThread() {
+    Map<String, String> response =
+        new EdgeChain<>(Observable.fromSingle(service.fast()))
+            .withDeadline(Duration.ofSeconds(30))
+            .toSingle()
+            .blockingGet();
+
+    assertEquals("ok", response.get("status"));
+    long budget = Long.parseLong(forwarded.get());
+    assertTrue(budget > 25_000 && budget <= 30_000, "forwarded " + budget);
+  }
+
+  @Test
+  void call_WithoutDeadlineForwardsNothing() {
+    service.fast().blockingGet();
+    assertNull(forwarded.get());
+  }
+
+  @Test
+  void call_ReadTimeoutIsCutToDeadline() {
+    long startedAt = System.nanoTime();
+
+    Deadline.afterMillis(300)
+        .bind(Observable.fromSingle(service.slow()))
+        .test()
+        .awaitDone(10, TimeUnit.SECONDS)
+        .assertError(IOException.class);
+
+    // The client's own read timeout is 20 minutes; the server answers after 5 seconds.
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    assertTrue(elapsed < 3000, "gave up after " + elapsed + " ms");
+  }
+}
@@ -0,0 +1,118 @@
+package com.edgechain.lib.rxjava.circuitbreaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.edgechain.lib.endpoint.Endpoint;
+import com.edgechain.lib.rxjava.bulkhead.BulkheadFullException;
+import com.edgechain.lib.rxjava.bulkhead.BulkheadPolicy;
+import com.edgechain.lib.rxjava.retry.impl.FixedDelay;
+import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  @Test
+  void opensOnFailureRateAndClosesAfterTrialCalls() {
+    AtomicLong now = new AtomicLong();
+    CircuitBreakerPolicy policy = new CircuitBreakerPolicy(50, 4, 10, TimeUnit.SECONDS);
+    policy.setHalfOpenCalls(2);
+    CircuitBreaker breaker = new CircuitBreaker("test", policy, now::get);
+
+    for (int i = 0; i < 2; i++) {
+      assertTrue(breaker.tryAcquire());
+      breaker.onSuccess();
+    }
+    assertTrue(breaker.tryAcquire());
+    breaker.onError(new IOException("reset"));
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+    assertTrue(breaker.tryAcquire());
+    breaker.onError(new IOException("reset"));
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    assertFalse(breaker.tryAcquire());
+
+    // After the open duration only the trial calls pass; both succeed and the breaker closes.
+    now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertTrue(breaker.tryAcquire());
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+    breaker.onSuccess();
+    breaker.onSuccess();
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    assertEquals(0f, breaker.getFailureRate());
+  }
+
+  @Test
+  void failedTrialCallReopens_AndCallerErrorsDoNotCount() {
+    AtomicLong now = new AtomicLong();
+    CircuitBreakerPolicy policy = new CircuitBreakerPolicy(50, 2, 1, TimeUnit.SECONDS);
+    CircuitBreaker breaker = new CircuitBreaker("test", policy, now::get);
+
+    breaker.onError(new IllegalArgumentException("bad input"));
+    breaker.onError(new IllegalArgumentException("bad input"));
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+    breaker.onError(new IOException("reset"));
+    breaker.onError(new IOException("reset"));
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertTrue(breaker.tryAcquire());
+    breaker.onError(new IOException("reset"));
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+  }
+
+  @Test
+  void edgeChain_FailsFastOnceOpenWithoutRetrying() {
+    Endpoint endpoint =
+        new Endpoint("http://localhost", new FixedDelay(3, 1, TimeUnit.MILLISECONDS));
+    CircuitBreakerPolicy policy = new CircuitBreakerPolicy(50, 2, 1, TimeUnit.MINUTES);
+    policy.setName("edgeChain_FailsFastOnceOpenWithoutRetrying");
+    endpoint.setCircuitBreakerPolicy(policy);
+
+    AtomicInteger calls = new AtomicInteger();
+    EdgeChain<String> chain =
+        new EdgeChain<>(
+            Observable.defer(
+                () -> {
+                  calls.incrementAndGet();
+                  return Observable.error(new IOException("connection reset"));
+                }),
+            endpoint);
+
+    // Two failed attempts open the breaker; the retries left are rejected without a call.
+    assertThrows(CallNotPermittedException.class, chain::get);
+    assertEquals(2, calls.get());
+    assertEquals(CircuitBreaker.State.OPEN, chain.getCircuitBreaker().getState());
+  }
+
+  @Test
+  void edgeChain_BulkheadRejectsCallsOverTheLimit() {
+    Endpoint endpoint = new Endpoint("http://localhost");
+    BulkheadPolicy policy = new BulkheadPolicy(1);
+    policy.setName("edgeChain_BulkheadRejectsCallsOverTheLimit");
+    endpoint.setBulkheadPolicy(policy);
+
+    PublishSubject<String> pending = PublishSubject.create();
+    EdgeChain<String> chain = new EdgeChain<>(pending, endpoint);
+
+    TestObserver<String> first = chain.toSingleWithoutScheduler().test();
+    chain.toSingleWithoutScheduler().test().assertError(BulkheadFullException.class);
+    assertEquals(0, chain.getBulkhead().getAvailableCalls());
+
+    pending.onNext("done");
+    first.assertValue("done");
+    assertEquals(1, chain.getBulkhead().getAvailableCalls());
+  }
+}
@@ -0,0 +1,99 @@
+package com.edgechain.lib.rxjava.retry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.edgechain.lib.rxjava.retry.impl.ExponentialDelay;
+import com.edgechain.lib.rxjava.retry.impl.FixedDelay;
+import io.reactivex.rxjava3.core.Observable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+class RetryPolicyTest {
+
+  @Test
+  void retry_KeepsAttemptCountPerSubscription() {
+    RetryPolicy policy = new ExponentialDelay(1, 3, 2, TimeUnit.MILLISECONDS);
+    AtomicInteger calls = new AtomicInteger();
+    Observable<String> failing =
+        Observable.defer(
+            () -> {
+              calls.incrementAndGet();
+              return Observable.error(new IOException("connection reset"));
+            });
+
+    // Both subscriptions share the policy, and each still gets its own two retries.
+    failing.retryWhen(policy).test().awaitDone(5, TimeUnit.SECONDS).assertError(IOException.class);
+    failing.retryWhen(policy).test().awaitDone(5, TimeUnit.SECONDS).assertError(IOException.class);
+    assertEquals(6, calls.get());
+  }
+
+  @Test
+  void retry_FailsFastOnNonRetryableStatus() {
+    AtomicInteger calls = new AtomicInteger();
+    Observable.defer(
+            () -> {
+              calls.incrementAndGet();
+              return Observable.error(error(400, new HttpHeaders()));
+            })
+        .retryWhen(new FixedDelay(5, 1, TimeUnit.MILLISECONDS))
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertError(WebClientResponseException.class);
+
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void classify_UsesStatusAndExceptionType() {
+    assertEquals(RetryClassifier.Decision.RETRY, RetryClassifier.classify(429));
+    assertEquals(RetryClassifier.Decision.RETRY, RetryClassifier.classify(503));
+    assertEquals(RetryClassifier.Decision.FAIL, RetryClassifier.classify(401));
+    assertEquals(
+        RetryClassifier.Decision.RETRY,
+        RetryClassifier.classify(new RuntimeException(new IOException("timeout"))));
+    assertEquals(
+        RetryClassifier.Decision.FAIL,
+        RetryClassifier.classify(new IllegalArgumentException("bad input")));
+  }
+
+  @Test
+  void retryAfterMillis_ReadsHeaders() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, "2");
+    assertEquals(2000, RetryClassifier.retryAfterMillis(error(429, headers)));
+
+    headers.set("retry-after-ms", "150");
+    assertEquals(150, RetryClassifier.retryAfterMillis(error(429, headers)));
+    assertEquals(-1, RetryClassifier.retryAfterMillis(new IOException()));
+  }
+
+  @Test
+  void budget_CapsRetriesToShareOfRequests() {
+    AtomicLong now = new AtomicLong(1_000_000);
+    RetryBudget budget = new RetryBudget(0.1, 0, now::get);
+
+    for (int i = 0; i < 20; i++) budget.onRequest();
+    assertTrue(budget.tryAcquire());
+    assertTrue(budget.tryAcquire());
+    assertFalse(budget.tryAcquire());
+
+    // Once the window has passed, the old requests and retries no longer count.
+    now.addAndGet(TimeUnit.SECONDS.toMillis(11));
+    for (int i = 0; i < 10; i++) budget.onRequest();
+    assertTrue(budget.tryAcquire());
+    assertFalse(budget.tryAcquire());
+  }
+
+  private static WebClientResponseException error(int status, HttpHeaders headers) {
+    return WebClientResponseException.create(
+        status, "error", headers, new byte[0], StandardCharsets.UTF_8);
+  }
+}
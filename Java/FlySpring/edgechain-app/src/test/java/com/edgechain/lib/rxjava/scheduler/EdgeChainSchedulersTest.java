@@ -0,0 +1,110 @@
+package com.edgechain.lib.rxjava.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.edgechain.lib.deadline.Deadline;
+import com.edgechain.lib.rxjava.transformer.observable.EdgeChain;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class EdgeChainSchedulersTest {
+
+  private Scheduler scheduler;
+
+  @AfterEach
+  void restoreDefault() {
+    EdgeChainSchedulers.setDefault(Schedulers.io());
+    if (Objects.nonNull(scheduler)) scheduler.shutdown();
+  }
+
+  @Test
+  void bounded_RunsOnNamedFixedNumberOfThreads() {
+    scheduler = EdgeChainSchedulers.bounded("test", 2);
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    Observable.range(0, 20)
+        .flatMap(
+            i ->
+                Observable.fromCallable(
+                        () -> {
+                          threads.add(Thread.currentThread().getName());
+                          Thread.sleep(5);
+                          return i;
+                        })
+                    .subscribeOn(scheduler))
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertValueCount(20);
+
+    assertEquals(2, threads.size());
+    assertTrue(threads.stream().allMatch(name -> name.startsWith("edgechain-test-")));
+  }
+
+  @Test
+  void get_SharesOnePoolPerSubsystem() {
+    assertSame(
+        EdgeChainSchedulers.get(EdgeChainSchedulers.Subsystem.DB),
+        EdgeChainSchedulers.get(EdgeChainSchedulers.Subsystem.DB));
+  }
+
+  @Test
+  void edgeChain_SubscribesOnDefaultScheduler() {
+    scheduler = EdgeChainSchedulers.bounded("default-test", 1);
+    EdgeChainSchedulers.setDefault(scheduler);
+
+    String thread =
+        new EdgeChain<>(Observable.fromCallable(() -> Thread.currentThread().getName()))
+            .toSingle()
+            .blockingGet();
+
+    assertEquals("edgechain-default-test-1", thread);
+  }
+
+  @Test
+  void subscribeOn_CarriesDeadlineOntoSubsystemPool() {
+    Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+    AtomicReference<Deadline> seen = new AtomicReference<>();
+
+    Deadline.attach(deadline);
+    try {
+      String thread =
+          EdgeChainSchedulers.subscribeOn(
+                  Observable.fromCallable(
+                      () -> {
+                        seen.set(Deadline.current());
+                        return Thread.currentThread().getName();
+                      }),
+                  EdgeChainSchedulers.Subsystem.TOOLS)
+              .blockingFirst();
+
+      assertTrue(thread.startsWith("edgechain-tools-"));
+      assertSame(deadline, seen.get());
+    } finally {
+      Deadline.attach(null);
+    }
+  }
+
+  @Test
+  void virtualThreads_NeedsJdk21() {
+    if (Runtime.version().feature() >= 21) {
+      assertTrue(
+          new EdgeChain<>(Observable.fromCallable(() -> Thread.currentThread().isDaemon()))
+              .schedule(EdgeChainSchedulers.virtualThreads())
+              .get());
+    } else {
+      assertThrows(UnsupportedOperationException.class, EdgeChainSchedulers::virtualThreads);
+    }
+  }
+}
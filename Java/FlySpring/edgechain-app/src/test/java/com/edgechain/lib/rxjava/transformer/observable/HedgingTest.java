@@ -0,0 +1,94 @@
+package com.edgechain.lib.rxjava.transformer.observable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class HedgingTest {
+
+  @Test
+  void hedge_TakesFirstResultAndDisposesSlowAttempt() {
+    TestScheduler scheduler = new TestScheduler();
+    AtomicInteger attempts = new AtomicInteger();
+    AtomicBoolean firstDisposed = new AtomicBoolean();
+
+    // The first attempt takes 10s, later ones 1s.
+    Observable<String> source =
+        Observable.defer(
+            () -> {
+              int attempt = attempts.incrementAndGet();
+              return Observable.timer(attempt == 1 ? 10 : 1, TimeUnit.SECONDS, scheduler)
+                  .map(t -> "attempt " + attempt)
+                  .doOnDispose(
+                      () -> {
+                        if (attempt == 1) firstDisposed.set(true);
+                      });
+            });
+
+    TestObserver<String> observer =
+        Hedging.hedge(source, () -> 2000, 2, null, null, scheduler).test();
+
+    scheduler.advanceTimeBy(3, TimeUnit.SECONDS);
+    observer.assertValue("attempt 2").assertComplete();
+    assertEquals(2, attempts.get());
+    assertTrue(firstDisposed.get());
+  }
+
+  @Test
+  void hedge_SurfacesErrorOnlyWhenEveryAttemptFailed() {
+    TestScheduler scheduler = new TestScheduler();
+    AtomicInteger attempts = new AtomicInteger();
+
+    Observable<String> source =
+        Observable.defer(
+            () ->
+                attempts.incrementAndGet() == 1
+                    ? Observable.error(new IllegalStateException("first"))
+                    : Observable.<String>error(new IllegalStateException("second")));
+
+    TestObserver<String> observer =
+        Hedging.hedge(source, () -> 1000, 1, null, null, scheduler).test();
+    observer.assertNotComplete().assertNoErrors();
+
+    scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+    observer.assertError(e -> "first".equals(e.getMessage()));
+  }
+
+  @Test
+  void hedge_RecordsOnlyCallsThatProduceAResult() {
+    TestScheduler scheduler = new TestScheduler();
+    Hedging.LatencyWindow window = new Hedging.LatencyWindow();
+
+    // Cancelled before any attempt emits: the latency is unknown, so nothing is recorded.
+    for (int i = 0; i < 20; i++) {
+      Hedging.hedge(Observable.<String>never(), () -> 1000, 1, window, null, scheduler)
+          .test()
+          .dispose();
+    }
+    assertEquals(-1, window.p95());
+
+    for (int i = 0; i < 20; i++) {
+      Hedging.hedge(Observable.just("ok"), () -> 1000, 1, window, null, scheduler)
+          .test()
+          .assertValue("ok");
+    }
+    assertTrue(window.p95() >= 0);
+  }
+
+  @Test
+  void latencyWindow_HedgesOnlyAfterEnoughSamples() {
+    Hedging.LatencyWindow window = new Hedging.LatencyWindow();
+    for (int i = 1; i <= 19; i++) window.record(i * 10L);
+    assertEquals(-1, window.p95());
+
+    window.record(1000);
+    assertEquals(190, window.p95());
+  }
+}
@@ -0,0 +1,52 @@
+package com.edgechain.lib.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.edgechain.lib.openai.request.ChatMessage;
+import com.knuddels.jtokkit.api.EncodingType;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TokenUtilsTest {
+
+  @Test
+  void encodingForModel_ResolvesSnapshotsToTheirBaseModel() {
+    assertSame(TokenUtils.encodingForModel("gpt-4"), TokenUtils.encodingForModel("gpt-4-0613"));
+    assertEquals(
+        EncodingType.P50K_BASE.getName(),
+        TokenUtils.encodingForModel("text-davinci-003").getName());
+    assertEquals(
+        EncodingType.CL100K_BASE.getName(), TokenUtils.encodingForModel("unknown").getName());
+  }
+
+  @Test
+  void countPromptTokens_MatchesChatFormat() {
+    // Reference values from OpenAI's "How to count tokens with tiktoken" guide.
+    List<ChatMessage> messages =
+        List.of(
+            new ChatMessage("system", "You are a helpful assistant."),
+            new ChatMessage("user", "Hello!"));
+
+    // system: 1 + 6, user: 1 + 2, 3 tokens per message and 3 to prime the reply.
+    assertEquals(19, TokenUtils.countPromptTokens("gpt-3.5-turbo", messages));
+  }
+
+  @Test
+  void chatMessage_RecountsAfterContentChanges() {
+    ChatMessage message = new ChatMessage("user", "Hello!");
+    assertEquals(3, message.countTokens(TokenUtils.encodingForModel("gpt-4")));
+
+    message.setContent("Hello there, how are you?");
+    assertEquals(8, message.countTokens(TokenUtils.encodingForModel("gpt-4")));
+  }
+
+  @Test
+  void streamingTokenCounter_SumsDeltas() {
+    StreamingTokenCounter counter = new StreamingTokenCounter("gpt-4");
+    for (String delta : new String[] {"Hello", "!", null, " How", " are", " you", "?"}) {
+      counter.add(delta);
+    }
+    assertEquals(6, counter.getTokens());
+  }
+}
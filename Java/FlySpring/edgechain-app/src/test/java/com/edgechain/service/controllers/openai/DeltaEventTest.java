@@ -0,0 +1,47 @@
+package com.edgechain.service.controllers.openai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.edgechain.lib.utils.JsonUtils;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.ServerSentEventHttpMessageReader;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+class DeltaEventTest {
+
+  @Test
+  void deltaEvent_RoundTripsLeadingSpacesAndLineBreaks() {
+    List<String> deltas = List.of("Hello", " world", ",\n\n", "  \"quoted\"\nline", " ");
+
+    StringBuilder wire = new StringBuilder();
+    for (String delta : deltas) {
+      for (ResponseBodyEmitter.DataWithMediaType part :
+          OpenAiController.deltaEvent(delta).build()) {
+        wire.append(part.getData());
+      }
+    }
+
+    MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+    response.setBody(wire.toString());
+
+    List<String> received =
+        new ServerSentEventHttpMessageReader()
+            .read(
+                ResolvableType.forClassWithGenerics(ServerSentEvent.class, String.class),
+                response,
+                Collections.emptyMap())
+            .map(event -> (String) ((ServerSentEvent<?>) event).data())
+            .map(data -> JsonUtils.convertToObject(data, String.class))
+            .collectList()
+            .block();
+
+    assertEquals(deltas, received);
+    assertEquals("Hello world,\n\n  \"quoted\"\nline ", String.join("", received));
+  }
+}